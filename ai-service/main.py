@@ -1,4 +1,7 @@
-from fastapi import FastAPI
+import os
+from typing import List
+
+from fastapi import FastAPI, HTTPException
 from pydantic import BaseModel
 from transformers import AutoTokenizer, AutoModelForSequenceClassification
 import torch
@@ -6,6 +9,8 @@ import torch
 app = FastAPI()
 
 MODEL_NAME = "midhun-2542/AI_Railway_Model"
+# 🔹 Reported with every result so clients can invalidate cached classifications on redeploy
+MODEL_VERSION = os.getenv("MODEL_VERSION", MODEL_NAME)
 
 tokenizer = AutoTokenizer.from_pretrained(MODEL_NAME)
 model = AutoModelForSequenceClassification.from_pretrained(MODEL_NAME)
@@ -27,6 +32,30 @@ DEPARTMENTS = {
 class ComplaintData(BaseModel):
     text: str
 
+class ComplaintBatch(BaseModel):
+    texts: List[str]
+
+MAX_BATCH_SIZE = 64
+
+def build_result(predicted_class: int, confidence: float):
+    # 🔹 Get Department
+    department = DEPARTMENTS.get(predicted_class, "General")
+
+    # 🔹 Priority Logic Based on Department + Confidence
+    if department in ["Medical", "Security"]:
+        priority = "high"
+    elif confidence > 0.85:
+        priority = "medium"
+    else:
+        priority = "low"
+
+    return {
+        "department": department,
+        "priority": priority,
+        "confidence": round(confidence, 4),
+        "model_version": MODEL_VERSION
+    }
+
 @app.get("/health")
 def health():
     return {"status": "ok"}
@@ -41,20 +70,25 @@ def classify(data: ComplaintData):
 
     predicted_class = torch.argmax(probs).item()
     confidence = torch.max(probs).item()
+    return build_result(predicted_class, confidence)
 
-    # 🔹 Get Department
-    department = DEPARTMENTS.get(predicted_class, "General")
+# 🔹 One padded tokenizer/forward pass for many complaints; results keep input order
+@app.post("/classify/batch")
+def classify_batch(data: ComplaintBatch):
+    if not data.texts:
+        return {"results": []}
+    if len(data.texts) > MAX_BATCH_SIZE:
+        raise HTTPException(status_code=413, detail=f"At most {MAX_BATCH_SIZE} texts per batch")
 
-    # 🔹 Priority Logic Based on Department + Confidence
-    if department in ["Medical", "Security"]:
-        priority = "high"
-    elif confidence > 0.85:
-        priority = "medium"
-    else:
-        priority = "low"
+    inputs = tokenizer(data.texts, return_tensors="pt", truncation=True, padding=True)
 
-    return {
-        "department": department,
-        "priority": priority,
-        "confidence": round(confidence, 4)
-    }
\ No newline at end of file
+    with torch.no_grad():
+        outputs = model(**inputs)
+        probs = torch.nn.functional.softmax(outputs.logits, dim=1)
+
+    confidences, predicted = torch.max(probs, dim=1)
+    results = [
+        build_result(int(cls), float(conf))
+        for cls, conf in zip(predicted.tolist(), confidences.tolist())
+    ]
+    return {"results": results}
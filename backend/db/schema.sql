@@ -1,7 +1,14 @@
 -- PostgreSQL schema for AI-Enhanced Railway Grievance Redressal System
 
+-- Id sequences step by 50 to match allocationSize on the entities' @SequenceGenerator (Hibernate pooled ids).
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE complaints_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE complaint_history_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE users (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('users_seq'),
     username VARCHAR(50) UNIQUE NOT NULL,
     password VARCHAR(255) NOT NULL,
     role VARCHAR(20) NOT NULL CHECK (
@@ -16,11 +23,11 @@ CREATE TABLE users (
 );
 
 CREATE TABLE complaints (
-    id SERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('complaints_seq'),
     passenger_name VARCHAR(100) NOT NULL,
     complaint_text TEXT NOT NULL,
     category VARCHAR(30),
-    urgency_score INT DEFAULT 0,
+    urgency_score INT NOT NULL DEFAULT 0,
     status VARCHAR(20) NOT NULL CHECK (
         status IN (
             'PENDING',
@@ -35,14 +42,20 @@ CREATE TABLE complaints (
 );
 
 CREATE TABLE complaint_history (
-    id SERIAL PRIMARY KEY,
-    complaint_id INT NOT NULL REFERENCES complaints (id) ON DELETE CASCADE,
+    id BIGINT PRIMARY KEY DEFAULT nextval('complaint_history_seq'),
+    complaint_id BIGINT NOT NULL REFERENCES complaints (id) ON DELETE CASCADE,
     old_status VARCHAR(20) NOT NULL,
     new_status VARCHAR(20) NOT NULL,
-    updated_by INT NOT NULL REFERENCES users (id),
+    updated_by BIGINT NOT NULL REFERENCES users (id),
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+ALTER SEQUENCE users_seq OWNED BY users.id;
+
+ALTER SEQUENCE complaints_seq OWNED BY complaints.id;
+
+ALTER SEQUENCE complaint_history_seq OWNED BY complaint_history.id;
+
 -- Indexes
 CREATE INDEX idx_complaints_urgency_score ON complaints (urgency_score DESC);
 
@@ -0,0 +1,163 @@
+package com.railway.backend.ai;
+
+import com.railway.backend.config.BoundedExecutor;
+import com.railway.backend.config.WorkerThreads;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Gathers concurrent classification calls for a short window and sends them to the batch endpoint in one request.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchingComplaintClassifier {
+    private final ComplaintClassifier complaintClassifier;
+    private final MeterRegistry meterRegistry;
+    private final WorkerThreads workerThreads;
+
+    @Value("${app.ai.batch.enabled:true}")
+    private boolean batchEnabled;
+    @Value("${app.ai.batch.max-size:16}")
+    private int maxBatchSize;
+    @Value("${app.ai.batch.window-ms:25}")
+    private long windowMs;
+    @Value("${app.ai.batch.queue-capacity:1000}")
+    private int queueCapacity;
+    @Value("${app.ai.batch.senders:2}")
+    private int senders;
+    @Value("${app.ai.batch.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    private LinkedBlockingQueue<PendingClassification> queue;
+    private BoundedExecutor senderPool;
+    private Thread dispatcher;
+    private DistributionSummary batchSizes;
+    private volatile boolean running;
+    private volatile boolean batchSupported = true;
+
+    @PostConstruct
+    void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("complaint.classifier.batch.size")
+                .description("Complaints sent per classifier request")
+                .register(meterRegistry);
+        // Every waiting batch holds at least one caller that was admitted to the queue, so it bounds the backlog too.
+        senderPool = workerThreads.bounded("ai-batch-sender-", senders, queueCapacity);
+        running = true;
+        dispatcher = workerThreads.factory("ai-batch-dispatcher-").newThread(this::dispatchLoop);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        dispatcher.interrupt();
+        senderPool.shutdown();
+        PendingClassification pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().complete(Optional.empty());
+        }
+    }
+
+    public Optional<ClassificationResult> classify(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        if (!batchEnabled || !batchSupported || !running) {
+            return complaintClassifier.classify(text);
+        }
+
+        PendingClassification pending = new PendingClassification(text, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            return complaintClassifier.classify(text);
+        }
+        try {
+            return pending.result().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (TimeoutException | ExecutionException ex) {
+            log.warn("Timed out waiting for batched classification. Continuing without enrichment.");
+            return Optional.empty();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                PendingClassification first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingClassification> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingClassification next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                try {
+                    senderPool.execute(() -> send(batch));
+                } catch (RejectedExecutionException ex) {
+                    // The callers get no result now instead of waiting out their timeout.
+                    batch.forEach(pending -> pending.result().complete(Optional.empty()));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("AI batch dispatcher failed to hand off a batch.", ex);
+            }
+        }
+    }
+
+    private void send(List<PendingClassification> batch) {
+        batchSizes.record(batch.size());
+        if (batch.size() == 1 || !batchSupported) {
+            batch.forEach(p -> p.result().complete(complaintClassifier.classify(p.text())));
+            return;
+        }
+        try {
+            List<Optional<ClassificationResult>> results = complaintClassifier.classifyBatch(
+                    batch.stream().map(PendingClassification::text).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed ex) {
+            log.warn("Classifier at {} has no batch endpoint; falling back to one request per complaint.",
+                    complaintClassifier.getBatchUrl());
+            batchSupported = false;
+            batch.forEach(p -> p.result().complete(complaintClassifier.classify(p.text())));
+        } catch (RestClientException ex) {
+            log.warn("AI service unavailable for batch classification. Continuing without enrichment.", ex);
+            batch.forEach(p -> p.result().complete(Optional.empty()));
+        } catch (Exception ex) {
+            log.warn("AI batch classification failed. Continuing without enrichment.", ex);
+            batch.forEach(p -> p.result().complete(Optional.empty()));
+        }
+    }
+
+    private record PendingClassification(String text, CompletableFuture<Optional<ClassificationResult>> result) {
+    }
+}
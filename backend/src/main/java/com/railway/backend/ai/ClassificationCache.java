@@ -0,0 +1,118 @@
+package com.railway.backend.ai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+// Content-addressed cache of classifier results, keyed on a hash of the normalized complaint text.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClassificationCache {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<String> modelVersion = new AtomicReference<>();
+
+    @Value("${app.ai.cache.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${app.ai.cache.max-size:10000}")
+    private long maxSize;
+    @Value("${app.ai.cache.ttl-minutes:360}")
+    private long ttlMinutes;
+
+    private Cache<String, CachedClassification> cache;
+
+    @PostConstruct
+    void start() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "classifier");
+    }
+
+    public Optional<ClassificationResult> get(String text) {
+        if (!cacheEnabled || text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+        CachedClassification cached = cache.getIfPresent(key(text));
+        return cached == null ? Optional.empty() : Optional.of(cached.toResult());
+    }
+
+    public void put(String text, ClassificationResult result) {
+        if (!cacheEnabled || text == null || text.isBlank() || result == null || result.isFallback()
+                || result.isUnusable()) {
+            return;
+        }
+        observeModelVersion(result.modelVersion());
+        cache.put(key(text), new CachedClassification(result.department(), result.priority(),
+                result.confidence(), result.modelVersion()));
+    }
+
+    // Called with the version reported by every fresh classifier response; a redeployed model drops all entries.
+    public void observeModelVersion(String version) {
+        if (version == null) {
+            return;
+        }
+        String previous = modelVersion.getAndSet(version);
+        if (previous != null && !Objects.equals(previous, version)) {
+            log.info("Classifier model changed from {} to {}. Invalidating cached classifications.", previous, version);
+            invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    static String normalize(String text) {
+        return NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static String key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalize(text).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private record CachedClassification(String department, String priority, Double confidence, String modelVersion) {
+        ClassificationResult toResult() {
+            Map<String, Object> raw = new HashMap<>();
+            raw.put("department", department);
+            raw.put("priority", priority);
+            raw.put("confidence", confidence);
+            raw.put("model_version", modelVersion);
+            raw.put("cached", true);
+            return new ClassificationResult(department, priority, ComplaintClassifier.urgencyForPriority(priority),
+                    confidence, modelVersion, raw);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.railway.backend.ai;
+
+import java.util.Map;
+
+public record ClassificationResult(String department, String priority, Integer urgencyScore, Double confidence,
+        String modelVersion, Map<String, Object> raw) {
+    public static final String KEYWORD_FALLBACK = "keyword-fallback";
+    public static final String UNUSABLE = "unusable";
+
+    // Produced locally while the classifier is unavailable; never cached or treated as a model answer.
+    public static ClassificationResult keywordFallback(String department) {
+        return new ClassificationResult(department, null, null, null, KEYWORD_FALLBACK,
+                Map.of("department", department, "fallback", true));
+    }
+
+    // The classifier answered, but with something that cannot be read; asking again will not help.
+    public static ClassificationResult unusable() {
+        return new ClassificationResult(null, null, null, null, UNUSABLE, Map.of());
+    }
+
+    public boolean isFallback() {
+        return KEYWORD_FALLBACK.equals(modelVersion);
+    }
+
+    public boolean isUnusable() {
+        return UNUSABLE.equals(modelVersion);
+    }
+}
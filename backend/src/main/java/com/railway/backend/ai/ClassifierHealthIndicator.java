@@ -0,0 +1,29 @@
+package com.railway.backend.ai;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+// Reports classifier breaker and bulkhead state under /actuator/health. Stays UP while the breaker is open:
+// complaints keep flowing on keyword classification, so the backend itself is not unhealthy.
+@Component
+@RequiredArgsConstructor
+public class ClassifierHealthIndicator implements HealthIndicator {
+    private final CircuitBreaker classifierCircuitBreaker;
+    private final Bulkhead classifierBulkhead;
+
+    @Override
+    public Health health() {
+        CircuitBreaker.Metrics metrics = classifierCircuitBreaker.getMetrics();
+        return Health.up()
+                .withDetail("breakerState", classifierCircuitBreaker.getState().name())
+                .withDetail("failureRate", metrics.getFailureRate())
+                .withDetail("slowCallRate", metrics.getSlowCallRate())
+                .withDetail("notPermittedCalls", metrics.getNumberOfNotPermittedCalls())
+                .withDetail("bulkheadAvailable", classifierBulkhead.getMetrics().getAvailableConcurrentCalls())
+                .build();
+    }
+}
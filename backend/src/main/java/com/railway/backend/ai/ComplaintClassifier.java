@@ -0,0 +1,204 @@
+package com.railway.backend.ai;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintClassifier {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RestTemplate classifierRestTemplate;
+    private final CircuitBreaker classifierCircuitBreaker;
+    private final Bulkhead classifierBulkhead;
+    private final DepartmentKeywordMatcher departmentKeywordMatcher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.ai.classifier-url:https://midhun-2542-railwaymodel.hf.space/classify}")
+    private String classifierUrl;
+    @Value("${app.ai.batch.url:}")
+    private String batchUrl;
+
+    public String getClassifierUrl() {
+        return classifierUrl;
+    }
+
+    public String getBatchUrl() {
+        return batchUrl == null || batchUrl.isBlank() ? classifierUrl + "/batch" : batchUrl;
+    }
+
+    public Optional<ClassificationResult> classify(String text) {
+        if (text == null || text.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+
+            Map<String, String> requestBody = Map.of("text", text);
+            HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
+
+            String responseBody = call("single",
+                    () -> classifierRestTemplate.postForObject(URI.create(classifierUrl), request, String.class));
+            if (responseBody == null || responseBody.isBlank()) {
+                return Optional.empty();
+            }
+
+            Map<String, Object> payload = objectMapper.readValue(responseBody, new TypeReference<Map<String, Object>>() {
+            });
+            return Optional.of(toResult(payload));
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            return Optional.of(ClassificationResult.keywordFallback(departmentKeywordMatcher.inferDepartment(text)));
+        } catch (RestClientException ex) {
+            log.warn("AI service unavailable for complaint classification. Continuing without enrichment.", ex);
+        } catch (Exception ex) {
+            log.warn("AI enrichment failed due to unexpected response format. Continuing without enrichment.", ex);
+            return Optional.of(ClassificationResult.unusable());
+        }
+        return Optional.empty();
+    }
+
+    // Throws RestClientException so callers can tell an unsupported batch endpoint apart from a bad payload.
+    public List<Optional<ClassificationResult>> classifyBatch(List<String> texts) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, List<String>>> request = new HttpEntity<>(Map.of("texts", texts), headers);
+
+        List<Optional<ClassificationResult>> results = new ArrayList<>(texts.size());
+        String responseBody;
+        try {
+            responseBody = call("batch",
+                    () -> classifierRestTemplate.postForObject(URI.create(getBatchUrl()), request, String.class));
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            for (String text : texts) {
+                results.add(Optional.of(ClassificationResult.keywordFallback(departmentKeywordMatcher.inferDepartment(text))));
+            }
+            return results;
+        }
+        try {
+            Map<String, Object> payload = responseBody == null || responseBody.isBlank()
+                    ? Map.of()
+                    : objectMapper.readValue(responseBody, new TypeReference<Map<String, Object>>() {
+                    });
+            if (payload.get("results") instanceof List<?> items && items.size() == texts.size()) {
+                for (Object item : items) {
+                    results.add(item instanceof Map<?, ?> map
+                            ? Optional.of(toResult(objectMapper.convertValue(map, new TypeReference<Map<String, Object>>() {
+                            })))
+                            : Optional.of(ClassificationResult.unusable()));
+                }
+                return results;
+            }
+            log.warn("AI batch response did not contain {} results. Continuing without enrichment.", texts.size());
+        } catch (Exception ex) {
+            log.warn("AI batch enrichment failed due to unexpected response format. Continuing without enrichment.", ex);
+        }
+        results.clear();
+        for (int i = 0; i < texts.size(); i++) {
+            results.add(Optional.empty());
+        }
+        return results;
+    }
+
+    // Every outbound request goes through the bulkhead first, so a slow classifier cannot tie up more than its share
+    // of threads, and then through the breaker, which short-circuits to the keyword fallback after repeated failures.
+    private String call(String endpoint, Supplier<String> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            String body = classifierBulkhead.executeSupplier(classifierCircuitBreaker.decorateSupplier(request));
+            outcome = "success";
+            return body;
+        } catch (CallNotPermittedException | BulkheadFullException ex) {
+            outcome = "rejected";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("complaint.classifier.latency", "endpoint", endpoint, "outcome", outcome));
+        }
+    }
+
+    ClassificationResult toResult(Map<String, Object> payload) {
+        String priority = extractPriority(payload);
+        Double confidence = payload.get("confidence") instanceof Number value ? value.doubleValue() : null;
+        String modelVersion = payload.get("model_version") instanceof String value && !value.isBlank() ? value : null;
+        return new ClassificationResult(extractDepartment(payload), priority, urgencyForPriority(priority),
+                confidence, modelVersion, payload);
+    }
+
+    public static Integer urgencyForPriority(String priority) {
+        if ("high".equals(priority)) {
+            return 95;
+        }
+        if ("medium".equals(priority)) {
+            return 70;
+        }
+        return 35;
+    }
+
+    private String extractDepartment(Map<String, Object> payload) {
+        Object department = payload.get("department");
+        if (department instanceof String value && !value.isBlank()) {
+            return value.trim();
+        }
+
+        Object category = payload.get("category");
+        if (category == null) {
+            return null;
+        }
+
+        String label = category.toString().trim();
+        try {
+            int idx = Integer.parseInt(label);
+            return mapCategoryIndexToDepartment(idx);
+        } catch (NumberFormatException ignored) {
+            return label.isBlank() ? null : label;
+        }
+    }
+
+    private String extractPriority(Map<String, Object> payload) {
+        Object priority = payload.get("priority");
+        if (priority instanceof String value && !value.isBlank()) {
+            return value.trim().toLowerCase();
+        }
+        return null;
+    }
+
+    private String mapCategoryIndexToDepartment(int index) {
+        return switch (index) {
+            case 0 -> "Catering";
+            case 1 -> "Cleanliness";
+            case 2 -> "Coach";
+            case 3 -> "Electrical";
+            case 4 -> "General";
+            case 5 -> "Maintenance";
+            case 6 -> "Medical";
+            case 7 -> "Security";
+            case 8 -> "Ticketing";
+            case 9 -> "Water";
+            default -> "General";
+        };
+    }
+}
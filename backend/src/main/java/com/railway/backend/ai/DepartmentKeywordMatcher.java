@@ -0,0 +1,149 @@
+package com.railway.backend.ai;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+// Keyword-based department inference compiled into an Aho-Corasick automaton: one pass over the text, no allocation.
+@Component
+public class DepartmentKeywordMatcher {
+    public static final String DEFAULT_DEPARTMENT = "General";
+
+    // Precedence order: the first department with any keyword hit wins.
+    private static final String[] DEPARTMENTS = {
+            "Security", "Medical", "Water", "Cleanliness", "Catering", "Electrical", "Coach", "Ticketing", "Maintenance"
+    };
+    private static final String[][] KEYWORDS = {
+            {"security", "theft", "steal", "snatch", "rob", "fight", "harass", "unsafe", "police", "rpf", "sos"},
+            {"medical", "doctor", "ambulance", "heart attack", "injury", "blood", "faint", "poison"},
+            {"water", "no water", "drinking", "tap", "toilet water"},
+            {"clean", "dirty", "toilet", "restroom", "sanitation", "garbage", "smell"},
+            {"food", "catering", "meal", "vendor"},
+            {"light", "fan", "charging", "socket", "electric", "power"},
+            {"coach", "berth", "seat", "window", "door", "ac"},
+            {"ticket", "refund", "pnr", "reservation", "booking"},
+            {"repair", "maintenance", "broken", "damage", "leak"}
+    };
+
+    private final byte[] symbolOf = new byte[128];
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final int[] outputMask;
+
+    public DepartmentKeywordMatcher() {
+        int symbols = 1;
+        for (String[] group : KEYWORDS) {
+            for (String keyword : group) {
+                for (char c : keyword.toCharArray()) {
+                    if (symbolOf[c] == 0) {
+                        symbolOf[c] = (byte) symbols++;
+                    }
+                }
+            }
+        }
+        alphabetSize = symbols;
+
+        List<int[]> gotoRows = new ArrayList<>();
+        List<Integer> masks = new ArrayList<>();
+        gotoRows.add(newRow());
+        masks.add(0);
+        for (int department = 0; department < KEYWORDS.length; department++) {
+            for (String keyword : KEYWORDS[department]) {
+                int state = 0;
+                for (char c : keyword.toCharArray()) {
+                    int symbol = symbolOf[c];
+                    if (gotoRows.get(state)[symbol] < 0) {
+                        gotoRows.get(state)[symbol] = gotoRows.size();
+                        gotoRows.add(newRow());
+                        masks.add(0);
+                    }
+                    state = gotoRows.get(state)[symbol];
+                }
+                masks.set(state, masks.get(state) | (1 << department));
+            }
+        }
+
+        int states = gotoRows.size();
+        transitions = new int[states * alphabetSize];
+        outputMask = new int[states];
+        int[] failure = new int[states];
+        for (int s = 0; s < states; s++) {
+            outputMask[s] = masks.get(s);
+        }
+
+        // Breadth-first construction of the full DFA; failure links fold suffix matches into each state's mask.
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] rootRow = gotoRows.get(0);
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = rootRow[symbol];
+            transitions[symbol] = next < 0 ? 0 : next;
+            if (next > 0) {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputMask[state] |= outputMask[failure[state]];
+            int[] row = gotoRows.get(state);
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = row[symbol];
+                int fallback = transitions[failure[state] * alphabetSize + symbol];
+                if (next < 0) {
+                    transitions[state * alphabetSize + symbol] = fallback;
+                } else {
+                    transitions[state * alphabetSize + symbol] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public String inferDepartment(String text) {
+        if (text == null || text.isBlank()) {
+            return DEFAULT_DEPARTMENT;
+        }
+        int mask = matchMask(text);
+        return mask == 0 ? DEFAULT_DEPARTMENT : DEPARTMENTS[Integer.numberOfTrailingZeros(mask)];
+    }
+
+    int matchMask(String text) {
+        int state = 0;
+        int mask = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\u0130') {
+                // String.toLowerCase expands dotted capital I to "i̇"; feed both chars to stay identical.
+                state = step(state, 'i');
+                mask |= outputMask[state];
+                c = '\u0307';
+            } else if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            } else if (c >= 128) {
+                c = Character.toLowerCase(c);
+            }
+            state = step(state, c);
+            mask |= outputMask[state];
+            if ((mask & 1) != 0) {
+                return mask;
+            }
+        }
+        return mask;
+    }
+
+    private int step(int state, char c) {
+        int symbol = c < 128 ? symbolOf[c] : 0;
+        return transitions[state * alphabetSize + symbol];
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
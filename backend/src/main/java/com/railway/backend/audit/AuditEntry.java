@@ -0,0 +1,11 @@
+package com.railway.backend.audit;
+
+// One line of an audit file.
+public record AuditEntry(long timestamp, String method, String uri, String principal, String remoteAddr, int status,
+        long latencyMicros) {
+
+    static AuditEntry of(AuditRingBuffer.Slot slot) {
+        return new AuditEntry(slot.timestampMillis, slot.method, slot.uri, slot.principal, slot.remoteAddr,
+                slot.status, slot.latencyMicros);
+    }
+}
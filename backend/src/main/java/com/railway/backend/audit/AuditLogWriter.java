@@ -0,0 +1,347 @@
+package com.railway.backend.audit;
+
+import com.railway.backend.config.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+// Drains the audit ring on a background thread into append-only NDJSON files, rotated by size and age, with a
+// configurable fsync policy. Also answers "what happened recently" by scanning the newest files backwards.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogWriter {
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".ndjson";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int READ_BLOCK = 64 * 1024;
+
+    public enum FsyncPolicy {
+        NEVER, BATCH, INTERVAL
+    }
+
+    private final WorkerThreads workerThreads;
+    private final JsonMapper jsonMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+    @Value("${app.audit.dir:./audit}")
+    private String directory;
+    @Value("${app.audit.buffer-size:8192}")
+    private int bufferSize;
+    @Value("${app.audit.batch-size:512}")
+    private int batchSize;
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    @Value("${app.audit.max-file-mb:64}")
+    private long maxFileMb;
+    @Value("${app.audit.rotate-interval-minutes:60}")
+    private long rotateIntervalMinutes;
+    @Value("${app.audit.max-files:48}")
+    private int maxFiles;
+    @Value("${app.audit.fsync:interval}")
+    private String fsync;
+    @Value("${app.audit.fsync-interval-ms:1000}")
+    private long fsyncIntervalMs;
+
+    private AuditRingBuffer ring;
+    private FsyncPolicy fsyncPolicy;
+    private Path dir;
+    private Thread writerThread;
+    private volatile boolean running;
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(64 * 1024);
+    private int batchEntries;
+
+    // Writer-thread state.
+    private FileChannel channel;
+    private Path currentFile;
+    private long currentSize;
+    private long openedAtNanos;
+    private long lastFsyncNanos;
+    private boolean unsynced;
+
+    private Counter writtenCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void start() throws IOException {
+        ring = new AuditRingBuffer(bufferSize);
+        fsyncPolicy = FsyncPolicy.valueOf(fsync.trim().toUpperCase(Locale.ROOT));
+        dir = Paths.get(directory).toAbsolutePath();
+        Gauge.builder("audit.buffer.depth", ring, AuditRingBuffer::size).register(meterRegistry);
+        Gauge.builder("audit.dropped", ring, AuditRingBuffer::dropped).register(meterRegistry);
+        writtenCounter = meterRegistry.counter("audit.written");
+        failedCounter = meterRegistry.counter("audit.write.failed");
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        running = true;
+        writerThread = workerThreads.factory("audit-writer-").newThread(this::run);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean record(long timestampMillis, String method, String uri, String principal, String remoteAddr,
+            int status, long latencyMicros) {
+        return enabled && ring.publish(timestampMillis, method, uri, principal, remoteAddr, status, latencyMicros);
+    }
+
+    // Newest first, across files, stopping at the limit or at entries older than since.
+    public List<AuditEntry> recent(int limit, Predicate<AuditEntry> filter, Long sinceMillis) throws IOException {
+        List<AuditEntry> result = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return result;
+        }
+        for (Path file : auditFiles(Comparator.reverseOrder())) {
+            boolean more = scanBackwards(file, line -> {
+                AuditEntry entry;
+                try {
+                    entry = jsonMapper.readValue(line, AuditEntry.class);
+                } catch (Exception ex) {
+                    // A torn last line after a crash; skip it.
+                    return true;
+                }
+                if (sinceMillis != null && entry.timestamp() < sinceMillis) {
+                    return false;
+                }
+                if (filter.test(entry)) {
+                    result.add(entry);
+                }
+                return result.size() < limit;
+            });
+            if (!more) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void run() {
+        while (running || ring.size() > 0) {
+            try {
+                // A batch left over from a failed write goes out before anything new is drained.
+                int drained = 0;
+                if (batch.size() == 0) {
+                    drained = ring.drain(batchSize, this::append);
+                    batchEntries = drained;
+                }
+                if (batch.size() > 0) {
+                    writeBatch();
+                }
+                maintain();
+                if (drained < batchSize && running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (Exception ex) {
+                failedCounter.increment();
+                log.warn("Audit writer failed; retrying with a new file.", ex);
+                closeQuietly();
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+        closeQuietly();
+    }
+
+    private void append(AuditRingBuffer.Slot slot) {
+        try {
+            batch.write(jsonMapper.writeValueAsBytes(AuditEntry.of(slot)));
+            batch.write('\n');
+        } catch (Exception ex) {
+            failedCounter.increment();
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        if (channel == null || currentSize >= maxFileMb * 1024 * 1024) {
+            rotate();
+        }
+        byte[] data = batch.toByteArray();
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        try {
+            while (bytes.hasRemaining()) {
+                currentSize += channel.write(bytes);
+            }
+        } catch (IOException ex) {
+            keepUnwritten(data, bytes.position());
+            throw ex;
+        }
+        batch.reset();
+        writtenCounter.increment(batchEntries);
+        batchEntries = 0;
+        unsynced = true;
+        if (fsyncPolicy == FsyncPolicy.BATCH) {
+            force();
+        }
+    }
+
+    private void maintain() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (unsynced && fsyncPolicy == FsyncPolicy.INTERVAL
+                && now - lastFsyncNanos >= TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMs)) {
+            force();
+        }
+        // An idle file is left alone; the next batch after a timed close opens a new one.
+        if (currentSize > 0 && now - openedAtNanos >= Duration.ofMinutes(rotateIntervalMinutes).toNanos()) {
+            closeFile();
+        }
+    }
+
+    // Keeps every line the failed write did not finish, so the retry in a new file neither loses nor repeats an
+    // entry; the torn tail left in the old file is skipped when it is read.
+    private void keepUnwritten(byte[] data, int written) {
+        int from = written;
+        while (from > 0 && data[from - 1] != '\n') {
+            from--;
+        }
+        int kept = 0;
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') {
+                kept++;
+            }
+        }
+        writtenCounter.increment(batchEntries - kept);
+        batchEntries = kept;
+        batch.reset();
+        batch.write(data, from, data.length - from);
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        lastFsyncNanos = System.nanoTime();
+        unsynced = false;
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Path next = dir.resolve(PREFIX + LocalDateTime.now().format(FILE_TIME) + SUFFIX);
+        if (next.equals(currentFile)) {
+            next = dir.resolve(PREFIX + LocalDateTime.now().format(FILE_TIME) + "-" + System.nanoTime() + SUFFIX);
+        }
+        channel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        currentFile = next;
+        currentSize = channel.size();
+        openedAtNanos = System.nanoTime();
+        lastFsyncNanos = openedAtNanos;
+        enforceRetention();
+    }
+
+    private void closeFile() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        if (unsynced && fsyncPolicy != FsyncPolicy.NEVER) {
+            force();
+        }
+        channel.close();
+        channel = null;
+    }
+
+    private void enforceRetention() throws IOException {
+        List<Path> files = auditFiles(Comparator.naturalOrder());
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private List<Path> auditFiles(Comparator<Path> order) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted(order).toList();
+        }
+    }
+
+    private void closeQuietly() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (unsynced && fsyncPolicy != FsyncPolicy.NEVER) {
+                force();
+            }
+            channel.close();
+        } catch (IOException ex) {
+            log.debug("Closing audit file failed.", ex);
+        }
+        channel = null;
+    }
+
+    // Feeds lines newest first; the visitor returns false to stop. Returns false if the scan was stopped.
+    private static boolean scanBackwards(Path file, Predicate<String> visitor) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = in.size();
+            byte[] carry = new byte[0];
+            while (position > 0) {
+                int length = (int) Math.min(READ_BLOCK, position);
+                position -= length;
+                ByteBuffer block = ByteBuffer.allocate(length);
+                while (block.hasRemaining()) {
+                    if (in.read(block, position + block.position()) < 0) {
+                        break;
+                    }
+                }
+                byte[] data = new byte[length + carry.length];
+                System.arraycopy(block.array(), 0, data, 0, length);
+                System.arraycopy(carry, 0, data, length, carry.length);
+                int end = data.length;
+                for (int i = data.length - 1; i >= 0; i--) {
+                    if (data[i] == '\n') {
+                        if (end - i > 1 && !visitor.test(new String(data, i + 1, end - i - 1, StandardCharsets.UTF_8))) {
+                            return false;
+                        }
+                        end = i;
+                    }
+                }
+                carry = new byte[end];
+                System.arraycopy(data, 0, carry, 0, end);
+            }
+            return carry.length == 0 || visitor.test(new String(carry, StandardCharsets.UTF_8));
+        }
+    }
+}
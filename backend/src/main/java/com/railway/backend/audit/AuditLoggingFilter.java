@@ -1,21 +1,45 @@
 package com.railway.backend.audit;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Component;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
 import java.io.IOException;
 
+// Captures method, URI, principal, status and latency per request into the audit ring; the file write happens on
+// the audit writer thread. Registered ahead of Spring Security so rejected requests are audited too.
 @Component
+@RequiredArgsConstructor
 public class AuditLoggingFilter implements Filter {
-    private static final Logger logger = LoggerFactory.getLogger(AuditLoggingFilter.class);
+    // Set by JwtAuthFilter once a bearer token resolves, since the security context is cleared before we see it.
+    public static final String PRINCIPAL_ATTRIBUTE = AuditLoggingFilter.class.getName() + ".principal";
+
+    private final AuditLogWriter auditLogWriter;
+
+    @Value("${app.audit.include-preflight:false}")
+    private boolean includePreflight;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         HttpServletRequest req = (HttpServletRequest) request;
-        logger.info("AUDIT: {} {} from {}", req.getMethod(), req.getRequestURI(), req.getRemoteAddr());
-        chain.doFilter(request, response);
+        if (!auditLogWriter.isEnabled() || (!includePreflight && "OPTIONS".equals(req.getMethod()))) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = ((HttpServletResponse) response).getStatus();
+        } finally {
+            Object principal = req.getAttribute(PRINCIPAL_ATTRIBUTE);
+            auditLogWriter.record(System.currentTimeMillis(), req.getMethod(), req.getRequestURI(),
+                    principal == null ? null : principal.toString(), req.getRemoteAddr(), status,
+                    (System.nanoTime() - started) / 1_000);
+        }
     }
 }
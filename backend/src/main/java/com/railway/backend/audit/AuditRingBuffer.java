@@ -0,0 +1,92 @@
+package com.railway.backend.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Fixed-size multi-producer, single-consumer ring of preallocated audit slots. Producers claim a sequence with a CAS,
+// fill the slot in place and publish it; nothing is allocated per request. When the writer falls a full ring behind,
+// new records are dropped and counted instead of blocking request threads.
+public class AuditRingBuffer {
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public static final class Slot {
+        private volatile long published = -1;
+        long timestampMillis;
+        String method;
+        String uri;
+        String principal;
+        String remoteAddr;
+        int status;
+        long latencyMicros;
+    }
+
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        mask = size - 1;
+    }
+
+    public boolean publish(long timestampMillis, String method, String uri, String principal, String remoteAddr,
+            int status, long latencyMicros) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed.get() >= slots.length) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.timestampMillis = timestampMillis;
+        slot.method = method;
+        slot.uri = uri;
+        slot.principal = principal;
+        slot.remoteAddr = remoteAddr;
+        slot.status = status;
+        slot.latencyMicros = latencyMicros;
+        // Volatile write publishes the plain field writes above to the consumer.
+        slot.published = sequence;
+        return true;
+    }
+
+    // Hands up to max published slots, in claim order, to the consumer. A slot is reused as soon as the consumer
+    // returns, so the consumer must copy what it needs.
+    public int drain(int max, Consumer<Slot> consumer) {
+        long next = consumed.get();
+        int count = 0;
+        while (count < max) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) {
+                break;
+            }
+            consumer.accept(slot);
+            slot.method = null;
+            slot.uri = null;
+            slot.principal = null;
+            slot.remoteAddr = null;
+            next++;
+            count++;
+            consumed.lazySet(next);
+        }
+        return count;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long size() {
+        return claimed.get() - consumed.get();
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+}
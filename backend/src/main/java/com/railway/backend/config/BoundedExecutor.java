@@ -0,0 +1,86 @@
+package com.railway.backend.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs at most `concurrency` tasks at once with at most `backlog` more waiting, and rejects the rest. On platform
+// threads the tasks share a fixed pool; on virtual threads each task gets a new thread and waits on a semaphore for
+// its turn, so virtual threads are never pooled. Obtained from WorkerThreads.bounded.
+public final class BoundedExecutor implements Executor {
+    private final ExecutorService threads;
+    private final Semaphore running;
+    private final Semaphore admitted;
+    private final int capacity;
+    private final AtomicInteger active = new AtomicInteger();
+
+    BoundedExecutor(ExecutorService threads, Semaphore running, int concurrency, int backlog) {
+        this.threads = threads;
+        this.running = running;
+        this.capacity = concurrency + backlog;
+        this.admitted = new Semaphore(capacity);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new RejectedExecutionException("Executor is at capacity");
+        }
+        try {
+            threads.execute(() -> run(task));
+        } catch (RejectedExecutionException ex) {
+            admitted.release();
+            throw ex;
+        }
+    }
+
+    public int active() {
+        return active.get();
+    }
+
+    public int queued() {
+        return Math.max(0, capacity - admitted.availablePermits() - active.get());
+    }
+
+    // How many more tasks execute would accept right now.
+    public int remainingCapacity() {
+        return admitted.availablePermits();
+    }
+
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    public void shutdownNow() {
+        threads.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+
+    private void run(Runnable task) {
+        try {
+            if (running != null) {
+                running.acquire();
+            }
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                if (running != null) {
+                    running.release();
+                }
+            }
+        } catch (InterruptedException ex) {
+            // Shut down while waiting for a turn.
+            Thread.currentThread().interrupt();
+        } finally {
+            admitted.release();
+        }
+    }
+}
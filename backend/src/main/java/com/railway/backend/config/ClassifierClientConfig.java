@@ -0,0 +1,117 @@
+package com.railway.backend.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class ClassifierClientConfig {
+    public static final String CLASSIFIER = "classifier";
+
+    @Value("${app.ai.client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+    @Value("${app.ai.client.read-timeout-ms:10000}")
+    private long readTimeoutMs;
+    @Value("${app.ai.client.pool.max-total:32}")
+    private int poolMaxTotal;
+    @Value("${app.ai.client.pool.max-per-route:16}")
+    private int poolMaxPerRoute;
+    @Value("${app.ai.client.pool.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${app.ai.breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+    @Value("${app.ai.breaker.slow-call-threshold-ms:5000}")
+    private long slowCallThresholdMs;
+    @Value("${app.ai.breaker.window-size:20}")
+    private int breakerWindowSize;
+    @Value("${app.ai.breaker.minimum-calls:10}")
+    private int breakerMinimumCalls;
+    @Value("${app.ai.breaker.open-seconds:30}")
+    private long breakerOpenSeconds;
+
+    @Value("${app.ai.bulkhead.max-concurrent-calls:8}")
+    private int bulkheadMaxConcurrentCalls;
+    @Value("${app.ai.bulkhead.max-wait-ms:100}")
+    private long bulkheadMaxWaitMs;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient classifierHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(poolMaxTotal)
+                .setMaxConnPerRoute(poolMaxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a pooled connection counts against the caller like any other timeout
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofSeconds(keepAliveSeconds))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(keepAliveSeconds))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate classifierRestTemplate(CloseableHttpClient classifierHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(classifierHttpClient));
+    }
+
+    @Bean
+    public CircuitBreaker classifierCircuitBreaker(MeterRegistry meterRegistry) {
+        // Only transport failures and 5xx count; a 4xx (e.g. no batch endpoint) says nothing about the service's health.
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(breakerWindowSize)
+                .minimumNumberOfCalls(breakerMinimumCalls)
+                .waitDurationInOpenState(Duration.ofSeconds(breakerOpenSeconds))
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .recordExceptions(ResourceAccessException.class, HttpServerErrorException.class)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry.circuitBreaker(CLASSIFIER);
+    }
+
+    @Bean
+    public Bulkhead classifierBulkhead(MeterRegistry meterRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(bulkheadMaxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(bulkheadMaxWaitMs))
+                .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(CLASSIFIER);
+    }
+}
@@ -1,21 +1,37 @@
 package com.railway.backend.config;
 
 import com.railway.backend.audit.AuditLoggingFilter;
+import com.railway.backend.ratelimit.RateLimitFilter;
+import com.railway.backend.ratelimit.RateLimitProperties;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class FilterConfig {
     private final AuditLoggingFilter auditLoggingFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public FilterRegistrationBean<AuditLoggingFilter> auditFilter() {
         FilterRegistrationBean<AuditLoggingFilter> registrationBean = new FilterRegistrationBean<>();
         registrationBean.setFilter(auditLoggingFilter);
         registrationBean.addUrlPatterns("/*");
+        // Outside the security filter chain, so 401/403 responses are audited as well.
+        registrationBean.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER - 1);
+        return registrationBean;
+    }
+
+    // Added to the security chain by SecurityConfig instead; without this it would also run as a plain servlet filter.
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+        FilterRegistrationBean<RateLimitFilter> registrationBean = new FilterRegistrationBean<>(rateLimitFilter);
+        registrationBean.setEnabled(false);
         return registrationBean;
     }
 }
@@ -0,0 +1,51 @@
+package com.railway.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Map;
+
+// Complaints, history and users moved from IDENTITY columns to pooled sequences. On an existing PostgreSQL database the
+// sequences are created empty by the schema update, so they are moved past the highest id already in use before the
+// app takes traffic. Never moves a sequence backwards, so restarts and extra instances are safe.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceAlignment {
+    // Matches allocationSize on the entities' @SequenceGenerator.
+    private static final int POOL_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "complaints_seq", "complaints",
+            "complaint_history_seq", "complaint_history",
+            "users_seq", "users");
+
+    private final DataSource dataSource;
+    // Injected so the schema update that creates the sequences has run first.
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    void align() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (product == null || !product.toLowerCase(Locale.ROOT).contains("postgresql")) {
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                    statement.execute("SELECT setval('" + sequence.getKey() + "', GREATEST("
+                            + "(SELECT COALESCE(MAX(id), 0) FROM " + sequence.getValue() + ") + " + POOL_SIZE + ", "
+                            + "(SELECT last_value FROM " + sequence.getKey() + ")))");
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Aligning id sequences with existing rows failed; inserts may collide with old ids.", ex);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.railway.backend.config;
 
+import com.railway.backend.audit.AuditLoggingFilter;
 import com.railway.backend.util.JwtUtil;
 import com.railway.backend.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,28 +22,47 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = verifiedTokenCache.get(jwt);
+            if (userDetails == null) {
+                userDetails = verify(jwt);
+            }
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+                request.setAttribute(AuditLoggingFilter.PRINCIPAL_ATTRIBUTE, userDetails.getUsername());
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Cache miss: parse and verify the token once, load the principal and remember both until expiry.
+    private UserDetails verify(String jwt) {
+        Claims claims = jwtUtil.extractAllClaims(jwt);
+        String username = claims.getSubject();
+        if (username == null) {
+            return null;
+        }
+        long generation = verifiedTokenCache.generation(username);
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!jwtUtil.validateToken(claims, userDetails)) {
+            return null;
+        }
+        verifiedTokenCache.put(jwt, userDetails, claims.getExpiration().toInstant(), generation);
+        return userDetails;
+    }
 }
@@ -21,6 +21,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${app.kafka.max-block-ms:5000}")
+    private long maxBlockMs;
+
     @Bean
     public NewTopic complaintClassificationTopic() {
         return new NewTopic("complaint-classification", 1, (short) 1);
@@ -33,6 +36,9 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, LongSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        // send() waits for topic metadata inside a monitor; keep that bounded so an unreachable broker cannot hold a
+        // request thread (or a virtual thread's carrier) for the 60s default.
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
@@ -1,10 +1,19 @@
 package com.railway.backend.config;
 
+import com.railway.backend.controller.ComplaintController;
+import com.railway.backend.ratelimit.RateLimitFilter;
 import com.railway.backend.service.CustomUserDetailsService;
+import com.railway.backend.service.IdempotencyStore;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -12,6 +21,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -22,6 +32,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class SecurityConfig {
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -30,14 +41,36 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Completion of an already-authorized SSE stream re-dispatches asynchronously.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAnyRole("SUPER_ADMIN")
                         .requestMatchers("/superadmin/**").hasAnyRole("SUPER_ADMIN")
+                        .requestMatchers("/complaints/export").hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER")
+                        .requestMatchers("/complaints/bulk/**").hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER")
+                        .requestMatchers("/complaints/import").hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER")
+                        .requestMatchers("/complaints/search").hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER", "STATION_STAFF")
+                        .requestMatchers("/complaints/stats").hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER", "STATION_STAFF")
+                        .requestMatchers("/complaints/station/*/stream")
+                        .hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER", "STATION_STAFF")
+                        .requestMatchers("/complaints/assigned-to/{staffName}/stream").access(assignedQueueStream())
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
                 .build();
     }
 
+    // Supervisors may follow anyone's queue; station staff only their own.
+    static AuthorizationManager<RequestAuthorizationContext> assignedQueueStream() {
+        AuthorizationManager<RequestAuthorizationContext> ownQueue = (authentication, context) ->
+                new AuthorizationDecision(context.getVariables().get("staffName").equals(authentication.get().getName()));
+        return AuthorizationManagers.anyOf(
+                AuthorityAuthorizationManager.hasAnyRole("SUPER_ADMIN", "RPF_ADMIN", "STATION_MASTER"),
+                AuthorizationManagers.allOf(AuthorityAuthorizationManager.hasRole("STATION_STAFF"), ownQueue));
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -47,6 +80,8 @@ public class SecurityConfig {
                         .allowedOriginPatterns("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders(ComplaintController.NEXT_CURSOR_HEADER, HttpHeaders.RETRY_AFTER,
+                                IdempotencyStore.REPLAYED_HEADER, HttpHeaders.ETAG)
                         .allowCredentials(true);
             }
         };
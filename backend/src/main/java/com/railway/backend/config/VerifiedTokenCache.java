@@ -0,0 +1,84 @@
+package com.railway.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Bearer tokens that already passed signature and expiry checks, mapped to the principal they resolved to.
+@Component
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+    private final MeterRegistry meterRegistry;
+
+    // Bumped on every invalidation so a lookup that raced with a role change cannot cache the stale principal.
+    private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Value("${app.security.token-cache.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${app.security.token-cache.max-size:10000}")
+    private long maxSize;
+    @Value("${app.security.token-cache.ttl-minutes:5}")
+    private long ttlMinutes;
+
+    private Cache<String, VerifiedToken> cache;
+
+    @PostConstruct
+    void start() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-tokens");
+    }
+
+    public UserDetails get(String token) {
+        if (!cacheEnabled) {
+            return null;
+        }
+        VerifiedToken verified = cache.getIfPresent(token);
+        if (verified == null) {
+            return null;
+        }
+        if (!Instant.now().isBefore(verified.expiresAt())
+                || verified.generation() != generation(verified.principal().getUsername())) {
+            cache.invalidate(token);
+            return null;
+        }
+        return verified.principal();
+    }
+
+    // Read before loading the principal and pass to put(), so an invalidation in between wins.
+    public long generation(String username) {
+        return generations.getOrDefault(username, 0L);
+    }
+
+    public void put(String token, UserDetails principal, Instant expiresAt, long generation) {
+        if (!cacheEnabled || generation != generation(principal.getUsername())) {
+            return;
+        }
+        cache.put(token, new VerifiedToken(principal, expiresAt, generation));
+    }
+
+    public void invalidateUser(String username) {
+        if (username == null) {
+            return;
+        }
+        generations.merge(username, 1L, Long::sum);
+        cache.asMap().values().removeIf(verified -> username.equals(verified.principal().getUsername()));
+    }
+
+    private record VerifiedToken(UserDetails principal, Instant expiresAt, long generation) {
+    }
+}
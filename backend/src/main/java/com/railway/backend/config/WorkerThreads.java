@@ -0,0 +1,69 @@
+package com.railway.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Thread factories and executors for the app's own background work. Follows spring.threads.virtual.enabled, which
+// only takes effect on Java 21+, so the same build keeps platform threads on Java 17. Virtual threads are never
+// pooled: executors start one per task and bound concurrency with a semaphore instead.
+@Component
+@RequiredArgsConstructor
+public class WorkerThreads {
+    private final Environment environment;
+
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    public ThreadFactory factory(String namePrefix) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return platformFactory(namePrefix);
+    }
+
+    // concurrency tasks at a time plus a backlog, rejecting past that.
+    public BoundedExecutor bounded(String namePrefix, int concurrency, int backlog) {
+        if (isVirtual()) {
+            return new BoundedExecutor(threadPerTask(namePrefix), new Semaphore(concurrency), concurrency, backlog);
+        }
+        return new BoundedExecutor(Executors.newFixedThreadPool(concurrency, platformFactory(namePrefix)), null,
+                concurrency, backlog);
+    }
+
+    // For tasks that mostly wait, such as socket writes, whose number is bounded by the caller.
+    public ExecutorService unbounded(String namePrefix) {
+        if (isVirtual()) {
+            return threadPerTask(namePrefix);
+        }
+        return Executors.newCachedThreadPool(platformFactory(namePrefix));
+    }
+
+    // Executors.newThreadPerTaskExecutor is Java 21 API, and virtual mode is only ever active on Java 21+.
+    private ExecutorService threadPerTask(String namePrefix) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory(namePrefix));
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later", ex);
+        }
+    }
+
+    private static ThreadFactory platformFactory(String namePrefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,11 +1,15 @@
 package com.railway.backend.controller;
 
-import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.dto.TopIssue;
+import com.railway.backend.service.ComplaintClusterIndex;
+import com.railway.backend.service.ComplaintCounters;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import java.util.HashMap;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.Map;
 
@@ -13,25 +17,29 @@ import java.util.Map;
 @RequestMapping("/departments/analytics")
 @RequiredArgsConstructor
 public class AnalyticsController {
-    private final ComplaintRepository complaintRepository;
+    private final ComplaintCounters complaintCounters;
+    private final ComplaintClusterIndex complaintClusterIndex;
 
     @GetMapping("/by-department")
-    public Map<String, Long> getComplaintsByDepartment() {
-        Map<String, Long> result = new HashMap<>();
-        for (Object[] row : complaintRepository.countComplaintsByDepartment()) {
-            String department = row[0] == null || row[0].toString().isBlank()
-                    ? "General"
-                    : row[0].toString().trim();
-            long count = row[1] instanceof Number ? ((Number) row[1]).longValue() : 0L;
-            result.put(department, count);
+    public Map<String, Long> getComplaintsByDepartment(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String station) {
+        if (complaintCounters.isSeeded()) {
+            return status == null && station == null
+                    ? complaintCounters.countsByDepartment()
+                    : complaintCounters.countsByDepartment(status, station);
         }
-        return result;
+        // Counters are seeded right after startup; until then the same breakdown comes from one aggregate query.
+        return complaintCounters.queryCountsByDepartment(status, station);
     }
 
     @GetMapping("/top-issues")
-    public List<String> getTopIssues() {
-        return complaintRepository.findTopComplaintIssues().stream()
-                .map(row -> (String) row[0])
-                .toList();
+    public List<TopIssue> getTopIssues(@RequestParam(defaultValue = "5") int limit) {
+        int size = Math.max(1, Math.min(limit, 50));
+        if (!complaintClusterIndex.isReady()) {
+            // Built right after startup; exact-text grouping would rank near-duplicates as separate issues.
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Top issues are still being computed");
+        }
+        return complaintClusterIndex.topIssues(size);
     }
 }
@@ -5,7 +5,7 @@ import com.railway.backend.dto.AnnouncementResponse;
 import com.railway.backend.entity.Announcement;
 import com.railway.backend.entity.User;
 import com.railway.backend.repository.AnnouncementRepository;
-import com.railway.backend.repository.UserRepository;
+import com.railway.backend.service.UserLookupService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -20,11 +20,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AnnouncementController {
     private final AnnouncementRepository announcementRepository;
-    private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
     @PostMapping
     public ResponseEntity<?> create(@Valid @RequestBody AnnouncementRequest request, Authentication authentication) {
-        User user = userRepository.findByUsername(authentication.getName()).orElse(null);
+        User user = userLookupService.findByUsername(authentication.getName()).orElse(null);
         if (user == null || !"STATION_MASTER".equalsIgnoreCase(user.getRole())) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only station master can send announcements");
         }
@@ -0,0 +1,38 @@
+package com.railway.backend.controller;
+
+import com.railway.backend.audit.AuditEntry;
+import com.railway.backend.audit.AuditLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Predicate;
+
+@RestController
+@RequestMapping("/superadmin/audit")
+@RequiredArgsConstructor
+public class AuditController {
+    private final AuditLogWriter auditLogWriter;
+
+    // Most recent audit records first, optionally narrowed by principal, status, URI prefix and start time
+    @GetMapping
+    public List<AuditEntry> recent(@RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String principal,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String uri,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since)
+            throws IOException {
+        Predicate<AuditEntry> filter = entry -> (principal == null || principal.equalsIgnoreCase(entry.principal()))
+                && (status == null || status == entry.status())
+                && (uri == null || (entry.uri() != null && entry.uri().startsWith(uri)));
+        Long sinceMillis = since == null ? null : since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return auditLogWriter.recent(Math.max(1, Math.min(limit, 1000)), filter, sinceMillis);
+    }
+}
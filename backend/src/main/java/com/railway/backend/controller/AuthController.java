@@ -5,6 +5,7 @@ import com.railway.backend.dto.LoginResponse;
 import com.railway.backend.dto.SignupRequest;
 import com.railway.backend.entity.User;
 import com.railway.backend.repository.UserRepository;
+import com.railway.backend.service.UserLookupService;
 import com.railway.backend.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,6 +33,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
     private final PasswordEncoder passwordEncoder;
     @Value("${app.officer-signup-key:RAILMADAD_OFFICER_2026}")
     private String officerSignupKey;
@@ -96,7 +98,7 @@ public class AuthController {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(email, request.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        User user = userRepository.findByUsername(email).orElseThrow();
+        User user = userLookupService.findByUsername(email).orElseThrow();
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole());
         LoginResponse response = new LoginResponse();
         response.setToken(token);
@@ -1,50 +1,190 @@
 package com.railway.backend.controller;
 
+import com.railway.backend.dto.BulkAssignRequest;
+import com.railway.backend.dto.BulkStatusUpdateRequest;
+import com.railway.backend.dto.BulkUpdateResponse;
+import com.railway.backend.dto.ComplaintHistoryEntry;
+import com.railway.backend.dto.ComplaintImportReport;
+import com.railway.backend.dto.ComplaintListQuery;
+import com.railway.backend.dto.ComplaintPage;
 import com.railway.backend.dto.ComplaintRequest;
 import com.railway.backend.dto.ComplaintResponse;
+import com.railway.backend.dto.ComplaintSearchPage;
+import com.railway.backend.dto.ComplaintStats;
+import com.railway.backend.dto.ComplaintSummary;
 import com.railway.backend.dto.RemarkUpdateRequest;
 import com.railway.backend.dto.StatusUpdateRequest;
+import com.railway.backend.repository.ComplaintFilter;
+import com.railway.backend.service.ComplaintEventHub;
+import com.railway.backend.service.ComplaintExportService;
+import com.railway.backend.service.ComplaintImportService;
 import com.railway.backend.service.ComplaintService;
+import com.railway.backend.service.ComplaintVersions;
+import com.railway.backend.service.IdempotencyStore;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/complaints")
 @RequiredArgsConstructor
 public class ComplaintController {
+    // Keyset continuation token for list endpoints; absent on the last page.
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Lists may be stored by the browser but must be revalidated with If-None-Match on every poll.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final ComplaintService complaintService;
+    private final ComplaintExportService complaintExportService;
+    private final ComplaintImportService complaintImportService;
+    private final ComplaintEventHub complaintEventHub;
+    private final IdempotencyStore idempotencyStore;
+    private final ComplaintVersions complaintVersions;
 
     // For admin: get all complaints
     @GetMapping
-    public ResponseEntity<List<ComplaintResponse>> getAllComplaints(Authentication authentication) {
-        return ResponseEntity.ok(complaintService.getAllComplaints(authentication));
+    public ResponseEntity<List<ComplaintSummary>> getAllComplaints(Authentication authentication,
+            ComplaintListQuery listQuery,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ComplaintFilter filter = listQuery.toFilter();
+        // Passengers get a name-filtered view, so the caller is part of the tag.
+        long stamp = complaintVersions.stamp(ComplaintVersions.ALL);
+        return page(webRequest, complaintVersions.etag(stamp, "all", callerOf(authentication), filter, cursor, limit),
+                () -> complaintService.getAllComplaints(authentication, filter, cursor, limit));
     }
 
     @GetMapping("/my")
-    public ResponseEntity<List<ComplaintResponse>> getMyComplaints(Authentication authentication) {
-        return ResponseEntity.ok(complaintService.getMyComplaints(authentication));
+    public ResponseEntity<List<ComplaintSummary>> getMyComplaints(Authentication authentication,
+            ComplaintListQuery listQuery,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ComplaintFilter filter = listQuery.toFilter();
+        String caller = callerOf(authentication);
+        long stamp = complaintVersions.stamp(ComplaintVersions.creator(caller), ComplaintVersions.LEGACY);
+        return page(webRequest, complaintVersions.etag(stamp, "my", caller, filter, cursor, limit),
+                () -> complaintService.getMyComplaints(authentication, filter, cursor, limit));
     }
 
     // For station master: get complaints by station
     @GetMapping("/station/{station}")
-    public ResponseEntity<List<ComplaintResponse>> getComplaintsByStation(@PathVariable String station) {
-        return ResponseEntity.ok(complaintService.getComplaintsByStation(station));
+    public ResponseEntity<List<ComplaintSummary>> getComplaintsByStation(@PathVariable String station,
+            ComplaintListQuery listQuery,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ComplaintFilter filter = listQuery.toFilter();
+        String scope = ComplaintVersions.station(station);
+        long stamp = complaintVersions.stamp(scope != null ? scope : ComplaintVersions.ALL);
+        return page(webRequest, complaintVersions.etag(stamp, "station", station, filter, cursor, limit),
+                () -> complaintService.getComplaintsByStation(station, filter, cursor, limit));
     }
 
     // For admin: get complaints by department
     @GetMapping("/department/{department}")
-    public ResponseEntity<List<ComplaintResponse>> getComplaintsByDepartment(@PathVariable String department) {
-        return ResponseEntity.ok(complaintService.getComplaintsByDepartment(department));
+    public ResponseEntity<List<ComplaintSummary>> getComplaintsByDepartment(@PathVariable String department,
+            ComplaintListQuery listQuery,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ComplaintFilter filter = listQuery.toFilter();
+        long stamp = complaintVersions.stamp(ComplaintVersions.department(department));
+        return page(webRequest, complaintVersions.etag(stamp, "department", department, filter, cursor, limit),
+                () -> complaintService.getComplaintsByDepartment(department, filter, cursor, limit));
+    }
+
+    // Tile counts for the dashboards, scoped like the list they sit above
+    @GetMapping("/stats")
+    public ResponseEntity<ComplaintStats> getStats(ComplaintListQuery listQuery,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String assignedTo) {
+        return ResponseEntity.ok(complaintService.getStats(station, assignedTo, listQuery.toFilter()));
+    }
+
+    // Ranked full-text search, optionally narrowed to a station and/or department
+    @GetMapping("/search")
+    public ResponseEntity<ComplaintSearchPage> searchComplaints(@RequestParam("q") String query,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(complaintService.searchComplaints(query, station, department, page, limit));
+    }
+
+    // For zonal offices: stream a filtered complaint dump as NDJSON or CSV
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportComplaints(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String station,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String status) {
+        ComplaintExportService.Format exportFormat = ComplaintExportService.Format.parse(format);
+        ComplaintExportService.Filter filter = new ComplaintExportService.Filter(from, to, station, department, status);
+        StreamingResponseBody body = out -> complaintExportService.export(exportFormat, filter, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"complaints." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    // For the 139 call center: bulk-load complaints from a CSV (with header row) or NDJSON request body
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ComplaintImportReport> importComplaints(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body, Authentication authentication) throws IOException {
+        ComplaintExportService.Format format = contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")
+                ? ComplaintExportService.Format.CSV
+                : ComplaintExportService.Format.NDJSON;
+        return ResponseEntity.ok(complaintImportService.importComplaints(format, body, authentication.getName()));
+    }
+
+    // Live create/assign/status deltas for a station dashboard; load the list once, then apply these
+    @GetMapping(value = "/station/{station}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStation(@PathVariable String station) {
+        return complaintEventHub.subscribe(ComplaintEventHub.stationTopic(station));
+    }
+
+    // Live deltas for a staff member's assigned queue
+    @GetMapping(value = "/assigned-to/{staffName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAssigned(@PathVariable String staffName) {
+        return complaintEventHub.subscribe(ComplaintEventHub.assigneeTopic(staffName));
     }
 
     // For station staff: get complaints assigned to them
     @GetMapping("/assigned-to/{staffName}")
-    public ResponseEntity<List<ComplaintResponse>> getByAssignedTo(@PathVariable String staffName) {
-        return ResponseEntity.ok(complaintService.getComplaintsByAssignedTo(staffName));
+    public ResponseEntity<List<ComplaintSummary>> getByAssignedTo(@PathVariable String staffName,
+            ComplaintListQuery listQuery,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        ComplaintFilter filter = listQuery.toFilter();
+        long stamp = complaintVersions.stamp(ComplaintVersions.assignee(staffName));
+        return page(webRequest, complaintVersions.etag(stamp, "assignee", staffName, filter, cursor, limit),
+                () -> complaintService.getComplaintsByAssignedTo(staffName, filter, cursor, limit));
     }
 
     // For station master: assign complaint to staff
@@ -52,21 +192,61 @@ public class ComplaintController {
     public ResponseEntity<ComplaintResponse> assignComplaint(
             @PathVariable Long id,
             @RequestParam String staffName,
-            @RequestParam(required = false) String remarks) {
-        return ResponseEntity.ok(complaintService.assignComplaint(id, staffName, remarks));
+            @RequestParam(required = false) String remarks,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotent(idempotencyStore.execute(idempotencyKey, callerOf(authentication), "assign:" + id,
+                Arrays.asList(staffName, remarks), () -> complaintService.assignComplaint(id, staffName, remarks)));
+    }
+
+    // For station master: resolve or reassign a batch of complaints at shift handover
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<BulkUpdateResponse> bulkUpdateStatus(@Valid @RequestBody BulkStatusUpdateRequest request,
+            Authentication authentication) {
+        return ResponseEntity.ok(complaintService.bulkUpdateStatus(
+                new LinkedHashSet<>(request.getIds()), request.getNewStatus(), authentication));
+    }
+
+    @PatchMapping("/bulk/assign")
+    public ResponseEntity<BulkUpdateResponse> bulkAssign(@Valid @RequestBody BulkAssignRequest request) {
+        return ResponseEntity.ok(complaintService.bulkAssign(
+                new LinkedHashSet<>(request.getIds()), request.getStaffName(), request.getRemarks()));
     }
 
     @PostMapping
     public ResponseEntity<ComplaintResponse> createComplaint(@Valid @RequestBody ComplaintRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            Authentication authentication) {
+        return idempotent(idempotencyStore.execute(idempotencyKey, callerOf(authentication), "create",
+                request, () -> complaintService.createComplaint(request, authentication)));
+    }
+
+    // Full detail, including the complete text, remarks and AI metadata that list rows leave out
+    @GetMapping("/{id}")
+    public ResponseEntity<ComplaintResponse> getComplaint(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(complaintService.getComplaint(id, authentication));
+    }
+
+    // Status timeline of one complaint, oldest change first
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<ComplaintHistoryEntry>> getHistory(@PathVariable Long id, Authentication authentication) {
+        return ResponseEntity.ok(complaintService.getHistory(id, authentication));
+    }
+
+    // Timelines for several complaints at once, e.g. /complaints/history?ids=4,8,15
+    @GetMapping("/history")
+    public ResponseEntity<Map<Long, List<ComplaintHistoryEntry>>> getHistories(@RequestParam List<Long> ids,
             Authentication authentication) {
-        return ResponseEntity.ok(complaintService.createComplaint(request, authentication));
+        return ResponseEntity.ok(complaintService.getHistories(new LinkedHashSet<>(ids), authentication));
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<ComplaintResponse> updateStatus(@PathVariable Long id,
             @Valid @RequestBody StatusUpdateRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
-        return ResponseEntity.ok(complaintService.updateStatus(id, request, authentication));
+        return idempotent(idempotencyStore.execute(idempotencyKey, callerOf(authentication), "status:" + id,
+                request, () -> complaintService.updateStatus(id, request, authentication)));
     }
 
     @PatchMapping("/{id}/remarks")
@@ -80,4 +260,31 @@ public class ComplaintController {
         complaintService.deleteComplaint(id, authentication);
         return ResponseEntity.noContent().build();
     }
+
+    private ResponseEntity<ComplaintResponse> idempotent(IdempotencyStore.Outcome<ComplaintResponse> outcome) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (outcome.replayed()) {
+            response.header(IdempotencyStore.REPLAYED_HEADER, "true");
+        }
+        return response.body(outcome.value());
+    }
+
+    private static String callerOf(Authentication authentication) {
+        return authentication != null && authentication.getName() != null ? authentication.getName() : "";
+    }
+
+    // The stamp is read before the list query runs, so a write that lands in between makes the tag older than the
+    // body, never newer; the next poll then simply refetches.
+    private ResponseEntity<List<ComplaintSummary>> page(WebRequest webRequest, String etag,
+            Supplier<ComplaintPage> loader) {
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
+        ComplaintPage page = loader.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
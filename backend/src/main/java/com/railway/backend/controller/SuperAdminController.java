@@ -1,7 +1,10 @@
 package com.railway.backend.controller;
 
+import com.railway.backend.ai.ClassificationCache;
+import com.railway.backend.config.VerifiedTokenCache;
 import com.railway.backend.entity.User;
 import com.railway.backend.repository.UserRepository;
+import com.railway.backend.service.UserLookupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +24,9 @@ public class SuperAdminController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ClassificationCache classificationCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserLookupService userLookupService;
 
     // List all users (role summary)
     @GetMapping("/users")
@@ -104,6 +110,8 @@ public class SuperAdminController {
                 user.setTrainNumber(trainNumber);
             }
             userRepository.save(user);
+            userLookupService.invalidate(user.getUsername());
+            verifiedTokenCache.invalidateUser(user.getUsername());
             Map<String, Object> res = new HashMap<>();
             res.put("message", "User updated");
             res.put("id", user.getId());
@@ -120,9 +128,12 @@ public class SuperAdminController {
     // Delete a user
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
-        if (!userRepository.existsById(id))
+        User user = userRepository.findById(id).orElse(null);
+        if (user == null)
             return ResponseEntity.notFound().build();
         userRepository.deleteById(id);
+        userLookupService.invalidate(user.getUsername());
+        verifiedTokenCache.invalidateUser(user.getUsername());
         Map<String, String> res = new HashMap<>();
         res.put("message", "User deleted");
         return ResponseEntity.ok(res);
@@ -142,6 +153,17 @@ public class SuperAdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // Drop cached AI classifications, e.g. after retraining the model without bumping its reported version
+    @DeleteMapping("/ai/classifier-cache")
+    public ResponseEntity<Map<String, Object>> invalidateClassifierCache() {
+        long evicted = classificationCache.size();
+        classificationCache.invalidateAll();
+        Map<String, Object> res = new HashMap<>();
+        res.put("message", "Classifier cache cleared");
+        res.put("evicted", evicted);
+        return ResponseEntity.ok(res);
+    }
+
     private String resolveUniqueCode(User user) {
         if ("STATION_STAFF".equals(user.getRole()) && user.getStaffId() != null && !user.getStaffId().isBlank()) {
             return user.getStaffId();
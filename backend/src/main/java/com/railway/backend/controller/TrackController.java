@@ -2,13 +2,18 @@ package com.railway.backend.controller;
 
 import com.railway.backend.entity.Complaint;
 import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.service.ComplaintVersions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -16,11 +21,23 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class TrackController {
     private final ComplaintRepository complaintRepository;
+    private final ComplaintVersions complaintVersions;
 
+    // Passengers refresh this page repeatedly; a matching If-None-Match costs one narrow primary-key lookup.
     @GetMapping("/{refNo}")
-    public ResponseEntity<?> trackComplaint(@PathVariable Long refNo) {
+    public ResponseEntity<?> trackComplaint(@PathVariable Long refNo, WebRequest webRequest) {
+        List<Object[]> version = complaintRepository.findVersionColumns(refNo);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Object[] columns = version.get(0);
+        String etag = complaintVersions.etag(0, refNo, columns[0], columns[1], columns[2], columns[3]);
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(revalidate).build();
+        }
         Optional<Complaint> complaint = complaintRepository.findById(refNo);
-        return complaint.map(ResponseEntity::ok)
+        return complaint.<ResponseEntity<?>>map(body -> ResponseEntity.ok().eTag(etag).cacheControl(revalidate).body(body))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -2,6 +2,7 @@ package com.railway.backend.controller;
 
 import com.railway.backend.entity.User;
 import com.railway.backend.repository.UserRepository;
+import com.railway.backend.service.UserLookupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -24,6 +25,7 @@ import java.util.stream.Collectors;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
 
     @GetMapping
     public ResponseEntity<List<Map<String, Object>>> getUsers(
@@ -59,7 +61,7 @@ public class UserController {
         if (auth == null || auth.getName() == null || auth.getName().isBlank()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
-        return userRepository.findByUsername(auth.getName()).map(u -> {
+        return userLookupService.findByUsername(auth.getName()).map(u -> {
             Map<String, Object> item = new HashMap<>();
             item.put("id", u.getId());
             item.put("username", u.getUsername());
@@ -89,6 +91,7 @@ public class UserController {
             }
             user.setTrainNumber(trainNumber);
             userRepository.save(user);
+            userLookupService.invalidate(user.getUsername());
             Map<String, Object> res = new HashMap<>();
             res.put("message", "Train number updated");
             res.put("trainNumber", user.getTrainNumber());
@@ -0,0 +1,16 @@
+package com.railway.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAssignRequest {
+    @NotEmpty
+    private List<Long> ids;
+    @NotBlank
+    private String staffName;
+    private String remarks;
+}
@@ -0,0 +1,15 @@
+package com.railway.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty
+    private List<Long> ids;
+    @NotBlank
+    private String newStatus;
+}
@@ -0,0 +1,13 @@
+package com.railway.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkUpdateResponse {
+    private List<Long> updated;
+    private List<Long> notFound;
+}
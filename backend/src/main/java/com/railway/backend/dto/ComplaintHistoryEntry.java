@@ -0,0 +1,19 @@
+package com.railway.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplaintHistoryEntry {
+    private Long complaintId;
+    private String oldStatus;
+    private String newStatus;
+    private String updatedBy;
+    private String updatedByRole;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.railway.backend.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ComplaintImportReport {
+    private long rows;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    @Data
+    public static class RowError {
+        private final long line;
+        private final String message;
+    }
+}
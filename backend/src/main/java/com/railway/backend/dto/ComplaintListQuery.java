@@ -0,0 +1,18 @@
+package com.railway.backend.dto;
+
+import com.railway.backend.repository.ComplaintFilter;
+import lombok.Data;
+
+// Optional list query parameters, e.g. ?status=PENDING,IN_PROGRESS&department=Security&queue=rpf
+@Data
+public class ComplaintListQuery {
+    private String status;
+    private String department;
+    private String trainNumber;
+    private Integer minUrgency;
+    private String queue;
+
+    public ComplaintFilter toFilter() {
+        return ComplaintFilter.of(status, department, trainNumber, minUrgency, queue);
+    }
+}
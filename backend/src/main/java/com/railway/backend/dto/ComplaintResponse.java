@@ -23,6 +23,7 @@ public class ComplaintResponse {
     private String resolvedBy;
     private String resolvedByRole;
     private String aiMetadata;
+    private Long parentComplaintId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
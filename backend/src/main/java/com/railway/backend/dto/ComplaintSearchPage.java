@@ -0,0 +1,15 @@
+package com.railway.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ComplaintSearchPage {
+    private List<ComplaintSummary> items;
+    private int page;
+    private int size;
+    private long total;
+}
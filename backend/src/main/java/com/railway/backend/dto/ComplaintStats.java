@@ -0,0 +1,17 @@
+package com.railway.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+// Dashboard tile counts for one list scope, so the page itself only needs to load what is on screen.
+@Data
+@AllArgsConstructor
+public class ComplaintStats {
+    private long total;
+    private long createdToday;
+    private Map<String, Long> byStatus;
+    // Assignee -> status -> count; unassigned complaints are left out.
+    private Map<String, Map<String, Long>> byAssignee;
+}
@@ -0,0 +1,31 @@
+package com.railway.backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// List-view row: everything the dashboards render, without aiMetadata (the raw classifier payload, the bulk of a
+// classified row); GET /complaints/{id} returns the full ComplaintResponse.
+@Data
+public class ComplaintSummary {
+    private Long id;
+    private String passengerName;
+    private String passengerPhone;
+    private String complaintText;
+    private String category;
+    private Integer urgencyScore;
+    private String status;
+    private String station;
+    private String previousStation;
+    private String nextStation;
+    private String department;
+    private String trainNumber;
+    private LocalDateTime incidentAt;
+    private String assignedTo;
+    private String remarks;
+    private String resolvedBy;
+    private String resolvedByRole;
+    private Long parentComplaintId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
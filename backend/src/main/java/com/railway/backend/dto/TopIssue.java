@@ -0,0 +1,11 @@
+package com.railway.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TopIssue {
+    private String text;
+    private long count;
+}
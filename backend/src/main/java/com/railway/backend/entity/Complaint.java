@@ -1,21 +1,30 @@
 package com.railway.backend.entity;
 
+import com.railway.backend.util.TextFingerprint;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
-@Table(name = "complaints")
+@Table(name = "complaints", indexes = {
+        @Index(name = "idx_complaints_urgency_id", columnList = "urgency_score DESC, id DESC"),
+        @Index(name = "idx_complaints_station_key", columnList = "station_key, urgency_score DESC, id DESC"),
+        @Index(name = "idx_complaints_prev_station_key", columnList = "previous_station_key, urgency_score DESC, id DESC"),
+        @Index(name = "idx_complaints_next_station_key", columnList = "next_station_key, urgency_score DESC, id DESC"),
+        @Index(name = "idx_complaints_parent", columnList = "parent_complaint_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Complaint {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaints_seq")
+    @SequenceGenerator(name = "complaints_seq", sequenceName = "complaints_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "passenger_name", nullable = false)
@@ -33,7 +42,7 @@ public class Complaint {
     @Column
     private String category;
 
-    @Column(name = "urgency_score")
+    @Column(name = "urgency_score", nullable = false)
     private Integer urgencyScore;
 
     @Column(name = "station")
@@ -45,6 +54,16 @@ public class Complaint {
     @Column(name = "next_station")
     private String nextStation;
 
+    // Lower-cased, trimmed copies of the station columns so station-context lookups can use plain B-tree indexes.
+    @Column(name = "station_key")
+    private String stationKey;
+
+    @Column(name = "previous_station_key")
+    private String previousStationKey;
+
+    @Column(name = "next_station_key")
+    private String nextStationKey;
+
     @Column(name = "department")
     private String department;
 
@@ -69,10 +88,28 @@ public class Complaint {
     @Column(nullable = false)
     private String status;
 
-    @Column(name = "ai_metadata", columnDefinition = "jsonb")
+    @Column(name = "ai_metadata")
     @JdbcTypeCode(SqlTypes.JSON)
     private String aiMetadata;
 
+    @Column(name = "ai_status", length = 16)
+    private String aiStatus;
+
+    // Transient classifier failures so far; a PENDING row is not retried before aiNextAttemptAt.
+    @Column(name = "ai_attempts")
+    private Integer aiAttempts;
+
+    @Column(name = "ai_next_attempt_at")
+    private LocalDateTime aiNextAttemptAt;
+
+    // MinHash of the complaint text, used to group near-duplicate complaints (see TextFingerprint).
+    @Column(name = "text_signature", length = 256)
+    private byte[] textSignature;
+
+    // Set when intake linked this complaint to an earlier near-duplicate from the same train or station.
+    @Column(name = "parent_complaint_id")
+    private Long parentComplaintId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -81,12 +118,34 @@ public class Complaint {
 
     @PrePersist
     public void prePersist() {
+        if (urgencyScore == null) {
+            urgencyScore = 0;
+        }
+        refreshStationKeys();
+        if (textSignature == null) {
+            textSignature = TextFingerprint.toBytes(TextFingerprint.signature(complaintText));
+        }
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
     }
 
     @PreUpdate
     public void preUpdate() {
+        refreshStationKeys();
         updatedAt = LocalDateTime.now();
     }
+
+    public void refreshStationKeys() {
+        stationKey = stationKey(station);
+        previousStationKey = stationKey(previousStation);
+        nextStationKey = stationKey(nextStation);
+    }
+
+    public static String stationKey(String station) {
+        if (station == null) {
+            return null;
+        }
+        String key = station.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
 }
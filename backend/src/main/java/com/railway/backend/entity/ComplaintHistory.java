@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Builder
 public class ComplaintHistory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "complaint_history_seq")
+    @SequenceGenerator(name = "complaint_history_seq", sequenceName = "complaint_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,62 @@
+package com.railway.backend.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Client address behind reverse proxies. X-Forwarded-For is walked from the right, skipping hops that are trusted
+// proxies; the first untrusted hop is the client. Entries left of it were supplied by the client and are ignored, so
+// a spoofed header cannot pick someone else's bucket. Without a trusted peer the header is not read at all.
+@Component
+public class ClientAddressResolver {
+    static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    public ClientAddressResolver(RateLimitProperties properties) {
+        trustedProxies = properties.trustedProxies().stream().map(IpAddressMatcher::new).toList();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        if (!isTrusted(client)) {
+            return client;
+        }
+        List<String> hops = new ArrayList<>();
+        for (String header : Collections.list(request.getHeaders(FORWARDED_FOR))) {
+            for (String hop : header.split(",")) {
+                if (!hop.isBlank()) {
+                    hops.add(hop.trim());
+                }
+            }
+        }
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            client = hops.get(i);
+            if (!isTrusted(client)) {
+                return client;
+            }
+        }
+        return client;
+    }
+
+    private boolean isTrusted(String address) {
+        if (address == null || address.isBlank()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException ex) {
+                // Not an IP literal.
+                return false;
+            }
+        }
+        return false;
+    }
+}
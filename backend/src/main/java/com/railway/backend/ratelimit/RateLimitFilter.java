@@ -0,0 +1,50 @@
+package com.railway.backend.ratelimit;
+
+import com.railway.backend.audit.AuditLoggingFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Runs inside the security chain right after JwtAuthFilter, so authenticated requests are limited per user and
+// anonymous ones (login, OTP) per client address as seen through trusted proxies.
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final byte[] BODY = "{\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter rateLimiter;
+    private final ClientAddressResolver clientAddressResolver;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!rateLimiter.isEnabled() || "OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Object principal = request.getAttribute(AuditLoggingFilter.PRINCIPAL_ATTRIBUTE);
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long waitNanos = rateLimiter.check(request.getMethod(), path,
+                principal == null ? null : principal.toString(), clientAddressResolver.resolve(request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(BODY);
+    }
+}
@@ -0,0 +1,34 @@
+package com.railway.backend.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// Routes are checked in order and the first match applies; a request matching no route is not limited.
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxKeys,
+        @DefaultValue List<Route> routes,
+        // Peers (CIDR or single addresses) whose X-Forwarded-For is believed; defaults to private and loopback ranges.
+        @DefaultValue({"10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "100.64.0.0/10", "127.0.0.0/8", "::1/128",
+                "fc00::/7"}) List<String> trustedProxies) {
+
+    // pattern is an exact path, or a prefix ending in /** ("/otp/**", "/**"). methods empty means every method.
+    public record Route(
+            String name,
+            String pattern,
+            @DefaultValue List<String> methods,
+            long capacity,
+            @DefaultValue("1m") Duration period,
+            @DefaultValue("principal") KeyType key) {
+    }
+
+    public enum KeyType {
+        // The authenticated user, falling back to the client address for anonymous requests.
+        PRINCIPAL,
+        IP
+    }
+}
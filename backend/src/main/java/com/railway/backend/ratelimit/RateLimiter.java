@@ -0,0 +1,185 @@
+package com.railway.backend.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Per-route token buckets keyed by principal or client address, in concurrent maps whose reads take no lock. Idle
+// buckets are swept once they have refilled completely, which makes eviction lossless: a client that is still being
+// limited keeps its bucket. At max-keys a new client first triggers an early sweep; if every tracked client is still
+// being limited, it is put in one of a fixed set of overflow buckets picked by its network (or principal), so only
+// clients that hash to the same overflow bucket share it.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+    private static final long ORIGIN = System.nanoTime();
+    private static final int OVERFLOW_BUCKETS = 256;
+    private static final long EARLY_SWEEP_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Rule[] rules = new Rule[0];
+    private final AtomicInteger trackedKeys = new AtomicInteger();
+    private final AtomicLong nextEarlySweep = new AtomicLong();
+
+    private record Rule(String prefix, boolean exact, Set<String> methods, RateLimitProperties.KeyType keyType,
+            long intervalNanos, long toleranceNanos, ConcurrentMap<String, TokenBucket> byPrincipal,
+            ConcurrentMap<String, TokenBucket> byAddress, TokenBucket[] overflow, Counter rejected) {
+
+        boolean matches(String method, String path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            if (exact) {
+                return path.equals(prefix);
+            }
+            return path.startsWith(prefix)
+                    && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/');
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        List<Rule> built = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.routes()) {
+            if (route.capacity() <= 0 || route.pattern() == null || route.period().isZero()) {
+                throw new IllegalStateException("Rate limit route " + route.name() + " needs a pattern, capacity and period");
+            }
+            String pattern = route.pattern().trim();
+            boolean exact = !pattern.endsWith("/**");
+            String prefix = exact ? pattern : pattern.substring(0, pattern.length() - 3);
+            long intervalNanos = Math.max(1, route.period().toNanos() / route.capacity());
+            String name = route.name() != null ? route.name() : pattern;
+            built.add(new Rule(
+                    prefix.isEmpty() ? "/" : prefix,
+                    exact,
+                    route.methods().stream().map(m -> m.trim().toUpperCase(Locale.ROOT)).collect(Collectors.toSet()),
+                    route.key(),
+                    intervalNanos,
+                    intervalNanos * (route.capacity() - 1),
+                    new ConcurrentHashMap<>(),
+                    new ConcurrentHashMap<>(),
+                    overflowBuckets(),
+                    meterRegistry.counter("http.ratelimit.rejected", "route", name)));
+        }
+        rules = built.toArray(new Rule[0]);
+        Gauge.builder("http.ratelimit.keys", trackedKeys, AtomicInteger::get).register(meterRegistry);
+        if (properties.enabled() && rules.length > 0) {
+            log.info("Rate limiting {} route(s).", rules.length);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled() && rules.length > 0;
+    }
+
+    // 0 when the request may proceed, otherwise the nanos until the first matching route has a token for this client.
+    public long check(String method, String path, String principal, String remoteAddr) {
+        for (Rule rule : rules) {
+            if (!rule.matches(method, path)) {
+                continue;
+            }
+            long wait = bucket(rule, principal, remoteAddr)
+                    .tryAcquire(System.nanoTime() - ORIGIN, rule.intervalNanos(), rule.toleranceNanos());
+            if (wait > 0) {
+                rule.rejected().increment();
+            }
+            return wait;
+        }
+        return 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-interval-ms:30000}")
+    public void sweep() {
+        sweep(System.nanoTime() - ORIGIN);
+    }
+
+    private void sweep(long now) {
+        for (Rule rule : rules) {
+            trackedKeys.addAndGet(-(evictFull(rule.byPrincipal(), now) + evictFull(rule.byAddress(), now)));
+        }
+    }
+
+    private static int evictFull(ConcurrentMap<String, TokenBucket> buckets, long now) {
+        int evicted = 0;
+        for (Map.Entry<String, TokenBucket> entry : buckets.entrySet()) {
+            if (entry.getValue().isFull(now) && buckets.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private TokenBucket bucket(Rule rule, String principal, String remoteAddr) {
+        boolean byPrincipal = rule.keyType() == RateLimitProperties.KeyType.PRINCIPAL && principal != null;
+        ConcurrentMap<String, TokenBucket> buckets = byPrincipal ? rule.byPrincipal() : rule.byAddress();
+        String key = byPrincipal ? principal : remoteAddr;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (trackedKeys.get() >= properties.maxKeys() && !sweptBelowLimit()) {
+            String group = byPrincipal ? key : network(key);
+            return rule.overflow()[Math.floorMod(group.hashCode(), OVERFLOW_BUCKETS)];
+        }
+        // Counted only by the caller that actually creates the bucket.
+        return buckets.computeIfAbsent(key, k -> {
+            trackedKeys.incrementAndGet();
+            return new TokenBucket();
+        });
+    }
+
+    // At most one early sweep per backoff, so a flood of new clients does not rescan the maps on every request.
+    private boolean sweptBelowLimit() {
+        long now = System.nanoTime() - ORIGIN;
+        long next = nextEarlySweep.get();
+        if (now >= next && nextEarlySweep.compareAndSet(next, now + EARLY_SWEEP_BACKOFF_NANOS)) {
+            sweep(now);
+        }
+        return trackedKeys.get() < properties.maxKeys();
+    }
+
+    // The /24 of an IPv4 address or the first three groups of an IPv6 one.
+    private static String network(String address) {
+        if (address == null) {
+            return "";
+        }
+        char separator = address.indexOf(':') >= 0 ? ':' : '.';
+        int end = -1;
+        for (int i = 0; i < 3; i++) {
+            int next = address.indexOf(separator, end + 1);
+            if (next < 0) {
+                return address;
+            }
+            end = next;
+        }
+        return address.substring(0, end);
+    }
+
+    private static TokenBucket[] overflowBuckets() {
+        TokenBucket[] buckets = new TokenBucket[OVERFLOW_BUCKETS];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new TokenBucket();
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,31 @@
+package com.railway.backend.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A token bucket in its GCRA form: the whole state is the "theoretical arrival time" of the next request, so a check is
+// one CAS on one long, with no lock and no allocation. With interval = period / capacity and
+// tolerance = interval * (capacity - 1) it admits bursts of capacity and refills one token per interval.
+final class TokenBucket {
+    private final AtomicLong arrival = new AtomicLong();
+
+    // Returns 0 when a token was taken, otherwise the nanos until one will be available. now must not go backwards
+    // by more than the tolerance and must be non-negative.
+    long tryAcquire(long now, long intervalNanos, long toleranceNanos) {
+        while (true) {
+            long current = arrival.get();
+            long base = Math.max(current, now);
+            long wait = base - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket whose arrival time has passed holds its full capacity, so dropping it loses nothing.
+    boolean isFull(long now) {
+        return arrival.get() <= now;
+    }
+}
@@ -0,0 +1,41 @@
+package com.railway.backend.repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Optional narrowing shared by the complaint list endpoints and their stats; empty parts match everything.
+public record ComplaintFilter(List<String> statuses, List<String> departments, String trainNumber,
+                              Integer minUrgency, boolean rpfQueue) {
+    public static final ComplaintFilter NONE = new ComplaintFilter(List.of(), List.of(), null, null, false);
+
+    // Comma-separated statuses and departments; the "rpf" queue is Security/Emergency plus urgent Medical.
+    public static ComplaintFilter of(String status, String department, String trainNumber, Integer minUrgency,
+            String queue) {
+        boolean rpfQueue = false;
+        if (queue != null && !queue.isBlank()) {
+            if (!"rpf".equalsIgnoreCase(queue.trim())) {
+                throw new IllegalArgumentException("Unknown complaint queue: " + queue);
+            }
+            rpfQueue = true;
+        }
+        String train = trainNumber == null || trainNumber.isBlank() ? null : trainNumber.trim().toLowerCase(Locale.ROOT);
+        return new ComplaintFilter(split(status, true), split(department, false), train, minUrgency, rpfQueue);
+    }
+
+    public boolean isEmpty() {
+        return statuses.isEmpty() && departments.isEmpty() && trainNumber == null && minUrgency == null && !rpfQueue;
+    }
+
+    private static List<String> split(String value, boolean upper) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .map(part -> upper ? part.toUpperCase(Locale.ROOT) : part.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+    }
+}
@@ -1,10 +1,36 @@
 package com.railway.backend.repository;
 
+import com.railway.backend.dto.ComplaintHistoryEntry;
 import com.railway.backend.entity.ComplaintHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ComplaintHistoryRepository extends JpaRepository<ComplaintHistory, Long> {
     List<ComplaintHistory> findByComplaintId(Long complaintId);
     void deleteByComplaintId(Long complaintId);
+
+    // Timeline rows with the actor's display name resolved in the same statement, so nothing lazy is touched.
+    @Query("""
+            SELECT new com.railway.backend.dto.ComplaintHistoryEntry(
+                h.complaint.id, h.oldStatus, h.newStatus,
+                COALESCE(NULLIF(TRIM(u.fullName), ''), u.username), u.role, h.updatedAt)
+            FROM ComplaintHistory h JOIN h.updatedBy u
+            WHERE h.complaint.id = :complaintId
+            ORDER BY h.updatedAt, h.id
+            """)
+    List<ComplaintHistoryEntry> findTimeline(@Param("complaintId") Long complaintId);
+
+    @Query("""
+            SELECT new com.railway.backend.dto.ComplaintHistoryEntry(
+                h.complaint.id, h.oldStatus, h.newStatus,
+                COALESCE(NULLIF(TRIM(u.fullName), ''), u.username), u.role, h.updatedAt)
+            FROM ComplaintHistory h JOIN h.updatedBy u
+            WHERE h.complaint.id IN :complaintIds
+            ORDER BY h.complaint.id, h.updatedAt, h.id
+            """)
+    List<ComplaintHistoryEntry> findTimelines(@Param("complaintIds") Collection<Long> complaintIds);
 }
@@ -1,64 +1,260 @@
 package com.railway.backend.repository;
 
 import com.railway.backend.entity.Complaint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
-import java.util.List;
-
-public interface ComplaintRepository extends JpaRepository<Complaint, Long> {
-    List<Complaint> findAllByOrderByUrgencyScoreDesc();
+import org.springframework.transaction.annotation.Transactional;
 
-    List<Complaint> findByCreatedByUsernameOrderByUrgencyScoreDesc(String createdByUsername);
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-    List<Complaint> findByPassengerNameIgnoreCaseOrderByUrgencyScoreDesc(String passengerName);
+public interface ComplaintRepository extends JpaRepository<Complaint, Long>, JpaSpecificationExecutor<Complaint>,
+        ComplaintSummaryRepository {
+    boolean existsByCreatedByUsername(String createdByUsername);
 
     List<Complaint> findByStatusOrderByUrgencyScoreDesc(String status);
 
     List<Complaint> findByStation(String station);
 
+    // OR rewritten as UNION ALL: one index-served, keyset-limited branch per station column,
+    // with later branches skipping rows an earlier branch already returned.
+    String STATION_CONTEXT_BRANCHES = """
+                (SELECT s.* FROM complaints s
+                 WHERE s.station_key = :stationKey
+                   AND s.urgency_score <= :afterUrgency AND (s.urgency_score < :afterUrgency OR s.id < :afterId)
+                 ORDER BY s.urgency_score DESC, s.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT p.* FROM complaints p
+                 WHERE p.previous_station_key = :stationKey
+                   AND p.station_key IS DISTINCT FROM :stationKey
+                   AND p.urgency_score <= :afterUrgency AND (p.urgency_score < :afterUrgency OR p.id < :afterId)
+                 ORDER BY p.urgency_score DESC, p.id DESC
+                 LIMIT :limit)
+                UNION ALL
+                (SELECT n.* FROM complaints n
+                 WHERE n.next_station_key = :stationKey
+                   AND n.station_key IS DISTINCT FROM :stationKey
+                   AND n.previous_station_key IS DISTINCT FROM :stationKey
+                   AND n.urgency_score <= :afterUrgency AND (n.urgency_score < :afterUrgency OR n.id < :afterId)
+                 ORDER BY n.urgency_score DESC, n.id DESC
+                 LIMIT :limit)
+            """;
+
+    // One keyset page of ids at, from or heading to the station; the list views load summaries for them.
+    @Query(value = "SELECT matched.id FROM (" + STATION_CONTEXT_BRANCHES + """
+            ) matched
+            ORDER BY matched.urgency_score DESC, matched.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findStationContextPageIds(@Param("stationKey") String stationKey,
+            @Param("afterUrgency") int afterUrgency,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
     @Query("""
-            SELECT c FROM Complaint c
-            WHERE LOWER(TRIM(COALESCE(c.station, ''))) = LOWER(TRIM(:station))
-               OR LOWER(TRIM(COALESCE(c.previousStation, ''))) = LOWER(TRIM(:station))
-               OR LOWER(TRIM(COALESCE(c.nextStation, ''))) = LOWER(TRIM(:station))
-            ORDER BY COALESCE(c.urgencyScore, 0) DESC
+            SELECT c.department, c.category, c.status, c.stationKey, COUNT(c)
+            FROM Complaint c
+            GROUP BY c.department, c.category, c.status, c.stationKey
             """)
-    List<Complaint> findByStationContext(@Param("station") String station);
+    List<Object[]> countByClassificationStatusAndStation();
+
+    // A cheap first read: in a REPEATABLE READ transaction it fixes the snapshot every later query there sees.
+    @Query("SELECT COUNT(c) FROM Complaint c WHERE c.id = 0")
+    long snapshotProbe();
+
+    @Query("SELECT c.id, c.textSignature FROM Complaint c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findTextSignaturesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id, c.complaintText FROM Complaint c WHERE c.id IN :ids")
+    List<Object[]> findTextsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id, c.complaintText FROM Complaint c WHERE c.textSignature IS NULL ORDER BY c.id")
+    List<Object[]> findUnsignedTexts(Pageable pageable);
 
-    List<Complaint> findByDepartment(String department);
+    // PostgreSQL only: search_vector and its GIN index are created by ComplaintSearchService on startup.
+    @Query(value = """
+            SELECT c.id FROM complaints c
+            WHERE c.search_vector @@ websearch_to_tsquery('english', :query)
+              AND (CAST(:stationKey AS varchar) IS NULL OR c.station_key = CAST(:stationKey AS varchar))
+              AND (CAST(:department AS varchar) IS NULL
+                   OR LOWER(COALESCE(NULLIF(TRIM(c.department), ''), NULLIF(TRIM(c.category), ''), 'General'))
+                      = LOWER(CAST(:department AS varchar)))
+            ORDER BY ts_rank_cd(c.search_vector, websearch_to_tsquery('english', :query)) DESC, c.id DESC
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Long> fullTextSearchIds(@Param("query") String query,
+            @Param("stationKey") String stationKey,
+            @Param("department") String department,
+            @Param("limit") int limit,
+            @Param("offset") int offset);
 
-    List<Complaint> findByAssignedTo(String assignedTo);
+    @Query(value = """
+            SELECT COUNT(*) FROM complaints c
+            WHERE c.search_vector @@ websearch_to_tsquery('english', :query)
+              AND (CAST(:stationKey AS varchar) IS NULL OR c.station_key = CAST(:stationKey AS varchar))
+              AND (CAST(:department AS varchar) IS NULL
+                   OR LOWER(COALESCE(NULLIF(TRIM(c.department), ''), NULLIF(TRIM(c.category), ''), 'General'))
+                      = LOWER(CAST(:department AS varchar)))
+            """, nativeQuery = true)
+    long fullTextSearchCount(@Param("query") String query,
+            @Param("stationKey") String stationKey,
+            @Param("department") String department);
 
     @Query("""
-            SELECT
-            CASE
-                WHEN c.department IS NULL OR TRIM(c.department) = ''
-                    THEN CASE
-                        WHEN c.category IS NULL OR TRIM(c.category) = ''
-                            THEN 'General'
-                        ELSE c.category
-                    END
-                ELSE c.department
-            END,
-            COUNT(c)
-            FROM Complaint c
-            GROUP BY
-            CASE
-                WHEN c.department IS NULL OR TRIM(c.department) = ''
-                    THEN CASE
-                        WHEN c.category IS NULL OR TRIM(c.category) = ''
-                            THEN 'General'
-                        ELSE c.category
-                    END
-                ELSE c.department
-            END
+            SELECT c.id, c.complaintText, c.stationKey, c.department, c.category
+            FROM Complaint c WHERE c.id > :afterId ORDER BY c.id
+            """)
+    List<Object[]> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Duplicates wait for their parent's classification unless the parent is no longer pending.
+    @Query("""
+            SELECT c.id FROM Complaint c
+            WHERE c.aiStatus = :status
+              AND (c.aiNextAttemptAt IS NULL OR c.aiNextAttemptAt <= :now)
+              AND (c.parentComplaintId IS NULL
+                   OR NOT EXISTS (SELECT p.id FROM Complaint p WHERE p.id = c.parentComplaintId AND p.aiStatus = :status))
+            ORDER BY c.id
+            """)
+    List<Long> findIdsByAiStatus(@Param("status") String status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    // Locked reads, so the analytics counters move a row from the key it actually had when it was updated.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Complaint c WHERE c.id = :id")
+    Optional<Complaint> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Complaint> findByParentComplaintIdAndAiStatus(Long parentComplaintId, String aiStatus);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Complaint c
+            SET c.department = :department,
+                c.category = :department,
+                c.urgencyScore = :urgencyScore,
+                c.aiMetadata = :aiMetadata,
+                c.aiStatus = :aiStatus,
+                c.updatedAt = :updatedAt
+            WHERE c.id = :id
             """)
-    List<Object[]> countComplaintsByDepartment();
+    int applyAiEnrichment(@Param("id") Long id,
+            @Param("department") String department,
+            @Param("urgencyScore") Integer urgencyScore,
+            @Param("aiMetadata") String aiMetadata,
+            @Param("aiStatus") String aiStatus,
+            @Param("updatedAt") LocalDateTime updatedAt);
 
-    @Query("SELECT c.complaintText, COUNT(c) as cnt FROM Complaint c GROUP BY c.complaintText ORDER BY cnt DESC LIMIT 5")
-    List<Object[]> findTopComplaintIssues();
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Complaint c
+            SET c.department = :department,
+                c.category = :department,
+                c.urgencyScore = :urgencyScore,
+                c.aiMetadata = :aiMetadata,
+                c.aiStatus = :aiStatus,
+                c.updatedAt = :updatedAt
+            WHERE c.parentComplaintId = :parentId AND c.aiStatus = 'PENDING'
+            """)
+    int applyAiEnrichmentToDuplicates(@Param("parentId") Long parentId,
+            @Param("department") String department,
+            @Param("urgencyScore") Integer urgencyScore,
+            @Param("aiMetadata") String aiMetadata,
+            @Param("aiStatus") String aiStatus,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    // The columns that change a tracked complaint's public view; markAiStatus and the urgency backfill do not touch
+    // updatedAt, so those are read alongside it.
+    @Query("SELECT c.updatedAt, c.aiStatus, c.urgencyScore, c.parentComplaintId FROM Complaint c WHERE c.id = :id")
+    List<Object[]> findVersionColumns(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.aiAttempts = :attempts, c.aiNextAttemptAt = :nextAttemptAt WHERE c.id = :id")
+    int scheduleAiRetry(@Param("id") Long id, @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.aiStatus = :aiStatus WHERE c.id = :id")
+    int markAiStatus(@Param("id") Long id, @Param("aiStatus") String aiStatus);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.aiStatus = :aiStatus WHERE c.parentComplaintId = :parentId AND c.aiStatus = 'PENDING'")
+    int markDuplicatesAiStatus(@Param("parentId") Long parentId, @Param("aiStatus") String aiStatus);
+
+    // Bulk updates bypass entity callbacks, so updatedAt is passed in; the persistence context is cleared afterwards
+    // because any loaded copies of these rows are now stale.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Complaint c
+            SET c.status = :status,
+                c.resolvedBy = :resolvedBy,
+                c.resolvedByRole = :resolvedByRole,
+                c.updatedAt = :updatedAt
+            WHERE c.id IN :ids
+            """)
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+            @Param("status") String status,
+            @Param("resolvedBy") String resolvedBy,
+            @Param("resolvedByRole") String resolvedByRole,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Complaint c
+            SET c.assignedTo = :staffName,
+                c.remarks = COALESCE(:remarks, c.remarks),
+                c.status = CASE WHEN c.status = 'PENDING' THEN 'IN_PROGRESS' ELSE c.status END,
+                c.updatedAt = :updatedAt
+            WHERE c.id IN :ids
+            """)
+    int bulkAssign(@Param("ids") Collection<Long> ids,
+            @Param("staffName") String staffName,
+            @Param("remarks") String remarks,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.parentComplaintId = NULL WHERE c.parentComplaintId = :parentId")
+    int detachDuplicates(@Param("parentId") Long parentId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.urgencyScore = 0 WHERE c.urgencyScore IS NULL")
+    int backfillMissingUrgency();
+
+    // No-op once the column is already NOT NULL; fails if a NULL is left.
+    @Transactional
+    @Modifying
+    @Query(value = "ALTER TABLE complaints ALTER COLUMN urgency_score SET NOT NULL", nativeQuery = true)
+    void requireUrgencyScore();
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Complaint c
+            SET c.stationKey = NULLIF(LOWER(TRIM(c.station)), ''),
+                c.previousStationKey = NULLIF(LOWER(TRIM(c.previousStation)), ''),
+                c.nextStationKey = NULLIF(LOWER(TRIM(c.nextStation)), '')
+            WHERE (c.station IS NOT NULL AND c.stationKey IS NULL)
+               OR (c.previousStation IS NOT NULL AND c.previousStationKey IS NULL)
+               OR (c.nextStation IS NOT NULL AND c.nextStationKey IS NULL)
+            """)
+    int backfillStationKeys();
 
-    @Query(value = "SELECT * FROM complaints WHERE to_tsvector('english', complaint_text) @@ plainto_tsquery('english', :query)", nativeQuery = true)
-    List<Complaint> fullTextSearch(@Param("query") String query);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Complaint c SET c.textSignature = :signature WHERE c.id = :id")
+    int updateTextSignature(@Param("id") Long id, @Param("signature") byte[] signature);
 }
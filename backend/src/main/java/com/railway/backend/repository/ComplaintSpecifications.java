@@ -0,0 +1,91 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.entity.Complaint;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class ComplaintSpecifications {
+    private static final int URGENT_MEDICAL_SCORE = 60;
+
+    private ComplaintSpecifications() {
+    }
+
+    public static Specification<Complaint> all() {
+        return Specification.unrestricted();
+    }
+
+    public static Specification<Complaint> department(String department) {
+        return (root, query, cb) -> cb.equal(root.get("department"), department);
+    }
+
+    public static Specification<Complaint> assignedTo(String assignedTo) {
+        return (root, query, cb) -> cb.equal(root.get("assignedTo"), assignedTo);
+    }
+
+    public static Specification<Complaint> createdBy(String username) {
+        return (root, query, cb) -> cb.equal(root.get("createdByUsername"), username);
+    }
+
+    public static Specification<Complaint> passengerNameIgnoreCaseIn(String... names) {
+        Object[] lowered = Arrays.stream(names)
+                .filter(Objects::nonNull)
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .distinct()
+                .toArray();
+        return (root, query, cb) -> cb.lower(root.get("passengerName")).in(lowered);
+    }
+
+    // Complaints at, from or heading to the station, as in findStationContextPageIds.
+    public static Specification<Complaint> stationContext(String station) {
+        String key = Complaint.stationKey(station);
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("stationKey"), key),
+                cb.equal(root.get("previousStationKey"), key),
+                cb.equal(root.get("nextStationKey"), key));
+    }
+
+    public static Specification<Complaint> matching(ComplaintFilter filter) {
+        if (filter.isEmpty()) {
+            return all();
+        }
+        return (root, query, cb) -> {
+            Expression<String> department = effectiveDepartment(root, cb);
+            Expression<Integer> urgency = root.get("urgencyScore");
+            List<Predicate> where = new ArrayList<>();
+            if (!filter.statuses().isEmpty()) {
+                where.add(root.get("status").in(filter.statuses()));
+            }
+            if (!filter.departments().isEmpty()) {
+                where.add(department.in(filter.departments()));
+            }
+            if (filter.trainNumber() != null) {
+                where.add(cb.equal(cb.lower(cb.trim(root.get("trainNumber"))), filter.trainNumber()));
+            }
+            if (filter.minUrgency() != null) {
+                where.add(cb.ge(urgency, filter.minUrgency()));
+            }
+            if (filter.rpfQueue()) {
+                where.add(cb.or(
+                        cb.like(department, "%security%"),
+                        cb.like(department, "%emergency%"),
+                        cb.and(cb.like(department, "%medical%"), cb.ge(urgency, URGENT_MEDICAL_SCORE))));
+            }
+            return cb.and(where.toArray(Predicate[]::new));
+        };
+    }
+
+    // Lower-cased department, falling back to the category when the department is blank.
+    private static Expression<String> effectiveDepartment(Root<Complaint> root, CriteriaBuilder cb) {
+        Expression<String> department = cb.nullif(cb.trim(root.get("department")), "");
+        return cb.lower(cb.coalesce(department, root.get("category")));
+    }
+}
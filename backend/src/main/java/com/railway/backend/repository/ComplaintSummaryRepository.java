@@ -0,0 +1,22 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintStats;
+import com.railway.backend.dto.ComplaintSummary;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.ComplaintCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ComplaintSummaryRepository {
+    // One keyset page in (urgency_score DESC, id DESC) order; fetch limit + 1 to learn whether another page follows.
+    List<ComplaintSummary> findSummaries(Specification<Complaint> spec, ComplaintCursor.Keys after, int limit);
+
+    // Unordered; callers put rows back into their own order.
+    List<ComplaintSummary> findSummariesByIds(Collection<Long> ids);
+
+    // Counts by status and assignee for everything the spec matches, plus how many were created since the given time.
+    ComplaintStats countSummaries(Specification<Complaint> spec, LocalDateTime createdSince);
+}
@@ -0,0 +1,165 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintStats;
+import com.railway.backend.dto.ComplaintSummary;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.ComplaintCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Selects only the columns a list row shows; the AI metadata jsonb is never read.
+@RequiredArgsConstructor
+public class ComplaintSummaryRepositoryImpl implements ComplaintSummaryRepository {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<ComplaintSummary> findSummaries(Specification<Complaint> spec, ComplaintCursor.Keys after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Complaint> root = query.from(Complaint.class);
+        select(query, root);
+
+        Expression<Integer> urgency = root.get("urgencyScore");
+        Expression<Long> id = root.get("id");
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        where.add(cb.le(urgency, after.urgencyScore()));
+        where.add(cb.or(cb.lt(urgency, after.urgencyScore()), cb.lt(id, after.id())));
+        query.where(where.toArray(Predicate[]::new))
+                .orderBy(cb.desc(urgency), cb.desc(id));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+                .map(this::toSummary)
+                .toList();
+    }
+
+    @Override
+    public List<ComplaintSummary> findSummariesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Complaint> root = query.from(Complaint.class);
+        select(query, root);
+        query.where(root.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList().stream()
+                .map(this::toSummary)
+                .toList();
+    }
+
+    @Override
+    public ComplaintStats countSummaries(Specification<Complaint> spec, LocalDateTime createdSince) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> grouped = cb.createTupleQuery();
+        Root<Complaint> root = grouped.from(Complaint.class);
+        Expression<String> assignee = root.get("assignedTo");
+        Expression<String> status = root.get("status");
+        grouped.select(cb.tuple(assignee, status, cb.count(root)));
+        where(grouped, root, spec);
+        grouped.groupBy(assignee, status);
+
+        long total = 0;
+        Map<String, Long> byStatus = new TreeMap<>();
+        Map<String, Map<String, Long>> byAssignee = new TreeMap<>();
+        for (Tuple row : entityManager.createQuery(grouped).getResultList()) {
+            String rowAssignee = row.get(0, String.class);
+            String rowStatus = row.get(1, String.class);
+            long count = row.get(2, Long.class);
+            total += count;
+            if (rowStatus != null) {
+                byStatus.merge(rowStatus, count, Long::sum);
+            }
+            if (rowAssignee != null && !rowAssignee.isBlank() && rowStatus != null) {
+                byAssignee.computeIfAbsent(rowAssignee, key -> new LinkedHashMap<>()).merge(rowStatus, count, Long::sum);
+            }
+        }
+
+        CriteriaQuery<Long> recent = cb.createQuery(Long.class);
+        Root<Complaint> recentRoot = recent.from(Complaint.class);
+        recent.select(cb.count(recentRoot));
+        where(recent, recentRoot, spec, cb.greaterThanOrEqualTo(recentRoot.get("createdAt"), createdSince));
+        long createdToday = entityManager.createQuery(recent).getSingleResult();
+
+        return new ComplaintStats(total, createdToday, byStatus, byAssignee);
+    }
+
+    private void where(CriteriaQuery<?> query, Root<Complaint> root, Specification<Complaint> spec,
+            Predicate... extra) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<Predicate> where = new ArrayList<>(List.of(extra));
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        query.where(where.toArray(Predicate[]::new));
+    }
+
+    private void select(CriteriaQuery<Tuple> query, Root<Complaint> root) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        query.select(cb.tuple(
+                root.get("id"),
+                root.get("passengerName"),
+                root.get("passengerPhone"),
+                root.get("complaintText"),
+                root.get("category"),
+                root.get("urgencyScore"),
+                root.get("status"),
+                root.get("station"),
+                root.get("previousStation"),
+                root.get("nextStation"),
+                root.get("department"),
+                root.get("trainNumber"),
+                root.get("incidentAt"),
+                root.get("assignedTo"),
+                root.get("remarks"),
+                root.get("resolvedBy"),
+                root.get("resolvedByRole"),
+                root.get("parentComplaintId"),
+                root.get("createdAt"),
+                root.get("updatedAt")));
+    }
+
+    private ComplaintSummary toSummary(Tuple row) {
+        ComplaintSummary summary = new ComplaintSummary();
+        summary.setId(row.get(0, Long.class));
+        summary.setPassengerName(row.get(1, String.class));
+        summary.setPassengerPhone(row.get(2, String.class));
+        summary.setComplaintText(row.get(3, String.class));
+        summary.setCategory(row.get(4, String.class));
+        summary.setUrgencyScore(row.get(5, Integer.class));
+        summary.setStatus(row.get(6, String.class));
+        summary.setStation(row.get(7, String.class));
+        summary.setPreviousStation(row.get(8, String.class));
+        summary.setNextStation(row.get(9, String.class));
+        summary.setDepartment(row.get(10, String.class));
+        summary.setTrainNumber(row.get(11, String.class));
+        summary.setIncidentAt(row.get(12, LocalDateTime.class));
+        summary.setAssignedTo(row.get(13, String.class));
+        summary.setRemarks(row.get(14, String.class));
+        summary.setResolvedBy(row.get(15, String.class));
+        summary.setResolvedByRole(row.get(16, String.class));
+        summary.setParentComplaintId(row.get(17, Long.class));
+        summary.setCreatedAt(row.get(18, LocalDateTime.class));
+        summary.setUpdatedAt(row.get(19, LocalDateTime.class));
+        return summary;
+    }
+}
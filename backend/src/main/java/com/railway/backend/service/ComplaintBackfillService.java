@@ -0,0 +1,75 @@
+package com.railway.backend.service;
+
+import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.util.TextFingerprint;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Idempotent data fixes for rows written before a column or invariant existed.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintBackfillService {
+    private static final int SIGNATURE_BATCH = 500;
+
+    private final ComplaintRepository complaintRepository;
+
+    // Keyset pages compare and order by urgency_score, which never matches NULL, so old rows without a score would
+    // drop out of every list. Fixed before the app takes traffic, then the column is made NOT NULL.
+    @PostConstruct
+    void requireUrgency() {
+        try {
+            int urgency = complaintRepository.backfillMissingUrgency();
+            if (urgency > 0) {
+                log.info("Backfilled urgency score on {} complaints.", urgency);
+            }
+            complaintRepository.requireUrgencyScore();
+        } catch (Exception ex) {
+            log.warn("Urgency score backfill failed; complaints without a score stay out of list pages.", ex);
+        }
+    }
+
+    // Runs before other startup listeners that read the backfilled columns (e.g. the analytics counter seed).
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfill() {
+        try {
+            int stationKeys = complaintRepository.backfillStationKeys();
+            if (stationKeys > 0) {
+                log.info("Backfilled normalized station keys on {} complaints.", stationKeys);
+            }
+            int signatures = backfillTextSignatures();
+            if (signatures > 0) {
+                log.info("Backfilled text signatures on {} complaints.", signatures);
+            }
+        } catch (Exception ex) {
+            log.warn("Complaint backfill failed; it will be retried on next startup.", ex);
+        }
+    }
+
+    // Signatures are computed in Java, so rows are fixed a page at a time rather than with one UPDATE.
+    private int backfillTextSignatures() {
+        int total = 0;
+        while (true) {
+            List<Object[]> rows = complaintRepository.findUnsignedTexts(PageRequest.of(0, SIGNATURE_BATCH));
+            int updated = 0;
+            for (Object[] row : rows) {
+                byte[] signature = TextFingerprint.toBytes(TextFingerprint.signature((String) row[1]));
+                updated += complaintRepository.updateTextSignature((Long) row[0], signature);
+            }
+            total += updated;
+            if (rows.size() < SIGNATURE_BATCH || updated == 0) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.railway.backend.service;
+
+import com.railway.backend.dto.TopIssue;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.util.AfterCommit;
+import com.railway.backend.util.TextFingerprint;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Groups near-duplicate complaints into clusters as they arrive, using MinHash signatures and LSH band buckets to
+// find candidate clusters without comparing against every complaint. Backs the top-issues analytics.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintClusterIndex {
+    private static final int BUILD_BATCH = 1000;
+    private static final int TEXT_BATCH = 500;
+
+    private final ComplaintRepository complaintRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.analytics.clusters.min-similarity:0.45}")
+    private double minSimilarity;
+
+    @Value("${app.analytics.clusters.representative-length:300}")
+    private int representativeLength;
+
+    // Keyed by the id of the complaint that started the cluster; its text represents the cluster.
+    private final ConcurrentMap<Long, Cluster> clusters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Long> membership = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    // Guards the buckets and the assign-or-create decision; reads of cluster sizes never take it.
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean ready;
+
+    static final class Cluster {
+        final int[] signature;
+        final LongAdder size = new LongAdder();
+        volatile String text;
+
+        Cluster(int[] signature, String text) {
+            this.signature = signature;
+            this.text = text;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        meterRegistry.gauge("complaint.analytics.clusters", clusters, Map::size);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void added(Complaint complaint) {
+        Long id = complaint.getId();
+        String text = complaint.getComplaintText();
+        int[] signature = complaint.getTextSignature() != null
+                ? TextFingerprint.fromBytes(complaint.getTextSignature())
+                : TextFingerprint.signature(text);
+        AfterCommit.run(() -> add(id, signature, text));
+    }
+
+    public void removed(Long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    public List<TopIssue> topIssues(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<TopIssue> largest = new PriorityQueue<>(Comparator.comparingLong(TopIssue::getCount));
+        for (Cluster cluster : clusters.values()) {
+            long size = cluster.size.sum();
+            String text = cluster.text;
+            if (size <= 0 || text == null || text.isEmpty()) {
+                continue;
+            }
+            if (largest.size() < limit) {
+                largest.add(new TopIssue(text, size));
+            } else if (size > largest.peek().getCount()) {
+                largest.poll();
+                largest.add(new TopIssue(text, size));
+            }
+        }
+        List<TopIssue> result = new ArrayList<>(largest);
+        result.sort(Comparator.comparingLong(TopIssue::getCount).reversed());
+        return result;
+    }
+
+    // Builds the index from stored signatures once the backfill has filled in any missing ones. Complaints created
+    // meanwhile are added by the write path; membership makes the two idempotent, so a failed build is simply retried.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (ready) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            long afterId = 0;
+            List<Long> leadersWithoutText = new ArrayList<>();
+            while (true) {
+                List<Object[]> rows = complaintRepository.findTextSignaturesAfter(afterId, PageRequest.of(0, BUILD_BATCH));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    byte[] bytes = (byte[]) row[1];
+                    int[] signature = bytes != null ? TextFingerprint.fromBytes(bytes) : TextFingerprint.signature(null);
+                    if (add(id, signature, null)) {
+                        leadersWithoutText.add(id);
+                    }
+                    afterId = id;
+                }
+                if (rows.size() < BUILD_BATCH) {
+                    break;
+                }
+            }
+            for (int from = 0; from < leadersWithoutText.size(); from += TEXT_BATCH) {
+                List<Long> ids = leadersWithoutText.subList(from, Math.min(from + TEXT_BATCH, leadersWithoutText.size()));
+                for (Object[] row : complaintRepository.findTextsByIds(ids)) {
+                    Cluster cluster = clusters.get((Long) row[0]);
+                    if (cluster != null && cluster.text == null) {
+                        cluster.text = representative((String) row[1]);
+                    }
+                }
+            }
+            ready = true;
+            log.info("Complaint cluster index built: {} complaints in {} clusters ({} ms).",
+                    membership.size(), clusters.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception ex) {
+            log.warn("Complaint cluster index build failed; top issues are unavailable until the next attempt.", ex);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.analytics.clusters.retry-ms:60000}",
+            fixedDelayString = "${app.analytics.clusters.retry-ms:60000}")
+    public void retryBuild() {
+        if (!ready) {
+            build();
+        }
+    }
+
+    // Returns true when the complaint started a new cluster.
+    boolean add(Long id, int[] signature, String text) {
+        lock.lock();
+        try {
+            if (membership.containsKey(id)) {
+                return false;
+            }
+            Long best = null;
+            double bestSimilarity = minSimilarity;
+            Set<Long> seen = new HashSet<>();
+            for (int band = 0; band < TextFingerprint.BANDS; band++) {
+                Set<Long> candidates = buckets.get(TextFingerprint.bandKey(signature, band));
+                if (candidates == null) {
+                    continue;
+                }
+                for (Long candidate : candidates) {
+                    if (!seen.add(candidate)) {
+                        continue;
+                    }
+                    double similarity = TextFingerprint.similarity(signature, clusters.get(candidate).signature);
+                    if (similarity >= bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            if (best != null) {
+                membership.put(id, best);
+                clusters.get(best).size.increment();
+                return false;
+            }
+            Cluster cluster = new Cluster(signature, representative(text));
+            cluster.size.increment();
+            clusters.put(id, cluster);
+            membership.put(id, id);
+            for (int band = 0; band < TextFingerprint.BANDS; band++) {
+                buckets.computeIfAbsent(TextFingerprint.bandKey(signature, band), k -> new HashSet<>()).add(id);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.lock();
+        try {
+            Long clusterId = membership.remove(id);
+            if (clusterId == null) {
+                return;
+            }
+            Cluster cluster = clusters.get(clusterId);
+            cluster.size.decrement();
+            if (cluster.size.sum() > 0) {
+                return;
+            }
+            clusters.remove(clusterId);
+            for (int band = 0; band < TextFingerprint.BANDS; band++) {
+                long key = TextFingerprint.bandKey(cluster.signature, band);
+                Set<Long> candidates = buckets.get(key);
+                if (candidates != null && candidates.remove(clusterId) && candidates.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String representative(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.strip();
+        return trimmed.length() <= representativeLength ? trimmed : trimmed.substring(0, representativeLength) + "...";
+    }
+}
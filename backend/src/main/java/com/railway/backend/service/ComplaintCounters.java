@@ -0,0 +1,242 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory complaint counts by department x status x station, kept current by the write paths and periodically
+// reconciled against the table. Reads never touch the database once seeded. Write paths report their change from
+// inside the transaction that makes it, so the change is applied here right after that transaction commits.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintCounters {
+    private final ComplaintRepository complaintRepository;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<Key, LongAdder> counts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> departmentTotals = new ConcurrentHashMap<>();
+    // Held shared by a write from just before its commit until the counters include it, and exclusively by a
+    // reconciliation while it opens its snapshot: each write is then in both the snapshot and the counts, or in neither.
+    private final ReadWriteLock commitGate = new ReentrantReadWriteLock();
+    private volatile boolean seeded;
+    private Counter driftCounter;
+
+    public record Key(String department, String status, String station) {
+        public static Key of(Complaint complaint) {
+            return new Key(departmentOf(complaint.getDepartment(), complaint.getCategory()),
+                    Objects.requireNonNullElse(complaint.getStatus(), ""),
+                    Objects.requireNonNullElse(complaint.getStationKey(), ""));
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        driftCounter = meterRegistry.counter("complaint.analytics.drift");
+    }
+
+    // Same fallback the dashboards have always used: department, else category, else General.
+    public static String departmentOf(String department, String category) {
+        if (department != null && !department.isBlank()) {
+            return department.trim();
+        }
+        if (category != null && !category.isBlank()) {
+            return category.trim();
+        }
+        return "General";
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public void added(Complaint complaint) {
+        Key key = Key.of(complaint);
+        onCommit(() -> apply(key, 1));
+    }
+
+    public void removed(Complaint complaint) {
+        Key key = Key.of(complaint);
+        onCommit(() -> apply(key, -1));
+    }
+
+    // Call with the key captured before the complaint was modified.
+    public void moved(Key before, Key after) {
+        if (before.equals(after)) {
+            return;
+        }
+        onCommit(() -> {
+            apply(before, -1);
+            apply(after, 1);
+        });
+    }
+
+    public Map<String, Long> countsByDepartment() {
+        Map<String, Long> result = new HashMap<>();
+        departmentTotals.forEach((department, count) -> {
+            long value = count.sum();
+            if (value > 0) {
+                result.put(department, value);
+            }
+        });
+        return result;
+    }
+
+    public Map<String, Long> countsByDepartment(String status, String station) {
+        String stationKey = Complaint.stationKey(station);
+        Map<String, Long> result = new HashMap<>();
+        counts.forEach((key, count) -> {
+            if (matches(key, status, stationKey)) {
+                long value = count.sum();
+                if (value > 0) {
+                    result.merge(key.department(), value, Long::sum);
+                }
+            }
+        });
+        return result;
+    }
+
+    // The same breakdown straight from the table, for reads that arrive before the counters are seeded.
+    public Map<String, Long> queryCountsByDepartment(String status, String station) {
+        String stationKey = Complaint.stationKey(station);
+        Map<String, Long> result = new HashMap<>();
+        tableCounts().forEach((key, count) -> {
+            if (count > 0 && matches(key, status, stationKey)) {
+                result.merge(key.department(), count, Long::sum);
+            }
+        });
+        return result;
+    }
+
+    // Seeds the counters on startup (after the key backfill) and then corrects any drift, e.g. from a rolled-back
+    // transaction or a write path that bypassed the service.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.analytics.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.analytics.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshot.setReadOnly(true);
+        Long drift;
+        try {
+            drift = snapshot.execute(status -> {
+                // Only opening the snapshot waits for in-flight commits; the count query itself runs unblocked.
+                Map<Key, Long> expected;
+                commitGate.writeLock().lock();
+                try {
+                    complaintRepository.snapshotProbe();
+                    expected = copyCounts();
+                } finally {
+                    commitGate.writeLock().unlock();
+                }
+                Map<Key, Long> actual = tableCounts();
+                long corrected = 0;
+                Set<Key> keys = new HashSet<>(expected.keySet());
+                keys.addAll(actual.keySet());
+                for (Key key : keys) {
+                    // Writes since the snapshot are in neither map, so they survive the correction.
+                    long correction = actual.getOrDefault(key, 0L) - expected.getOrDefault(key, 0L);
+                    if (correction != 0) {
+                        apply(key, correction);
+                        corrected += Math.abs(correction);
+                    }
+                }
+                return corrected;
+            });
+        } catch (Exception ex) {
+            log.warn("Complaint analytics reconciliation failed.", ex);
+            return;
+        }
+        if (seeded && drift != null && drift > 0) {
+            driftCounter.increment(drift);
+            log.info("Complaint analytics counters corrected by {} after reconciliation.", drift);
+        }
+        seeded = true;
+    }
+
+    private void onCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            commitGate.readLock().lock();
+            try {
+                change.run();
+            } finally {
+                commitGate.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean holding;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitGate.readLock().lock();
+                holding = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (holding) {
+                    holding = false;
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    private Map<Key, Long> copyCounts() {
+        Map<Key, Long> copy = new HashMap<>();
+        counts.forEach((key, count) -> copy.put(key, count.sum()));
+        return copy;
+    }
+
+    private Map<Key, Long> tableCounts() {
+        Map<Key, Long> actual = new HashMap<>();
+        for (Object[] row : complaintRepository.countByClassificationStatusAndStation()) {
+            Key key = new Key(departmentOf((String) row[0], (String) row[1]),
+                    Objects.requireNonNullElse((String) row[2], ""),
+                    Objects.requireNonNullElse((String) row[3], ""));
+            actual.merge(key, ((Number) row[4]).longValue(), Long::sum);
+        }
+        return actual;
+    }
+
+    private static boolean matches(Key key, String status, String stationKey) {
+        return (status == null || status.equalsIgnoreCase(key.status()))
+                && (stationKey == null || stationKey.equals(key.station()));
+    }
+
+    private void apply(Key key, long delta) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        departmentTotals.computeIfAbsent(key.department(), k -> new LongAdder()).add(delta);
+    }
+}
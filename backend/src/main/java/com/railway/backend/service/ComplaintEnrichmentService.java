@@ -0,0 +1,305 @@
+package com.railway.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railway.backend.ai.ClassificationResult;
+import com.railway.backend.ai.BatchingComplaintClassifier;
+import com.railway.backend.ai.ClassificationCache;
+import com.railway.backend.ai.ComplaintClassifier;
+import com.railway.backend.config.BoundedExecutor;
+import com.railway.backend.config.WorkerThreads;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintEnrichmentService {
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_ENRICHED = "ENRICHED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final ComplaintRepository complaintRepository;
+    private final ComplaintClassifier complaintClassifier;
+    private final BatchingComplaintClassifier batchingComplaintClassifier;
+    private final ClassificationCache classificationCache;
+    private final MeterRegistry meterRegistry;
+    private final WorkerThreads workerThreads;
+    private final ComplaintCounters complaintCounters;
+    private final ComplaintSearchService complaintSearchService;
+    private final ComplaintVersions complaintVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.ai.enabled:true}")
+    private boolean aiEnabled;
+    @Value("${app.ai.enrichment.workers:16}")
+    private int workers;
+    @Value("${app.ai.enrichment.queue-capacity:500}")
+    private int queueCapacity;
+    @Value("${app.ai.enrichment.virtual-workers:256}")
+    private int virtualWorkers;
+    @Value("${app.ai.enrichment.recovery-batch-size:200}")
+    private int recoveryBatchSize;
+    @Value("${app.ai.enrichment.max-attempts:8}")
+    private int maxAttempts;
+    @Value("${app.ai.enrichment.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+    @Value("${app.ai.enrichment.max-retry-backoff-ms:3600000}")
+    private long maxRetryBackoffMs;
+
+    private BoundedExecutor executor;
+    private Counter enrichedCounter;
+    private Counter failedCounter;
+    private Counter deferredCounter;
+    private Counter retriedCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void start() {
+        // Virtual workers are cheap enough to let many complaints wait on the classifier at once, which also fills
+        // classifier batches; the bulkhead and the connection pool still cap the real outbound concurrency.
+        int concurrency = workerThreads.isVirtual() ? virtualWorkers : workers;
+        executor = workerThreads.bounded("ai-enrichment-", concurrency, queueCapacity);
+        Gauge.builder("complaint.enrichment.queue.depth", executor, BoundedExecutor::queued)
+                .description("Complaints waiting for AI classification")
+                .register(meterRegistry);
+        Gauge.builder("complaint.enrichment.active", executor, BoundedExecutor::active)
+                .register(meterRegistry);
+        enrichedCounter = meterRegistry.counter("complaint.enrichment.completed", "outcome", "enriched");
+        failedCounter = meterRegistry.counter("complaint.enrichment.completed", "outcome", "failed");
+        deferredCounter = meterRegistry.counter("complaint.enrichment.completed", "outcome", "deferred");
+        retriedCounter = meterRegistry.counter("complaint.enrichment.completed", "outcome", "retry");
+        rejectedCounter = meterRegistry.counter("complaint.enrichment.rejected");
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return aiEnabled;
+    }
+
+    public String initialStatus(Complaint complaint) {
+        if (!aiEnabled || complaint.getComplaintText() == null || complaint.getComplaintText().isBlank()) {
+            return null;
+        }
+        return STATUS_PENDING;
+    }
+
+    public boolean submit(Long complaintId) {
+        if (!aiEnabled || complaintId == null || !inFlight.add(complaintId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    enrich(complaintId);
+                } finally {
+                    inFlight.remove(complaintId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            // Queue is full: the row stays PENDING and the recovery sweep picks it up later.
+            inFlight.remove(complaintId);
+            rejectedCounter.increment();
+            log.debug("Enrichment queue full; complaint id {} left pending for the recovery sweep.", complaintId);
+            return false;
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.queued();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        int submitted = recoverPending();
+        if (submitted > 0) {
+            log.info("Resubmitted {} unenriched complaints for AI classification.", submitted);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.ai.enrichment.sweep-interval-ms:60000}",
+            initialDelayString = "${app.ai.enrichment.sweep-interval-ms:60000}")
+    public void sweepPending() {
+        recoverPending();
+    }
+
+    int recoverPending() {
+        if (!aiEnabled) {
+            return 0;
+        }
+        int capacity = Math.min(recoveryBatchSize, executor.remainingCapacity());
+        if (capacity <= 0) {
+            return 0;
+        }
+        List<Long> pendingIds;
+        try {
+            pendingIds = complaintRepository.findIdsByAiStatus(STATUS_PENDING, LocalDateTime.now(),
+                    PageRequest.of(0, capacity));
+        } catch (Exception ex) {
+            log.warn("Could not load pending complaints for AI enrichment recovery.", ex);
+            return 0;
+        }
+        int submitted = 0;
+        for (Long id : pendingIds) {
+            if (submit(id)) {
+                submitted++;
+            }
+        }
+        return submitted;
+    }
+
+    private void enrich(Long complaintId) {
+        Complaint complaint = null;
+        try {
+            Optional<Complaint> complaintOpt = complaintRepository.findById(complaintId);
+            if (complaintOpt.isEmpty()) {
+                return;
+            }
+            complaint = complaintOpt.get();
+            Optional<ClassificationResult> result = classify(complaint.getComplaintText());
+            if (result.isEmpty()) {
+                // Timeout, 5xx or a cold classifier: stay PENDING and let the sweep retry after a backoff.
+                retryLater(complaint);
+                return;
+            }
+            if (result.get().isUnusable()) {
+                markFailed(complaintId);
+                return;
+            }
+            if (result.get().isFallback()) {
+                // Classifier breaker is open: the keyword classification from intake stands, and the complaint
+                // stays PENDING so the recovery sweep retries it once the classifier is back.
+                deferredCounter.increment();
+                return;
+            }
+            applyResult(complaint, result.get());
+            enrichedCounter.increment();
+        } catch (Exception ex) {
+            log.warn("AI enrichment failed for complaint id {}.", complaintId, ex);
+            if (complaint == null) {
+                // The row could not be read, so neither could its attempts; the sweep picks it up again.
+                failedCounter.increment();
+                return;
+            }
+            try {
+                // Counts toward maxAttempts, so a complaint that always fails ends FAILED instead of looping.
+                retryLater(complaint);
+            } catch (Exception retryEx) {
+                failedCounter.increment();
+                log.warn("Could not schedule an AI enrichment retry for complaint id {}.", complaintId, retryEx);
+            }
+        }
+    }
+
+    // Duplicates stay PENDING with their parent and are not swept on their own while it is pending.
+    private void retryLater(Complaint complaint) {
+        int attempts = (complaint.getAiAttempts() == null ? 0 : complaint.getAiAttempts()) + 1;
+        if (attempts >= maxAttempts) {
+            log.warn("AI enrichment for complaint id {} gave up after {} attempts.", complaint.getId(), attempts);
+            markFailed(complaint.getId());
+            return;
+        }
+        long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        complaintRepository.scheduleAiRetry(complaint.getId(), attempts,
+                LocalDateTime.now().plus(backoff, ChronoUnit.MILLIS));
+        retriedCounter.increment();
+    }
+
+    private void markFailed(Long complaintId) {
+        complaintRepository.markAiStatus(complaintId, STATUS_FAILED);
+        complaintRepository.markDuplicatesAiStatus(complaintId, STATUS_FAILED);
+        failedCounter.increment();
+    }
+
+    private Optional<ClassificationResult> classify(String text) {
+        Optional<ClassificationResult> cached = classificationCache.get(text);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<ClassificationResult> result = batchingComplaintClassifier.classify(text);
+        result.ifPresent(r -> classificationCache.put(text, r));
+        return result;
+    }
+
+    private void applyResult(Complaint complaint, ClassificationResult result) throws Exception {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("classifierUrl", complaintClassifier.getClassifierUrl());
+        metadata.put("raw", result.raw());
+        metadata.put("department", result.department());
+        metadata.put("priority", result.priority());
+        metadata.put("urgencyScore", result.urgencyScore());
+
+        String aiMetadata = objectMapper.writeValueAsString(metadata);
+        LocalDateTime now = LocalDateTime.now();
+        // One transaction, so the analytics counters move together with the rows they count. The rows are
+        // re-read under a lock: staff may have changed them while the classifier was running.
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<Complaint> current = complaintRepository.findByIdForUpdate(complaint.getId());
+            if (current.isEmpty()) {
+                return;
+            }
+            String department = result.department();
+            if (department == null || department.isBlank() || "General".equalsIgnoreCase(department)) {
+                department = current.get().getDepartment();
+            }
+            complaintRepository.applyAiEnrichment(complaint.getId(), department, result.urgencyScore(),
+                    aiMetadata, STATUS_ENRICHED, now);
+            movedToDepartment(current.get(), department);
+
+            // Near-duplicates linked at intake take the parent's result instead of their own classifier call.
+            List<Complaint> duplicates = complaintRepository.findByParentComplaintIdAndAiStatus(complaint.getId(), STATUS_PENDING);
+            if (!duplicates.isEmpty()) {
+                complaintRepository.applyAiEnrichmentToDuplicates(complaint.getId(), department, result.urgencyScore(),
+                        aiMetadata, STATUS_ENRICHED, now);
+                for (Complaint duplicate : duplicates) {
+                    movedToDepartment(duplicate, department);
+                }
+            }
+        });
+    }
+
+    private void movedToDepartment(Complaint complaint, String department) {
+        ComplaintCounters.Key before = ComplaintCounters.Key.of(complaint);
+        String effective = ComplaintCounters.departmentOf(department, complaint.getCategory());
+        complaintCounters.moved(before, new ComplaintCounters.Key(effective, before.status(), before.station()));
+        complaintSearchService.departmentChanged(complaint.getId(), effective);
+        Set<String> scopes = ComplaintVersions.scopesOf(complaint);
+        scopes.add(ComplaintVersions.department(department));
+        complaintVersions.touch(scopes);
+    }
+
+}
@@ -0,0 +1,283 @@
+package com.railway.backend.service;
+
+import com.railway.backend.config.BoundedExecutor;
+import com.railway.backend.config.WorkerThreads;
+import com.railway.backend.dto.ComplaintResponse;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.AfterCommit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process fan-out of complaint changes to SSE subscribers per station and per assignee. Publishing never blocks:
+// each subscriber has a bounded buffer drained by the delivery pool, and a subscriber whose buffer fills up (a slow
+// or stalled client) is evicted rather than holding events or threads hostage. Socket writes run on their own
+// writer threads with a time limit, so a client that stops reading never holds a delivery thread for long.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintEventHub {
+    public static final String CREATED = "complaint-created";
+    public static final String ASSIGNED = "complaint-assigned";
+    public static final String STATUS_CHANGED = "complaint-status-changed";
+
+    private final MeterRegistry meterRegistry;
+    private final WorkerThreads workerThreads;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.complaints.stream.buffer-size:64}")
+    private int bufferSize;
+    @Value("${app.complaints.stream.max-subscribers:2000}")
+    private int maxSubscribers;
+    @Value("${app.complaints.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+    @Value("${app.complaints.stream.delivery-threads:4}")
+    private int deliveryThreads;
+    @Value("${app.complaints.stream.virtual-delivery-threads:256}")
+    private int virtualDeliveryThreads;
+    @Value("${app.complaints.stream.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    private final ConcurrentMap<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private BoundedExecutor delivery;
+    private ExecutorService writers;
+    private Counter publishedCounter;
+    private Counter evictedCounter;
+
+    @PostConstruct
+    void start() {
+        // At most one drain per subscriber is scheduled, so the backlog never needs to exceed the subscriber limit.
+        delivery = workerThreads.bounded("complaint-stream-",
+                workerThreads.isVirtual() ? virtualDeliveryThreads : deliveryThreads, maxSubscribers);
+        // At most one write per subscriber is outstanding, so this grows with stalled sockets, not with traffic.
+        writers = workerThreads.unbounded("complaint-stream-writer-");
+        Gauge.builder("complaint.stream.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        publishedCounter = meterRegistry.counter("complaint.stream.events");
+        evictedCounter = meterRegistry.counter("complaint.stream.evicted");
+    }
+
+    @PreDestroy
+    void stop() {
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        delivery.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    public static String stationTopic(String station) {
+        String key = Complaint.stationKey(station);
+        return key == null ? null : "station:" + key;
+    }
+
+    public static String assigneeTopic(String assignee) {
+        if (assignee == null || assignee.isBlank()) {
+            return null;
+        }
+        return "assignee:" + assignee.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public SseEmitter subscribe(String topic) {
+        if (topic == null) {
+            throw new IllegalArgumentException("Station or assignee is required");
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many live subscribers");
+        }
+        SseEmitter emitter = newEmitter(Duration.ofMinutes(timeoutMinutes).toMillis());
+        Subscriber subscriber = new Subscriber(topic, emitter, new ArrayBlockingQueue<>(bufferSize));
+        topics.compute(topic, (k, subscribers) -> {
+            Set<Subscriber> joined = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            joined.add(subscriber);
+            return joined;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        enqueue(subscriber, SseEmitter.event().comment("subscribed " + topic));
+        return emitter;
+    }
+
+    // Topics of every station view the complaint shows up in, plus its assignee.
+    public static Set<String> topicsOf(Complaint complaint) {
+        Set<String> topics = new LinkedHashSet<>();
+        addTopic(topics, stationTopic(complaint.getStation()));
+        addTopic(topics, stationTopic(complaint.getPreviousStation()));
+        addTopic(topics, stationTopic(complaint.getNextStation()));
+        addTopic(topics, assigneeTopic(complaint.getAssignedTo()));
+        return topics;
+    }
+
+    // Delivered after the surrounding transaction commits, so subscribers never see a change that rolled back.
+    public void publish(String type, ComplaintResponse complaint, Set<String> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> fanOut(type, complaint, targets));
+    }
+
+    // Keeps idle connections from being closed by proxies and flushes out clients that have gone away.
+    @Scheduled(fixedDelayString = "${app.complaints.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        topics.values().forEach(subscribers -> subscribers.forEach(subscriber ->
+                enqueue(subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void fanOut(String type, ComplaintResponse complaint, Set<String> targets) {
+        String json;
+        try {
+            json = jsonMapper.writeValueAsString(complaint);
+        } catch (Exception ex) {
+            log.warn("Could not serialize complaint {} for live subscribers.", complaint.getId(), ex);
+            return;
+        }
+        String id = Long.toString(sequence.incrementAndGet());
+        for (String topic : targets) {
+            Set<Subscriber> subscribers = topics.get(topic);
+            if (subscribers == null) {
+                continue;
+            }
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, SseEmitter.event().id(id).name(type).data(json));
+            }
+        }
+        publishedCounter.increment();
+    }
+
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (!subscriber.buffer.offer(event)) {
+            evict(subscriber);
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delivery.execute(() -> drain(subscriber));
+        } catch (Exception ex) {
+            subscriber.draining.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.buffer.poll()) != null) {
+                SseEmitter.SseEventBuilder next = event;
+                Future<?> write = writers.submit(() -> {
+                    subscriber.emitter.send(next);
+                    return null;
+                });
+                try {
+                    write.get(writeTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException ex) {
+                    // The writer thread stays parked on the socket; only this subscriber loses it.
+                    write.cancel(true);
+                    evict(subscriber);
+                    return;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception ex) {
+            // Client went away mid-write.
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(ex instanceof ExecutionException ? ex.getCause() : ex);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event enqueued after the last poll but before draining was cleared would otherwise wait for the next one.
+        if (!subscriber.buffer.isEmpty() && !subscriber.closed.get()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (!unsubscribe(subscriber)) {
+            return;
+        }
+        evictedCounter.increment();
+        log.debug("Evicted slow live subscriber on {}.", subscriber.topic);
+        // The emitter may be blocked in a write, and completing waits for that write, so it goes to a writer thread.
+        writers.execute(subscriber.emitter::complete);
+    }
+
+    private boolean unsubscribe(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        subscriber.buffer.clear();
+        topics.computeIfPresent(subscriber.topic, (k, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+
+    private static void addTopic(Set<String> topics, String topic) {
+        if (topic != null) {
+            topics.add(topic);
+        }
+    }
+
+    private static final class Subscriber {
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(String topic, SseEmitter emitter, BlockingQueue<SseEmitter.SseEventBuilder> buffer) {
+            this.topic = topic;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.railway.backend.service;
+
+import com.railway.backend.dto.ComplaintResponse;
+import com.railway.backend.entity.Complaint;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.query.SelectionQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Streams complaints from a forward-only cursor on a stateless session, so rows are never attached and memory stays flat.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintExportService {
+    private static final byte[] NEWLINE = {'\n'};
+    private static final List<CsvColumn> CSV_COLUMNS = List.of(
+            new CsvColumn("id", ComplaintResponse::getId),
+            new CsvColumn("passengerName", ComplaintResponse::getPassengerName),
+            new CsvColumn("passengerPhone", ComplaintResponse::getPassengerPhone),
+            new CsvColumn("complaintText", ComplaintResponse::getComplaintText),
+            new CsvColumn("department", ComplaintResponse::getDepartment),
+            new CsvColumn("category", ComplaintResponse::getCategory),
+            new CsvColumn("urgencyScore", ComplaintResponse::getUrgencyScore),
+            new CsvColumn("status", ComplaintResponse::getStatus),
+            new CsvColumn("station", ComplaintResponse::getStation),
+            new CsvColumn("previousStation", ComplaintResponse::getPreviousStation),
+            new CsvColumn("nextStation", ComplaintResponse::getNextStation),
+            new CsvColumn("trainNumber", ComplaintResponse::getTrainNumber),
+            new CsvColumn("incidentAt", ComplaintResponse::getIncidentAt),
+            new CsvColumn("assignedTo", ComplaintResponse::getAssignedTo),
+            new CsvColumn("remarks", ComplaintResponse::getRemarks),
+            new CsvColumn("resolvedBy", ComplaintResponse::getResolvedBy),
+            new CsvColumn("resolvedByRole", ComplaintResponse::getResolvedByRole),
+            new CsvColumn("createdAt", ComplaintResponse::getCreatedAt),
+            new CsvColumn("updatedAt", ComplaintResponse::getUpdatedAt));
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ComplaintService complaintService;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.complaints.export.fetch-size:500}")
+    private int fetchSize;
+    @Value("${app.complaints.export.flush-every:200}")
+    private int flushEvery;
+
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    public record Filter(LocalDateTime from, LocalDateTime to, String station, String department, String status) {
+    }
+
+    public long export(Format format, Filter filter, OutputStream target) throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        OutputStream out = new BufferedOutputStream(target, 16 * 1024);
+        long rows = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction tx = session.beginTransaction();
+            try (ScrollableResults<Complaint> cursor = buildQuery(session, filter).scroll(ScrollMode.FORWARD_ONLY)) {
+                if (format == Format.CSV) {
+                    writeCsvHeader(out);
+                }
+                out.flush();
+                while (cursor.next()) {
+                    ComplaintResponse row = complaintService.toResponse(cursor.get());
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, row);
+                    } else {
+                        out.write(jsonMapper.writeValueAsBytes(row));
+                        out.write(NEWLINE);
+                    }
+                    if (++rows % flushEvery == 0) {
+                        out.flush();
+                    }
+                }
+            } finally {
+                tx.commit();
+            }
+        }
+        out.flush();
+        log.info("Exported {} complaints as {}.", rows, format);
+        return rows;
+    }
+
+    private SelectionQuery<Complaint> buildQuery(StatelessSession session, Filter filter) {
+        StringBuilder hql = new StringBuilder("FROM Complaint c WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (filter.from() != null) {
+            hql.append(" AND c.createdAt >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            hql.append(" AND c.createdAt < :to");
+            params.put("to", filter.to());
+        }
+        if (filter.station() != null && !filter.station().isBlank()) {
+            hql.append(" AND (c.stationKey = :station OR c.previousStationKey = :station OR c.nextStationKey = :station)");
+            params.put("station", Complaint.stationKey(filter.station()));
+        }
+        if (filter.department() != null && !filter.department().isBlank()) {
+            hql.append(" AND c.department = :department");
+            params.put("department", filter.department().trim());
+        }
+        if (filter.status() != null && !filter.status().isBlank()) {
+            hql.append(" AND c.status = :status");
+            params.put("status", filter.status().trim().toUpperCase(Locale.ROOT));
+        }
+        hql.append(" ORDER BY c.id");
+
+        SelectionQuery<Complaint> query = session.createSelectionQuery(hql.toString(), Complaint.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private void writeCsvHeader(OutputStream out) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (CsvColumn column : CSV_COLUMNS) {
+            if (!line.isEmpty()) {
+                line.append(',');
+            }
+            line.append(column.name());
+        }
+        out.write(line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeCsvRow(OutputStream out, ComplaintResponse row) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendCsvValue(line, CSV_COLUMNS.get(i).value().apply(row));
+        }
+        out.write(line.append("\r\n").toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void appendCsvValue(StringBuilder line, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = Objects.toString(value);
+        if (value instanceof String && startsLikeFormula(text)) {
+            // Spreadsheets would evaluate passenger-supplied text such as "=HYPERLINK(...)".
+            text = "'" + text;
+        }
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+        line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    static boolean startsLikeFormula(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    private record CsvColumn(String name, Function<ComplaintResponse, Object> value) {
+    }
+}
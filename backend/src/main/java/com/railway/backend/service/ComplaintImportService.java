@@ -0,0 +1,285 @@
+package com.railway.backend.service;
+
+import com.railway.backend.dto.ComplaintImportReport;
+import com.railway.backend.dto.ComplaintRequest;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.util.CsvRecordReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+// Bulk-loads complaints captured by the 139 helpline from CSV or NDJSON. The body is parsed a record at a time and
+// valid rows are inserted in batches, one transaction each, so the file is never held in memory and a bad batch only
+// costs that batch a row-by-row retry.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintImportService {
+    private static final Map<String, BiConsumer<ComplaintRequest, String>> CSV_COLUMNS = Map.of(
+            "passengername", ComplaintRequest::setPassengerName,
+            "passengerphone", ComplaintRequest::setPassengerPhone,
+            "complainttext", ComplaintRequest::setComplaintText,
+            "trainnumber", ComplaintRequest::setTrainNumber,
+            "incidentat", (request, value) -> request.setIncidentAt(parseDateTime(value)),
+            "previousstation", ComplaintRequest::setPreviousStation,
+            "nextstation", ComplaintRequest::setNextStation,
+            "category", ComplaintRequest::setCategory);
+
+    private final ComplaintRepository complaintRepository;
+    private final ComplaintService complaintService;
+    private final ComplaintCounters complaintCounters;
+    private final ComplaintClusterIndex complaintClusterIndex;
+    private final ComplaintSearchService complaintSearchService;
+    private final ComplaintVersions complaintVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.complaints.import.batch-size:500}")
+    private int batchSize;
+    @Value("${app.complaints.import.max-errors:200}")
+    private int maxErrors;
+    @Value("${app.complaints.import.max-field-length:65536}")
+    private int maxFieldLength;
+
+    private record Row(long line, ComplaintRequest request) {
+    }
+
+    private interface RowSource {
+        // Null at end of input; throws IllegalArgumentException for a row that cannot be parsed.
+        Row next() throws IOException;
+
+        long line();
+    }
+
+    public ComplaintImportReport importComplaints(ComplaintExportService.Format format, InputStream body,
+            String importedBy) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        RowSource rows = format == ComplaintExportService.Format.CSV ? csvRows(reader) : ndjsonRows(reader);
+        ComplaintImportReport report = new ComplaintImportReport();
+        List<Complaint> batch = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+        while (true) {
+            Row row;
+            try {
+                row = rows.next();
+            } catch (IllegalArgumentException ex) {
+                report.setRows(report.getRows() + 1);
+                fail(report, rows.line(), ex.getMessage());
+                continue;
+            } catch (StopImport ex) {
+                report.setRows(report.getRows() + 1);
+                fail(report, rows.line(), ex.getMessage());
+                break;
+            }
+            if (row == null) {
+                break;
+            }
+            report.setRows(report.getRows() + 1);
+            String violations = validate(row.request());
+            if (violations != null) {
+                fail(report, row.line(), violations);
+                continue;
+            }
+            batch.add(complaintService.newImportedComplaint(row.request(), importedBy));
+            lines.add(row.line());
+            if (batch.size() >= batchSize) {
+                insert(batch, lines, report);
+            }
+        }
+        insert(batch, lines, report);
+        log.info("Imported {} of {} complaint rows from {} for {}.", report.getImported(), report.getRows(), format,
+                importedBy);
+        return report;
+    }
+
+    private void insert(List<Complaint> batch, List<Long> lines, ComplaintImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            report.setImported(report.getImported() + batch.size());
+        } catch (Exception ex) {
+            // One bad row rejects the whole batch; retry its rows one at a time so only that row is reported.
+            for (int i = 0; i < batch.size(); i++) {
+                Complaint complaint = batch.get(i);
+                complaint.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(complaint)));
+                    report.setImported(report.getImported() + 1);
+                } catch (Exception rowEx) {
+                    fail(report, lines.get(i), "Rejected by the database: " + rootMessage(rowEx));
+                }
+            }
+        }
+        batch.clear();
+        lines.clear();
+    }
+
+    // The in-memory indexes only see the rows once the batch has committed.
+    private void persist(List<Complaint> complaints) {
+        complaintRepository.saveAll(complaints);
+        Set<String> scopes = new HashSet<>();
+        for (Complaint complaint : complaints) {
+            complaintCounters.added(complaint);
+            complaintClusterIndex.added(complaint);
+            complaintSearchService.indexed(complaint);
+            scopes.addAll(ComplaintVersions.scopesOf(complaint));
+        }
+        complaintVersions.touch(scopes);
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader, maxFieldLength);
+        List<String> header = csv.next();
+        if (header == null) {
+            return emptySource();
+        }
+        List<BiConsumer<ComplaintRequest, String>> setters = new ArrayList<>(header.size());
+        for (String name : header) {
+            setters.add(CSV_COLUMNS.get(name.trim().toLowerCase(Locale.ROOT)));
+        }
+        return new RowSource() {
+            @Override
+            public Row next() throws IOException {
+                List<String> fields;
+                do {
+                    try {
+                        fields = csv.next();
+                    } catch (IllegalArgumentException ex) {
+                        // The reader cannot resynchronise after a broken quote.
+                        throw new StopImport(ex.getMessage());
+                    }
+                    if (fields == null) {
+                        return null;
+                    }
+                } while (fields.size() == 1 && fields.get(0).isBlank());
+                ComplaintRequest request = new ComplaintRequest();
+                for (int i = 0; i < fields.size() && i < setters.size(); i++) {
+                    String value = fields.get(i).trim();
+                    if (value.startsWith("'") && ComplaintExportService.startsLikeFormula(value.substring(1))) {
+                        // Undo the formula guard added by the CSV export.
+                        value = value.substring(1);
+                    }
+                    if (setters.get(i) != null && !value.isEmpty()) {
+                        setters.get(i).accept(request, value);
+                    }
+                }
+                return new Row(csv.recordLine(), request);
+            }
+
+            @Override
+            public long line() {
+                return csv.recordLine();
+            }
+        };
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        return new RowSource() {
+            private long line;
+
+            @Override
+            public Row next() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    line++;
+                } while (text.isBlank());
+                try {
+                    return new Row(line, jsonMapper.readValue(text, ComplaintRequest.class));
+                } catch (Exception ex) {
+                    throw new IllegalArgumentException("Malformed JSON: " + rootMessage(ex));
+                }
+            }
+
+            @Override
+            public long line() {
+                return line;
+            }
+        };
+    }
+
+    private static RowSource emptySource() {
+        return new RowSource() {
+            @Override
+            public Row next() {
+                return null;
+            }
+
+            @Override
+            public long line() {
+                return 0;
+            }
+        };
+    }
+
+    private String validate(ComplaintRequest request) {
+        Set<ConstraintViolation<ComplaintRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void fail(ComplaintImportReport report, long line, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < maxErrors) {
+            report.getErrors().add(new ComplaintImportReport.RowError(line, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    // Accepts ISO-8601 with either 'T' or a space between date and time.
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value.replace(' ', 'T'));
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("incidentAt is not an ISO-8601 date-time: " + value);
+        }
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable root = ex;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static final class StopImport extends RuntimeException {
+        private StopImport(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.railway.backend.service;
+
+import com.railway.backend.util.TextFingerprint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-process inverted index with BM25 ranking, used where the database has no full-text search of its own (H2).
+// Postings are term -> (complaint id -> term frequency); filter fields are kept per document so filtered pages and
+// totals never go back to the database.
+public class ComplaintSearchIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "were", "be", "been", "am", "in", "on", "at", "of", "to", "for",
+            "and", "or", "but", "my", "me", "we", "our", "it", "its", "this", "that", "there", "here", "from", "with",
+            "by", "has", "have", "had", "very", "please");
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    private record Doc(int length, String stationKey, String department, List<String> terms) {
+    }
+
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    private record Scored(long id, double score) {
+    }
+
+    public void add(Long id, String text, String stationKey, String department) {
+        List<String> terms = analyze(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            docs.put(id, new Doc(terms.size(), stationKey, normalizeDepartment(department),
+                    List.copyOf(frequencies.keySet())));
+            totalLength += terms.size();
+            frequencies.forEach((term, count) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(id, count));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void departmentChanged(Long id, String department) {
+        lock.writeLock().lock();
+        try {
+            Doc doc = docs.get(id);
+            if (doc != null) {
+                docs.put(id, new Doc(doc.length(), doc.stationKey(), normalizeDepartment(department), doc.terms()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match, like websearch_to_tsquery on Postgres (its "or", "-" and quoted-phrase operators
+    // are not supported here). Ranked by BM25, ties broken by newest first. Filters are exact matches on the
+    // normalized station key and the department (case-insensitive); null means no filter.
+    public Hits search(String query, String stationKey, String department, int offset, int limit) {
+        List<String> terms = analyze(query).stream().distinct().toList();
+        if (terms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        String departmentFilter = normalizeDepartment(department);
+        List<Scored> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Integer>> termPostings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting == null) {
+                    return new Hits(List.of(), 0);
+                }
+                termPostings.add(posting);
+            }
+            // Walk the rarest term's postings and probe the others.
+            Map<Long, Integer> rarest = termPostings.stream().min(Comparator.comparingInt(Map::size)).orElseThrow();
+            double averageLength = Math.max(1.0, (double) totalLength / docs.size());
+            rarest.keySet().forEach(id -> {
+                Doc doc = docs.get(id);
+                if ((stationKey != null && !stationKey.equals(doc.stationKey()))
+                        || (departmentFilter != null && !departmentFilter.equals(doc.department()))) {
+                    return;
+                }
+                double score = 0;
+                for (Map<Long, Integer> posting : termPostings) {
+                    Integer frequency = posting.get(id);
+                    if (frequency == null) {
+                        return;
+                    }
+                    double idf = Math.log(1 + (docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+                    double norm = frequency + K1 * (1 - B + B * doc.length() / averageLength);
+                    score += idf * frequency * (K1 + 1) / norm;
+                }
+                matches.add(new Scored(id, score));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort((a, b) -> a.score() != b.score()
+                ? Double.compare(b.score(), a.score())
+                : Long.compare(b.id(), a.id()));
+        List<Long> page = matches.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Scored::id)
+                .toList();
+        return new Hits(page, matches.size());
+    }
+
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty() || STOP_WORDS.contains(token)) {
+                continue;
+            }
+            terms.add(TextFingerprint.stem(token));
+        }
+        return terms;
+    }
+
+    private void removeLocked(Long id) {
+        Doc doc = docs.remove(id);
+        if (doc == null) {
+            return;
+        }
+        totalLength -= doc.length();
+        for (String term : doc.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static String normalizeDepartment(String department) {
+        if (department == null || department.isBlank()) {
+            return null;
+        }
+        return department.trim().toLowerCase(Locale.ROOT);
+    }
+}
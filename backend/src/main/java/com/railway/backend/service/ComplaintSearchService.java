@@ -0,0 +1,128 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+// Full-text complaint search. On PostgreSQL it queries a stored, generated tsvector through a GIN index; on any other
+// database (H2 in dev) it keeps an in-process BM25 index current from the write paths.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComplaintSearchService {
+    // The generated column is maintained by PostgreSQL on every insert/update of complaint_text.
+    public static final List<String> POSTGRES_SCHEMA = List.of(
+            """
+            ALTER TABLE complaints ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (to_tsvector('english', coalesce(complaint_text, ''))) STORED""",
+            "CREATE INDEX IF NOT EXISTS idx_complaints_search_vector ON complaints USING GIN (search_vector)");
+    private static final int BUILD_BATCH = 1000;
+
+    private final ComplaintRepository complaintRepository;
+    private final DataSource dataSource;
+
+    private volatile boolean postgres;
+    private volatile ComplaintSearchIndex index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (product != null && product.toLowerCase(Locale.ROOT).contains("postgresql")) {
+                try (Statement statement = connection.createStatement()) {
+                    for (String ddl : POSTGRES_SCHEMA) {
+                        statement.execute(ddl);
+                    }
+                }
+                postgres = true;
+                log.info("Complaint search uses the PostgreSQL search_vector index.");
+                return;
+            }
+        } catch (Exception ex) {
+            log.warn("PostgreSQL search index setup failed; falling back to the in-process search index.", ex);
+        }
+        buildIndex();
+    }
+
+    public ComplaintSearchIndex.Hits search(String query, String station, String department, int offset, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ComplaintSearchIndex.Hits(List.of(), 0);
+        }
+        String stationKey = Complaint.stationKey(station);
+        String departmentFilter = department == null || department.isBlank() ? null : department.trim();
+        if (postgres) {
+            List<Long> ids = complaintRepository.fullTextSearchIds(query, stationKey, departmentFilter, limit, offset);
+            long total = ids.size() < limit && (offset == 0 || !ids.isEmpty())
+                    ? offset + ids.size()
+                    : complaintRepository.fullTextSearchCount(query, stationKey, departmentFilter);
+            return new ComplaintSearchIndex.Hits(ids, total);
+        }
+        ComplaintSearchIndex current = index;
+        if (current == null) {
+            return new ComplaintSearchIndex.Hits(List.of(), 0);
+        }
+        return current.search(query, stationKey, departmentFilter, offset, limit);
+    }
+
+    public void indexed(Complaint complaint) {
+        ComplaintSearchIndex current = index;
+        if (current != null) {
+            Long id = complaint.getId();
+            String text = complaint.getComplaintText();
+            String stationKey = Complaint.stationKey(complaint.getStation());
+            String department = ComplaintCounters.departmentOf(complaint.getDepartment(), complaint.getCategory());
+            AfterCommit.run(() -> current.add(id, text, stationKey, department));
+        }
+    }
+
+    public void removed(Long id) {
+        ComplaintSearchIndex current = index;
+        if (current != null) {
+            AfterCommit.run(() -> current.remove(id));
+        }
+    }
+
+    public void departmentChanged(Long id, String department) {
+        ComplaintSearchIndex current = index;
+        if (current != null) {
+            AfterCommit.run(() -> current.departmentChanged(id, department));
+        }
+    }
+
+    // The index is published before it is filled, so complaints written during the build are not missed; adds are
+    // idempotent per id.
+    private void buildIndex() {
+        ComplaintSearchIndex built = new ComplaintSearchIndex();
+        index = built;
+        try {
+            long afterId = 0;
+            while (true) {
+                List<Object[]> rows = complaintRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, BUILD_BATCH));
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    built.add(id, (String) row[1], (String) row[2],
+                            ComplaintCounters.departmentOf((String) row[3], (String) row[4]));
+                    afterId = id;
+                }
+                if (rows.size() < BUILD_BATCH) {
+                    break;
+                }
+            }
+            log.info("Complaint search index built with {} complaints.", built.size());
+        } catch (Exception ex) {
+            log.warn("Complaint search index build failed; search results will be incomplete until restart.", ex);
+        }
+    }
+}
@@ -1,147 +1,191 @@
 package com.railway.backend.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.railway.backend.ai.ComplaintClassifier;
+import com.railway.backend.ai.DepartmentKeywordMatcher;
+import com.railway.backend.dto.BulkUpdateResponse;
+import com.railway.backend.dto.ComplaintHistoryEntry;
+import com.railway.backend.dto.ComplaintPage;
 import com.railway.backend.dto.ComplaintRequest;
 import com.railway.backend.dto.ComplaintResponse;
+import com.railway.backend.dto.ComplaintSearchPage;
+import com.railway.backend.dto.ComplaintStats;
+import com.railway.backend.dto.ComplaintSummary;
 import com.railway.backend.dto.StatusUpdateRequest;
 import com.railway.backend.entity.Complaint;
 import com.railway.backend.entity.ComplaintHistory;
 import com.railway.backend.entity.User;
+import com.railway.backend.repository.ComplaintFilter;
 import com.railway.backend.repository.ComplaintHistoryRepository;
 import com.railway.backend.repository.ComplaintRepository;
+import com.railway.backend.repository.ComplaintSpecifications;
 import com.railway.backend.repository.UserRepository;
+import com.railway.backend.util.ComplaintCursor;
+import com.railway.backend.util.TextFingerprint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ComplaintService {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private final ComplaintRepository complaintRepository;
     private final ComplaintHistoryRepository complaintHistoryRepository;
     private final UserRepository userRepository;
+    private final UserLookupService userLookupService;
     private final KafkaTemplate<String, Long> kafkaTemplate;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ComplaintEnrichmentService complaintEnrichmentService;
+    private final DepartmentKeywordMatcher departmentKeywordMatcher;
+    private final ComplaintCounters complaintCounters;
+    private final ComplaintClusterIndex complaintClusterIndex;
+    private final DuplicateComplaintIndex duplicateComplaintIndex;
+    private final ComplaintSearchService complaintSearchService;
+    private final ComplaintEventHub complaintEventHub;
+    private final ComplaintVersions complaintVersions;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.kafka.enabled:false}")
     private boolean kafkaEnabled;
-    @Value("${app.ai.enabled:true}")
-    private boolean aiEnabled;
-    @Value("${app.ai.classifier-url:https://midhun-2542-railwaymodel.hf.space/classify}")
-    private String aiClassifierUrl;
-
-    public List<ComplaintResponse> getAllComplaints(Authentication auth) {
+    @Value("${app.complaints.page.default-size:100}")
+    private int defaultPageSize;
+    @Value("${app.complaints.page.max-size:500}")
+    private int maxPageSize;
+    @Value("${app.complaints.history.max-batch:200}")
+    private int maxHistoryBatch;
+    @Value("${app.complaints.bulk.max-ids:200}")
+    private int maxBulkIds;
+
+    public ComplaintPage getAllComplaints(Authentication auth, ComplaintFilter filter, String cursor, Integer limit) {
         if (auth != null) {
             String username = auth.getName();
-            User user = userRepository.findByUsername(username).orElse(null);
+            User user = userLookupService.findByUsername(username).orElse(null);
             if (isPassenger(user)) {
-                String passengerIdentity = resolvePassengerDisplayName(user);
-                String legacyIdentity = resolvePassengerLegacyName(user);
-                return Stream.concat(
-                                complaintRepository.findByPassengerNameIgnoreCaseOrderByUrgencyScoreDesc(passengerIdentity).stream(),
-                                complaintRepository.findByPassengerNameIgnoreCaseOrderByUrgencyScoreDesc(legacyIdentity).stream())
-                        .collect(Collectors.toMap(Complaint::getId, c -> c, (left, right) -> left))
-                        .values().stream()
-                        .sorted((a, b) -> Integer.compare(
-                                b.getUrgencyScore() != null ? b.getUrgencyScore() : 0,
-                                a.getUrgencyScore() != null ? a.getUrgencyScore() : 0))
-                        .map(this::toResponse)
-                        .collect(Collectors.toList());
+                return page(ComplaintSpecifications.passengerNameIgnoreCaseIn(
+                        resolvePassengerDisplayName(user), resolvePassengerLegacyName(user)), filter, cursor, limit);
             }
         }
-        return complaintRepository.findAllByOrderByUrgencyScoreDesc().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return page(ComplaintSpecifications.all(), filter, cursor, limit);
     }
 
-    public List<ComplaintResponse> getMyComplaints(Authentication auth) {
+    public ComplaintPage getMyComplaints(Authentication auth, ComplaintFilter filter, String cursor, Integer limit) {
         if (auth == null || auth.getName() == null || auth.getName().isBlank()) {
-            return List.of();
+            return new ComplaintPage(List.of(), null);
         }
 
         String username = auth.getName();
-        List<Complaint> mine = complaintRepository.findByCreatedByUsernameOrderByUrgencyScoreDesc(username);
-        if (!mine.isEmpty()) {
-            return mine.stream().map(this::toResponse).collect(Collectors.toList());
+        if (complaintRepository.existsByCreatedByUsername(username)) {
+            return page(ComplaintSpecifications.createdBy(username), filter, cursor, limit);
         }
 
         // Backward compatibility for legacy complaints created before ownership tracking.
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        List<Complaint> legacy = new ArrayList<>(complaintRepository.findByPassengerNameIgnoreCaseOrderByUrgencyScoreDesc(username));
-        if (userOpt.isPresent()) {
-            String fullName = userOpt.get().getFullName();
-            if (fullName != null && !fullName.isBlank() && !fullName.equalsIgnoreCase(username)) {
-                legacy.addAll(complaintRepository.findByPassengerNameIgnoreCaseOrderByUrgencyScoreDesc(fullName));
-            }
-        }
-
-        return legacy.stream()
-                .collect(Collectors.toMap(Complaint::getId, c -> c, (a, b) -> a))
-                .values().stream()
-                .sorted((a, b) -> Integer.compare(
-                        b.getUrgencyScore() == null ? 0 : b.getUrgencyScore(),
-                        a.getUrgencyScore() == null ? 0 : a.getUrgencyScore()))
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        String fullName = userLookupService.findByUsername(username)
+                .map(User::getFullName)
+                .filter(name -> !name.isBlank())
+                .orElse(null);
+        return page(ComplaintSpecifications.passengerNameIgnoreCaseIn(username, fullName), filter, cursor, limit);
     }
 
-    public List<ComplaintResponse> getComplaintsByAssignedTo(String assignedTo) {
-        return complaintRepository.findByAssignedTo(assignedTo).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public ComplaintPage getComplaintsByAssignedTo(String assignedTo, ComplaintFilter filter, String cursor, Integer limit) {
+        return page(ComplaintSpecifications.assignedTo(assignedTo), filter, cursor, limit);
     }
 
     @Transactional
     public ComplaintResponse assignComplaint(Long id, String staffName, String remarks) {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
+        ComplaintCounters.Key before = ComplaintCounters.Key.of(complaint);
+        // The previous assignee's queue loses the complaint, so it hears about the change too.
+        Set<String> topics = ComplaintEventHub.topicsOf(complaint);
+        Set<String> scopes = ComplaintVersions.scopesOf(complaint);
         complaint.setAssignedTo(staffName);
         if (remarks != null && !remarks.isBlank())
             complaint.setRemarks(remarks);
         if ("PENDING".equals(complaint.getStatus()))
             complaint.setStatus("IN_PROGRESS");
-        return toResponse(complaintRepository.save(complaint));
+        Complaint saved = complaintRepository.save(complaint);
+        complaintCounters.moved(before, ComplaintCounters.Key.of(saved));
+        scopes.addAll(ComplaintVersions.scopesOf(saved));
+        complaintVersions.touch(scopes);
+        ComplaintResponse response = toResponse(saved);
+        topics.addAll(ComplaintEventHub.topicsOf(saved));
+        complaintEventHub.publish(ComplaintEventHub.ASSIGNED, response, topics);
+        return response;
     }
 
-    public List<ComplaintResponse> getComplaintsByStation(String station) {
+    public ComplaintPage getComplaintsByStation(String station, ComplaintFilter filter, String cursor, Integer limit) {
         if (station == null || station.isBlank()) {
-            return complaintRepository.findAllByOrderByUrgencyScoreDesc().stream()
-                    .map(this::toResponse)
-                    .collect(Collectors.toList());
+            return page(ComplaintSpecifications.all(), filter, cursor, limit);
         }
-        return complaintRepository.findByStationContext(station.trim()).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        // The union query serves the plain station view; filtered views take the single-query form.
+        if (!filter.isEmpty()) {
+            return page(ComplaintSpecifications.stationContext(station), filter, cursor, limit);
+        }
+        int size = pageSize(limit);
+        ComplaintCursor.Keys after = ComplaintCursor.keys(cursor);
+        List<Long> ids = complaintRepository.findStationContextPageIds(
+                Complaint.stationKey(station), after.urgencyScore(), after.id(), size + 1);
+        return toPage(inOrder(ids, complaintRepository.findSummariesByIds(ids)), size);
     }
 
-    public List<ComplaintResponse> getComplaintsByDepartment(String department) {
-        return complaintRepository.findByDepartment(department).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public ComplaintPage getComplaintsByDepartment(String department, ComplaintFilter filter, String cursor, Integer limit) {
+        return page(ComplaintSpecifications.department(department), filter, cursor, limit);
+    }
+
+    // Tile counts for a dashboard scope: optionally one station's context and/or one assignee.
+    public ComplaintStats getStats(String station, String assignedTo, ComplaintFilter filter) {
+        Specification<Complaint> spec = ComplaintSpecifications.matching(filter);
+        if (station != null && !station.isBlank()) {
+            spec = spec.and(ComplaintSpecifications.stationContext(station));
+        }
+        if (assignedTo != null && !assignedTo.isBlank()) {
+            spec = spec.and(ComplaintSpecifications.assignedTo(assignedTo));
+        }
+        return complaintRepository.countSummaries(spec, LocalDate.now().atStartOfDay());
+    }
+
+    public ComplaintSearchPage searchComplaints(String query, String station, String department, Integer page, Integer limit) {
+        int size = pageSize(limit);
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        ComplaintSearchIndex.Hits hits = complaintSearchService.search(query, station, department, pageNumber * size, size);
+        List<ComplaintSummary> items = inOrder(hits.ids(), complaintRepository.findSummariesByIds(hits.ids()));
+        return new ComplaintSearchPage(withDepartments(items), pageNumber, size, hits.total());
+    }
+
+    // Full detail for one complaint; passengers only see their own.
+    public ComplaintResponse getComplaint(Long id, Authentication auth) {
+        Complaint complaint = complaintRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Complaint not found"));
+        User user = auth == null ? null : userLookupService.findByUsername(auth.getName()).orElse(null);
+        if (isPassenger(user) && !isOwnComplaint(complaint, user)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Complaint not found");
+        }
+        return toResponse(complaint);
     }
 
     public ComplaintResponse createComplaint(ComplaintRequest request, Authentication auth) {
@@ -155,7 +199,7 @@ public class ComplaintService {
 
         if (auth != null && auth.getName() != null) {
             createdByUsername = auth.getName();
-            user = userRepository.findByUsername(createdByUsername).orElse(null);
+            user = userLookupService.findByUsername(createdByUsername).orElse(null);
             station = user != null ? normalizeName(user.getStation()) : null;
             if (isPassenger(user)) {
                 passengerName = resolvePassengerDisplayName(user);
@@ -181,8 +225,37 @@ public class ComplaintService {
                 .aiMetadata(null)
                 .build();
 
-        enrichWithAi(complaint);
-        Complaint saved = complaintRepository.save(complaint);
+        int[] signature = TextFingerprint.signature(complaint.getComplaintText());
+        complaint.setTextSignature(TextFingerprint.toBytes(signature));
+        String scope = DuplicateComplaintIndex.scopeOf(complaint);
+        Complaint parent = duplicateComplaintIndex.findParent(scope, signature)
+                .flatMap(complaintRepository::findById)
+                .orElse(null);
+        if (parent != null) {
+            linkToParent(complaint, parent);
+        } else {
+            applyKeywordClassification(complaint);
+            complaint.setAiStatus(complaintEnrichmentService.initialStatus(complaint));
+        }
+        // The counters take the new row as this transaction commits; see ComplaintCounters.
+        Complaint saved = transactionTemplate.execute(status -> {
+            Complaint row = complaintRepository.save(complaint);
+            complaintCounters.added(row);
+            return row;
+        });
+        complaintVersions.touch(saved);
+        complaintClusterIndex.added(saved);
+        complaintSearchService.indexed(saved);
+        ComplaintResponse response = toResponse(saved);
+        complaintEventHub.publish(ComplaintEventHub.CREATED, response, ComplaintEventHub.topicsOf(saved));
+        if (parent != null) {
+            // Classified along with the parent; see ComplaintEnrichmentService.
+            return response;
+        }
+        duplicateComplaintIndex.registerParent(scope, saved.getId(), signature);
+        if (saved.getAiStatus() != null) {
+            complaintEnrichmentService.submit(saved.getId());
+        }
         if (kafkaEnabled) {
             try {
                 kafkaTemplate.send("complaint-classification", saved.getId());
@@ -190,7 +263,32 @@ public class ComplaintService {
                 log.warn("Kafka publish failed for complaint id {}. Complaint is saved; AI enrichment deferred.", saved.getId(), ex);
             }
         }
-        return toResponse(saved);
+        return response;
+    }
+
+    // A call-center row shaped like an app submission, without the per-user lookups, duplicate linking or live events.
+    // The AI status is left PENDING so the enrichment sweep classifies imports at its own pace.
+    public Complaint newImportedComplaint(ComplaintRequest request, String importedBy) {
+        String category = (request.getCategory() == null || request.getCategory().isBlank())
+                ? "GENERAL"
+                : request.getCategory().trim();
+        Complaint complaint = Complaint.builder()
+                .passengerName(normalizeName(request.getPassengerName()))
+                .passengerPhone(normalizePhone(request.getPassengerPhone()))
+                .createdByUsername(importedBy)
+                .complaintText(request.getComplaintText())
+                .trainNumber(request.getTrainNumber())
+                .incidentAt(request.getIncidentAt())
+                .category(category)
+                .status("PENDING")
+                .urgencyScore(0)
+                .previousStation(normalizeName(request.getPreviousStation()))
+                .nextStation(normalizeName(request.getNextStation()))
+                .build();
+        complaint.setTextSignature(TextFingerprint.toBytes(TextFingerprint.signature(complaint.getComplaintText())));
+        applyKeywordClassification(complaint);
+        complaint.setAiStatus(complaintEnrichmentService.initialStatus(complaint));
+        return complaint;
     }
 
     @Transactional
@@ -198,7 +296,8 @@ public class ComplaintService {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
         String oldStatus = complaint.getStatus();
-        User user = userRepository.findByUsername(auth.getName()).orElseThrow();
+        ComplaintCounters.Key before = ComplaintCounters.Key.of(complaint);
+        User user = userLookupService.findByUsername(auth.getName()).orElseThrow();
 
         complaint.setStatus(request.getNewStatus());
         if ("RESOLVED".equalsIgnoreCase(request.getNewStatus())) {
@@ -210,14 +309,130 @@ public class ComplaintService {
         }
 
         Complaint updated = complaintRepository.save(complaint);
+        complaintCounters.moved(before, ComplaintCounters.Key.of(updated));
+        complaintVersions.touch(updated);
         ComplaintHistory history = ComplaintHistory.builder()
                 .complaint(complaint)
                 .oldStatus(oldStatus)
                 .newStatus(request.getNewStatus())
-                .updatedBy(user)
+                .updatedBy(userRepository.getReferenceById(user.getId()))
                 .build();
         complaintHistoryRepository.save(history);
-        return toResponse(updated);
+        ComplaintResponse response = toResponse(updated);
+        complaintEventHub.publish(ComplaintEventHub.STATUS_CHANGED, response, ComplaintEventHub.topicsOf(updated));
+        return response;
+    }
+
+    // Shift handovers: one user lookup, one read of the current rows, one set-based UPDATE and batched history inserts,
+    // however many complaints are in the request.
+    @Transactional
+    public BulkUpdateResponse bulkUpdateStatus(Collection<Long> ids, String newStatus, Authentication auth) {
+        checkBulkSize(ids);
+        User user = userLookupService.findByUsername(auth.getName()).orElseThrow();
+        List<Complaint> complaints = complaintRepository.findAllById(ids);
+        if (complaints.isEmpty()) {
+            return new BulkUpdateResponse(List.of(), List.copyOf(ids));
+        }
+        boolean resolved = "RESOLVED".equalsIgnoreCase(newStatus);
+        String resolvedBy = resolved ? resolveUserDisplayName(user) : null;
+        String resolvedByRole = resolved ? user.getRole() : null;
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> found = complaints.stream().map(Complaint::getId).toList();
+        complaintRepository.bulkUpdateStatus(found, newStatus, resolvedBy, resolvedByRole, now);
+
+        // The update cleared the persistence context, so the loaded copies are detached and can be brought in line
+        // for counters and subscribers without another write.
+        User actor = userRepository.getReferenceById(user.getId());
+        List<ComplaintHistory> history = new ArrayList<>(complaints.size());
+        Set<String> scopes = new HashSet<>();
+        for (Complaint complaint : complaints) {
+            scopes.addAll(ComplaintVersions.scopesOf(complaint));
+            ComplaintCounters.Key before = ComplaintCounters.Key.of(complaint);
+            history.add(ComplaintHistory.builder()
+                    .complaint(complaintRepository.getReferenceById(complaint.getId()))
+                    .oldStatus(complaint.getStatus())
+                    .newStatus(newStatus)
+                    .updatedBy(actor)
+                    .build());
+            complaint.setStatus(newStatus);
+            complaint.setResolvedBy(resolvedBy);
+            complaint.setResolvedByRole(resolvedByRole);
+            complaint.setUpdatedAt(now);
+            complaintCounters.moved(before, ComplaintCounters.Key.of(complaint));
+            complaintEventHub.publish(ComplaintEventHub.STATUS_CHANGED, toResponse(complaint),
+                    ComplaintEventHub.topicsOf(complaint));
+        }
+        complaintHistoryRepository.saveAll(history);
+        complaintVersions.touch(scopes);
+        return new BulkUpdateResponse(found, missing(ids, found));
+    }
+
+    @Transactional
+    public BulkUpdateResponse bulkAssign(Collection<Long> ids, String staffName, String remarks) {
+        checkBulkSize(ids);
+        List<Complaint> complaints = complaintRepository.findAllById(ids);
+        if (complaints.isEmpty()) {
+            return new BulkUpdateResponse(List.of(), List.copyOf(ids));
+        }
+        String newRemarks = remarks == null || remarks.isBlank() ? null : remarks;
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> found = complaints.stream().map(Complaint::getId).toList();
+        complaintRepository.bulkAssign(found, staffName, newRemarks, now);
+
+        Set<String> scopes = new HashSet<>();
+        for (Complaint complaint : complaints) {
+            ComplaintCounters.Key before = ComplaintCounters.Key.of(complaint);
+            Set<String> topics = ComplaintEventHub.topicsOf(complaint);
+            scopes.addAll(ComplaintVersions.scopesOf(complaint));
+            complaint.setAssignedTo(staffName);
+            if (newRemarks != null)
+                complaint.setRemarks(newRemarks);
+            if ("PENDING".equals(complaint.getStatus()))
+                complaint.setStatus("IN_PROGRESS");
+            complaint.setUpdatedAt(now);
+            complaintCounters.moved(before, ComplaintCounters.Key.of(complaint));
+            topics.addAll(ComplaintEventHub.topicsOf(complaint));
+            scopes.addAll(ComplaintVersions.scopesOf(complaint));
+            complaintEventHub.publish(ComplaintEventHub.ASSIGNED, toResponse(complaint), topics);
+        }
+        complaintVersions.touch(scopes);
+        return new BulkUpdateResponse(found, missing(ids, found));
+    }
+
+    // Passengers only see the timeline of their own complaints, as with getComplaint.
+    public List<ComplaintHistoryEntry> getHistory(Long id, Authentication auth) {
+        User user = auth == null ? null : userLookupService.findByUsername(auth.getName()).orElse(null);
+        if (isPassenger(user)) {
+            Complaint complaint = complaintRepository.findById(id)
+                    .filter(found -> isOwnComplaint(found, user))
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Complaint not found"));
+            return complaintHistoryRepository.findTimeline(complaint.getId());
+        }
+        return complaintHistoryRepository.findTimeline(id);
+    }
+
+    // One statement for all requested complaints; every requested id is present, with an empty list if it has no history.
+    // A passenger gets empty lists for complaints that are not theirs.
+    public Map<Long, List<ComplaintHistoryEntry>> getHistories(Collection<Long> ids, Authentication auth) {
+        if (ids.size() > maxHistoryBatch) {
+            throw new IllegalArgumentException("At most " + maxHistoryBatch + " complaint ids per request");
+        }
+        Map<Long, List<ComplaintHistoryEntry>> timelines = new LinkedHashMap<>();
+        ids.forEach(id -> timelines.put(id, new ArrayList<>()));
+        Collection<Long> visible = ids;
+        User user = auth == null ? null : userLookupService.findByUsername(auth.getName()).orElse(null);
+        if (isPassenger(user)) {
+            visible = complaintRepository.findAllById(ids).stream()
+                    .filter(complaint -> isOwnComplaint(complaint, user))
+                    .map(Complaint::getId)
+                    .toList();
+        }
+        if (!visible.isEmpty()) {
+            for (ComplaintHistoryEntry entry : complaintHistoryRepository.findTimelines(visible)) {
+                timelines.get(entry.getComplaintId()).add(entry);
+            }
+        }
+        return timelines;
     }
 
     @Transactional
@@ -225,7 +440,9 @@ public class ComplaintService {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
         complaint.setRemarks(remarks);
-        return toResponse(complaintRepository.save(complaint));
+        Complaint saved = complaintRepository.save(complaint);
+        complaintVersions.touch(saved);
+        return toResponse(saved);
     }
 
     @Transactional
@@ -234,7 +451,7 @@ public class ComplaintService {
             throw new AccessDeniedException("Only super admin can delete complaints");
         }
 
-        User actor = userRepository.findByUsername(auth.getName())
+        User actor = userLookupService.findByUsername(auth.getName())
                 .orElseThrow(() -> new AccessDeniedException("Only super admin can delete complaints"));
 
         String role = actor.getRole() == null ? "" : actor.getRole().trim().toUpperCase(Locale.ROOT);
@@ -245,14 +462,78 @@ public class ComplaintService {
         Complaint complaint = complaintRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Complaint not found"));
         complaintHistoryRepository.deleteByComplaintId(id);
+        // Duplicates of a deleted parent become standalone and are classified by the recovery sweep.
+        complaintRepository.detachDuplicates(id);
         complaintRepository.delete(complaint);
+        duplicateComplaintIndex.forget(DuplicateComplaintIndex.scopeOf(complaint), id);
+        complaintCounters.removed(complaint);
+        complaintVersions.touch(complaint);
+        complaintClusterIndex.removed(complaint.getId());
+        complaintSearchService.removed(complaint.getId());
+    }
+
+    private void checkBulkSize(Collection<Long> ids) {
+        if (ids.size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " complaint ids per request");
+        }
     }
 
-    private ComplaintResponse toResponse(Complaint complaint) {
+    private static List<Long> missing(Collection<Long> requested, List<Long> found) {
+        Set<Long> present = new HashSet<>(found);
+        return requested.stream().filter(id -> !present.contains(id)).toList();
+    }
+
+    private ComplaintPage page(Specification<Complaint> spec, ComplaintFilter filter, String cursor, Integer limit) {
+        int size = pageSize(limit);
+        return toPage(complaintRepository.findSummaries(spec.and(ComplaintSpecifications.matching(filter)),
+                ComplaintCursor.keys(cursor), size + 1), size);
+    }
+
+    // Rows holds up to size + 1 summaries; the extra one only signals that another page follows.
+    private ComplaintPage toPage(List<ComplaintSummary> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<ComplaintSummary> items = withDepartments(hasNext ? rows.subList(0, size) : rows);
+        String nextCursor = null;
+        if (hasNext) {
+            ComplaintSummary last = items.get(items.size() - 1);
+            nextCursor = ComplaintCursor.encode(last.getUrgencyScore(), last.getId());
+        }
+        return new ComplaintPage(items, nextCursor);
+    }
+
+    private static List<ComplaintSummary> inOrder(List<Long> ids, List<ComplaintSummary> rows) {
+        Map<Long, ComplaintSummary> byId = new HashMap<>();
+        rows.forEach(row -> byId.put(row.getId(), row));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    // Same department fallback as toResponse.
+    private List<ComplaintSummary> withDepartments(List<ComplaintSummary> rows) {
+        for (ComplaintSummary row : rows) {
+            if (needsInferredDepartment(row.getDepartment())) {
+                String department = departmentKeywordMatcher.inferDepartment(row.getComplaintText());
+                row.setDepartment(department);
+                if (department != null) {
+                    row.setCategory(department);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static boolean needsInferredDepartment(String department) {
+        return department == null || department.isBlank() || "GENERAL".equalsIgnoreCase(department);
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    ComplaintResponse toResponse(Complaint complaint) {
         ComplaintResponse resp = new ComplaintResponse();
         String department = complaint.getDepartment();
-        if (department == null || department.isBlank() || "GENERAL".equalsIgnoreCase(department) || "General".equalsIgnoreCase(department)) {
-            department = inferDepartmentFromText(complaint.getComplaintText());
+        if (needsInferredDepartment(department)) {
+            department = departmentKeywordMatcher.inferDepartment(complaint.getComplaintText());
         }
 
         resp.setId(complaint.getId());
@@ -273,103 +554,31 @@ public class ComplaintService {
         resp.setResolvedBy(complaint.getResolvedBy());
         resp.setResolvedByRole(complaint.getResolvedByRole());
         resp.setAiMetadata(complaint.getAiMetadata());
+        resp.setParentComplaintId(complaint.getParentComplaintId());
         resp.setCreatedAt(complaint.getCreatedAt());
         resp.setUpdatedAt(complaint.getUpdatedAt());
         return resp;
     }
 
-    private void enrichWithAi(Complaint complaint) {
-        if (!aiEnabled || complaint.getComplaintText() == null || complaint.getComplaintText().isBlank()) {
-            return;
-        }
-
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            Map<String, String> requestBody = Map.of("text", complaint.getComplaintText());
-            HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
-
-            String responseBody = restTemplate.postForObject(URI.create(aiClassifierUrl), request, String.class);
-            if (responseBody == null || responseBody.isBlank()) {
-                return;
-            }
-
-            Map<String, Object> payload = objectMapper.readValue(responseBody, new TypeReference<Map<String, Object>>() {
-            });
-            String department = extractDepartment(payload);
-            String priority = extractPriority(payload);
-            Integer urgencyScore = mapPriorityToUrgency(priority);
-
-            if (department != null && !department.isBlank()) {
-                complaint.setDepartment(department);
-                complaint.setCategory(department);
-            }
-            complaint.setUrgencyScore(urgencyScore);
-
-            Map<String, Object> metadata = new HashMap<>();
-            metadata.put("classifierUrl", aiClassifierUrl);
-            metadata.put("raw", payload);
-            metadata.put("department", department);
-            metadata.put("priority", priority);
-            metadata.put("urgencyScore", urgencyScore);
-            complaint.setAiMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (RestClientException ex) {
-            log.warn("AI service unavailable for complaint classification. Continuing without enrichment.", ex);
-        } catch (Exception ex) {
-            log.warn("AI enrichment failed due to unexpected response format. Continuing without enrichment.", ex);
-        }
-
-        if (complaint.getDepartment() == null || complaint.getDepartment().isBlank()
-                || "GENERAL".equalsIgnoreCase(complaint.getDepartment())
-                || "General".equalsIgnoreCase(complaint.getDepartment())) {
-            String inferredDepartment = inferDepartmentFromText(complaint.getComplaintText());
-            complaint.setDepartment(inferredDepartment);
-            complaint.setCategory(inferredDepartment);
-            if (complaint.getUrgencyScore() == null || complaint.getUrgencyScore() <= 0) {
-                complaint.setUrgencyScore(mapPriorityToUrgency(inferPriorityFromDepartment(inferredDepartment)));
-            }
-        }
+    // Reuses the parent's classification; a parent still waiting on the classifier passes its result on later.
+    private void linkToParent(Complaint complaint, Complaint parent) {
+        complaint.setParentComplaintId(parent.getId());
+        complaint.setDepartment(parent.getDepartment());
+        complaint.setCategory(parent.getCategory());
+        complaint.setUrgencyScore(parent.getUrgencyScore());
+        complaint.setAiMetadata(parent.getAiMetadata());
+        complaint.setAiStatus(parent.getAiStatus());
     }
 
-    private String extractDepartment(Map<String, Object> payload) {
-        Object department = payload.get("department");
-        if (department instanceof String value && !value.isBlank()) {
-            return value.trim();
-        }
-
-        Object category = payload.get("category");
-        if (category == null) {
-            return null;
-        }
-
-        String label = category.toString().trim();
-        try {
-            int idx = Integer.parseInt(label);
-            return mapCategoryIndexToDepartment(idx);
-        } catch (NumberFormatException ignored) {
-            return label.isBlank() ? null : label;
+    private void applyKeywordClassification(Complaint complaint) {
+        String inferredDepartment = departmentKeywordMatcher.inferDepartment(complaint.getComplaintText());
+        complaint.setDepartment(inferredDepartment);
+        complaint.setCategory(inferredDepartment);
+        if (complaint.getUrgencyScore() == null || complaint.getUrgencyScore() <= 0) {
+            complaint.setUrgencyScore(ComplaintClassifier.urgencyForPriority(inferPriorityFromDepartment(inferredDepartment)));
         }
     }
 
-    private String extractPriority(Map<String, Object> payload) {
-        Object priority = payload.get("priority");
-        if (priority instanceof String value && !value.isBlank()) {
-            return value.trim().toLowerCase();
-        }
-        return null;
-    }
-
-    private Integer mapPriorityToUrgency(String priority) {
-        if ("high".equals(priority)) {
-            return 95;
-        }
-        if ("medium".equals(priority)) {
-            return 70;
-        }
-        return 35;
-    }
-
     private String inferPriorityFromDepartment(String department) {
         if (department == null) {
             return "low";
@@ -381,67 +590,6 @@ public class ComplaintService {
         };
     }
 
-    private String inferDepartmentFromText(String text) {
-        if (text == null || text.isBlank()) {
-            return "General";
-        }
-        String normalized = text.toLowerCase();
-
-        if (containsAny(normalized, "security", "theft", "steal", "snatch", "rob", "fight", "harass", "unsafe", "police", "rpf", "sos")) {
-            return "Security";
-        }
-        if (containsAny(normalized, "medical", "doctor", "ambulance", "heart attack", "injury", "blood", "faint", "poison")) {
-            return "Medical";
-        }
-        if (containsAny(normalized, "water", "no water", "drinking", "tap", "toilet water")) {
-            return "Water";
-        }
-        if (containsAny(normalized, "clean", "dirty", "toilet", "restroom", "sanitation", "garbage", "smell")) {
-            return "Cleanliness";
-        }
-        if (containsAny(normalized, "food", "catering", "meal", "vendor")) {
-            return "Catering";
-        }
-        if (containsAny(normalized, "light", "fan", "charging", "socket", "electric", "power")) {
-            return "Electrical";
-        }
-        if (containsAny(normalized, "coach", "berth", "seat", "window", "door", "ac")) {
-            return "Coach";
-        }
-        if (containsAny(normalized, "ticket", "refund", "pnr", "reservation", "booking")) {
-            return "Ticketing";
-        }
-        if (containsAny(normalized, "repair", "maintenance", "broken", "damage", "leak")) {
-            return "Maintenance";
-        }
-        return "General";
-    }
-
-    private boolean containsAny(String text, String... keywords) {
-        for (String keyword : keywords) {
-            if (text.contains(keyword)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private String mapCategoryIndexToDepartment(int index) {
-        return switch (index) {
-            case 0 -> "Catering";
-            case 1 -> "Cleanliness";
-            case 2 -> "Coach";
-            case 3 -> "Electrical";
-            case 4 -> "General";
-            case 5 -> "Maintenance";
-            case 6 -> "Medical";
-            case 7 -> "Security";
-            case 8 -> "Ticketing";
-            case 9 -> "Water";
-            default -> "General";
-        };
-    }
-
     private boolean isPassenger(User user) {
         if (user == null || user.getRole() == null) {
             return false;
@@ -465,6 +613,17 @@ public class ComplaintService {
         return username.split("@")[0].trim();
     }
 
+    // Mirrors the passenger filter of getAllComplaints: owned complaints, plus legacy ones matched by name.
+    private boolean isOwnComplaint(Complaint complaint, User user) {
+        if (complaint.getCreatedByUsername() != null) {
+            return complaint.getCreatedByUsername().equals(user.getUsername());
+        }
+        String passengerName = complaint.getPassengerName();
+        return passengerName != null
+                && (passengerName.equalsIgnoreCase(resolvePassengerDisplayName(user))
+                || passengerName.equalsIgnoreCase(resolvePassengerLegacyName(user)));
+    }
+
     private String resolvePassengerLegacyName(User user) {
         if (user == null || user.getUsername() == null || user.getUsername().isBlank()) {
             return resolvePassengerDisplayName(user);
@@ -475,19 +634,19 @@ public class ComplaintService {
                 : localPart;
     }
 
-    private String normalizeName(String value) {
+    static String normalizeName(String value) {
         if (value == null) {
             return null;
         }
-        String normalized = value.trim().replaceAll("\\s+", " ");
+        String normalized = WHITESPACE.matcher(value.trim()).replaceAll(" ");
         return normalized.isBlank() ? null : normalized;
     }
 
-    private String normalizePhone(String value) {
+    static String normalizePhone(String value) {
         if (value == null) {
             return null;
         }
-        String normalized = value.trim().replaceAll("\\s+", "");
+        String normalized = WHITESPACE.matcher(value.trim()).replaceAll("");
         return normalized.isBlank() ? null : normalized;
     }
 
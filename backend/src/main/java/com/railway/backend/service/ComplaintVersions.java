@@ -0,0 +1,123 @@
+package com.railway.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.AfterCommit;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Version stamps for the complaint list views, so a dashboard poll with a matching If-None-Match can be answered 304
+// without running the list query. Every complaint write stamps each scope the complaint appears in (all, its
+// stations, department, assignee and creator) with the next value of one global sequence, after commit. Stamps only
+// grow: an evicted scope reads as the highest stamp ever evicted, which at worst forces one extra full response.
+// The epoch changes on every start, so ETags from a previous process never match.
+@Component
+public class ComplaintVersions {
+    public static final String ALL = "all";
+    // Complaints from before ownership tracking, which the "my complaints" view matches by passenger name.
+    public static final String LEGACY = "legacy";
+
+    @Value("${app.complaints.etag.max-scopes:100000}")
+    private long maxScopes;
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong evictedFloor = new AtomicLong();
+    private Cache<String, Long> stamps;
+
+    @PostConstruct
+    void start() {
+        stamps = Caffeine.newBuilder()
+                .maximumSize(maxScopes)
+                .evictionListener((String scope, Long stamp, RemovalCause cause) ->
+                        evictedFloor.accumulateAndGet(stamp, Math::max))
+                .build();
+    }
+
+    public static String station(String station) {
+        String key = Complaint.stationKey(station);
+        return key == null ? null : "station:" + key;
+    }
+
+    public static String department(String department) {
+        return department == null ? null : "department:" + department;
+    }
+
+    public static String assignee(String assignee) {
+        return assignee == null ? null : "assignee:" + assignee;
+    }
+
+    public static String creator(String username) {
+        return username == null ? null : "creator:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    // Scopes whose list views include this complaint in its current state. Department and assignee match the exact
+    // column values the list queries filter on.
+    public static Set<String> scopesOf(Complaint complaint) {
+        Set<String> scopes = new LinkedHashSet<>();
+        scopes.add(ALL);
+        add(scopes, station(complaint.getStation()));
+        add(scopes, station(complaint.getPreviousStation()));
+        add(scopes, station(complaint.getNextStation()));
+        add(scopes, department(complaint.getDepartment()));
+        add(scopes, assignee(complaint.getAssignedTo()));
+        scopes.add(complaint.getCreatedByUsername() != null ? creator(complaint.getCreatedByUsername()) : LEGACY);
+        return scopes;
+    }
+
+    public void touch(Complaint complaint) {
+        touch(scopesOf(complaint));
+    }
+
+    public void touch(Collection<String> scopes) {
+        if (scopes.isEmpty()) {
+            return;
+        }
+        Set<String> copy = Set.copyOf(scopes);
+        AfterCommit.run(() -> {
+            long stamp = sequence.incrementAndGet();
+            for (String scope : copy) {
+                stamps.asMap().merge(scope, stamp, Math::max);
+            }
+        });
+    }
+
+    // Highest stamp across the given scopes; null scopes are ignored.
+    public long stamp(String... scopes) {
+        long floor = evictedFloor.get();
+        long stamp = floor;
+        for (String scope : scopes) {
+            if (scope != null) {
+                Long value = stamps.getIfPresent(scope);
+                if (value != null && value > stamp) {
+                    stamp = value;
+                }
+            }
+        }
+        return stamp;
+    }
+
+    // Strong ETag for one rendering of a list: the scope stamp plus whatever else shapes the body (caller, cursor,
+    // page size).
+    public String etag(long stamp, Object... variant) {
+        return "\"" + epoch + "-" + Long.toString(stamp, 36) + "-"
+                + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+
+    private static void add(Set<String> scopes, String scope) {
+        if (scope != null) {
+            scopes.add(scope);
+        }
+    }
+}
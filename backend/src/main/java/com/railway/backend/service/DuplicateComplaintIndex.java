@@ -0,0 +1,139 @@
+package com.railway.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.AfterCommit;
+import com.railway.backend.util.TextFingerprint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+
+// Recent parent complaints per train (or per station when no train is given), so a burst of complaints about the
+// same coach-level problem can be linked to the first one instead of each being classified and triaged separately.
+// Memory is bounded by the number of scopes, the entries per scope and the time window.
+@Component
+@RequiredArgsConstructor
+public class DuplicateComplaintIndex {
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.complaints.duplicates.enabled:true}")
+    private boolean enabled;
+    @Value("${app.complaints.duplicates.window-minutes:30}")
+    private long windowMinutes;
+    @Value("${app.complaints.duplicates.min-similarity:0.6}")
+    private double minSimilarity;
+    @Value("${app.complaints.duplicates.max-scopes:10000}")
+    private long maxScopes;
+    @Value("${app.complaints.duplicates.max-per-scope:64}")
+    private int maxPerScope;
+
+    private Cache<String, Window> windows;
+    private Counter linkedCounter;
+
+    private record Entry(Long complaintId, int[] signature, long createdAtMillis) {
+    }
+
+    // Newest entries last; guarded by its own monitor since a scope only sees a handful of writers at once.
+    private static final class Window {
+        private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    }
+
+    @PostConstruct
+    void start() {
+        windows = Caffeine.newBuilder()
+                .maximumSize(maxScopes)
+                .expireAfterAccess(Duration.ofMinutes(windowMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, windows, "duplicate-complaint-windows");
+        linkedCounter = meterRegistry.counter("complaint.intake.duplicates");
+    }
+
+    public static String scopeOf(Complaint complaint) {
+        String train = complaint.getTrainNumber();
+        if (train != null && !train.isBlank()) {
+            return "train:" + train.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+        }
+        String station = complaint.getStationKey() != null
+                ? complaint.getStationKey()
+                : Complaint.stationKey(complaint.getStation());
+        return station == null ? null : "station:" + station;
+    }
+
+    public Optional<Long> findParent(String scope, int[] signature) {
+        Optional<Long> parent = findParent(scope, signature, System.currentTimeMillis());
+        parent.ifPresent(id -> linkedCounter.increment());
+        return parent;
+    }
+
+    Optional<Long> findParent(String scope, int[] signature, long nowMillis) {
+        if (!enabled || scope == null) {
+            return Optional.empty();
+        }
+        Window window = windows.getIfPresent(scope);
+        if (window == null) {
+            return Optional.empty();
+        }
+        Long best = null;
+        double bestSimilarity = minSimilarity;
+        synchronized (window) {
+            prune(window, nowMillis);
+            for (Entry entry : window.entries) {
+                double similarity = TextFingerprint.similarity(signature, entry.signature());
+                if (similarity >= bestSimilarity) {
+                    best = entry.complaintId();
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    // Only parents are registered, so duplicates always link one level deep to the first complaint of a burst.
+    public void registerParent(String scope, Long complaintId, int[] signature) {
+        if (!enabled || scope == null || complaintId == null) {
+            return;
+        }
+        AfterCommit.run(() -> register(scope, complaintId, signature, System.currentTimeMillis()));
+    }
+
+    public void forget(String scope, Long complaintId) {
+        Window window = scope == null ? null : windows.getIfPresent(scope);
+        if (window == null) {
+            return;
+        }
+        synchronized (window) {
+            window.entries.removeIf(entry -> entry.complaintId().equals(complaintId));
+        }
+    }
+
+    void register(String scope, Long complaintId, int[] signature, long nowMillis) {
+        Window window = windows.get(scope, k -> new Window());
+        synchronized (window) {
+            prune(window, nowMillis);
+            window.entries.addLast(new Entry(complaintId, signature, nowMillis));
+            while (window.entries.size() > maxPerScope) {
+                window.entries.removeFirst();
+            }
+        }
+    }
+
+    private void prune(Window window, long nowMillis) {
+        long cutoff = nowMillis - Duration.ofMinutes(windowMinutes).toMillis();
+        Iterator<Entry> oldestFirst = window.entries.iterator();
+        while (oldestFirst.hasNext() && oldestFirst.next().createdAtMillis() < cutoff) {
+            oldestFirst.remove();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.railway.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Remembers the response to a write made with an Idempotency-Key, so a client retrying over a flaky connection gets
+// the original result instead of a second complaint, classifier call and Kafka message. A retry that arrives while
+// the first attempt is still running waits for it rather than running again. Failed attempts are forgotten so they can
+// be retried. Keys are scoped to the caller and the operation, and expire after the TTL.
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final MeterRegistry meterRegistry;
+    private final JsonMapper jsonMapper;
+
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+    @Value("${app.idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+    @Value("${app.idempotency.max-entries:10000}")
+    private long maxEntries;
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long waitSeconds;
+
+    private Cache<String, Entry> entries;
+    private Counter replayedCounter;
+
+    private record Entry(byte[] fingerprint, CompletableFuture<Object> result) {
+    }
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    @PostConstruct
+    void start() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "idempotency-keys");
+        replayedCounter = meterRegistry.counter("idempotency.replayed");
+    }
+
+    // Runs action once per (caller, operation, key). request is the parsed payload; reusing a key with a different
+    // payload is rejected rather than silently answered with the other request's response. Payloads are compared by
+    // a SHA-256 of their JSON form, so formatting differences in the raw body do not matter but any value change does.
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String key, String caller, String operation, Object request, Supplier<T> action) {
+        if (!enabled || key == null || key.isBlank()) {
+            return new Outcome<>(action.get(), false);
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scoped = caller + '\n' + operation + '\n' + key.trim();
+        Entry mine = new Entry(fingerprint(request), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(scoped, mine);
+        if (existing == null) {
+            try {
+                T value = action.get();
+                mine.result().complete(value);
+                return new Outcome<>(value, false);
+            } catch (RuntimeException | Error ex) {
+                entries.asMap().remove(scoped, mine);
+                mine.result().completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        if (!MessageDigest.isEqual(existing.fingerprint(), mine.fingerprint())) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT,
+                    HEADER + " was already used for a different request");
+        }
+        try {
+            T value = (T) existing.result().get(waitSeconds, TimeUnit.SECONDS);
+            replayedCounter.increment();
+            return new Outcome<>(value, true);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+        }
+    }
+
+    private byte[] fingerprint(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
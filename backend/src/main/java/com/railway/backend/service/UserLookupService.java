@@ -0,0 +1,87 @@
+package com.railway.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.railway.backend.entity.User;
+import com.railway.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Shared username -> user resolution. Returned users are detached snapshots: read them, don't modify or save them.
+@Service
+@RequiredArgsConstructor
+public class UserLookupService {
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Long> generations = new ConcurrentHashMap<>();
+
+    @Value("${app.users.cache.enabled:true}")
+    private boolean cacheEnabled;
+    @Value("${app.users.cache.max-size:10000}")
+    private long maxSize;
+    @Value("${app.users.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, User> cache;
+
+    @PostConstruct
+    void start() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        if (!cacheEnabled) {
+            return userRepository.findByUsername(username);
+        }
+        User cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        // Loaded outside the cache's compute lock, which is a monitor and would pin a virtual thread for the whole
+        // query; the generation check keeps a load that raced with invalidate() from being cached.
+        long generation = generations.getOrDefault(username, 0L);
+        Optional<User> loaded = userRepository.findByUsername(username).map(UserLookupService::snapshot);
+        // Unknown usernames are not cached, so a fresh signup is visible immediately.
+        loaded.ifPresent(user -> cache.asMap().compute(username,
+                (key, current) -> generation == generations.getOrDefault(key, 0L) ? user : current));
+        return loaded;
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            generations.merge(username, 1L, Long::sum);
+            cache.invalidate(username);
+        }
+    }
+
+    private static User snapshot(User user) {
+        return User.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .role(user.getRole())
+                .fullName(user.getFullName())
+                .staffId(user.getStaffId())
+                .station(user.getStation())
+                .trainNumber(user.getTrainNumber())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.railway.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Runs in-memory bookkeeping only once the surrounding transaction commits, or right away outside a transaction.
+public final class AfterCommit {
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.railway.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque continuation token for keyset pagination over (urgency_score DESC, id DESC).
+public final class ComplaintCursor {
+    private ComplaintCursor() {
+    }
+
+    // Position to continue after; the first page starts above every real row.
+    public static Keys keys(String token) {
+        if (token == null || token.isBlank()) {
+            return new Keys(Integer.MAX_VALUE, Long.MAX_VALUE);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new Keys(Integer.parseInt(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static String encode(Integer urgencyScore, Long id) {
+        int urgency = urgencyScore == null ? 0 : urgencyScore;
+        String raw = urgency + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public record Keys(int urgencyScore, long id) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.railway.backend.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader: quoted fields may hold commas, doubled quotes and line breaks. Only the current record is
+// kept in memory, and a single field is capped so an unterminated quote cannot swallow the rest of the input.
+public class CsvRecordReader {
+    private static final int NONE = -2;
+
+    private final Reader in;
+    private final int maxFieldLength;
+    private long line = 1;
+    private long recordLine;
+    private int pushback = NONE;
+
+    public CsvRecordReader(Reader in, int maxFieldLength) {
+        this.in = in;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    // Line on which the last returned record started.
+    public long recordLine() {
+        return recordLine;
+    }
+
+    // Null at end of input.
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    int following = read();
+                    if (following != '"') {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(field, c);
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int following = read();
+                    if (following != '\n') {
+                        pushback = following;
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                append(field, c);
+            }
+            c = read();
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= maxFieldLength) {
+            throw new IllegalArgumentException("Field longer than " + maxFieldLength + " characters on line " + line);
+        }
+        field.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pushback != NONE) {
+            int c = pushback;
+            pushback = NONE;
+            return c;
+        }
+        return in.read();
+    }
+}
@@ -0,0 +1,117 @@
+package com.railway.backend.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// MinHash signature over the normalized word set of a complaint. Two signatures agree in a slot with probability
+// equal to the Jaccard similarity of the word sets, so near-duplicate complaints share most slots.
+public final class TextFingerprint {
+    public static final int SIZE = 64;
+    public static final int ROWS_PER_BAND = 2;
+    public static final int BANDS = SIZE / ROWS_PER_BAND;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Words that say nothing about the issue itself; coach/seat/train numbers are dropped as well.
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "is", "are", "was", "were", "be", "been", "am", "in", "on", "at", "of", "to", "for",
+            "and", "or", "but", "my", "me", "we", "our", "it", "its", "this", "that", "there", "here", "from", "with",
+            "by", "has", "have", "had", "no", "not", "very", "please", "sir", "madam", "kindly", "since", "also",
+            "coach", "train", "seat", "berth");
+    private static final int[] SEEDS = new int[SIZE];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < SIZE; i++) {
+            state = mix(state + 0x9E3779B97F4A7C15L);
+            SEEDS[i] = (int) state;
+        }
+    }
+
+    private TextFingerprint() {
+    }
+
+    public static int[] signature(String text) {
+        int[] signature = new int[SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String word : words(text)) {
+            int base = word.hashCode();
+            for (int i = 0; i < SIZE; i++) {
+                int hash = (int) mix(base ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Estimated Jaccard similarity of the two word sets.
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+
+    // LSH bucket for one band; signatures sharing any bucket are candidate near-duplicates.
+    public static long bandKey(int[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS_PER_BAND; row < (band + 1) * ROWS_PER_BAND; row++) {
+            hash = hash * 31 + signature[row];
+        }
+        return ((long) band << 56) | (mix(hash) & 0x00FFFFFFFFFFFFFFL);
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[SIZE];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new HashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() < 2 || STOP_WORDS.contains(token) || token.chars().anyMatch(Character::isDigit)) {
+                continue;
+            }
+            words.add(stem(token));
+        }
+        return words;
+    }
+
+    // Just enough stemming that "smells", "smelly" and "smelling" count as the same word.
+    public static String stem(String word) {
+        if (word.length() > 5 && word.endsWith("ing")) {
+            return word.substring(0, word.length() - 3);
+        }
+        if (word.length() > 4 && word.endsWith("ed")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && (word.endsWith("s") || word.endsWith("y")) && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,130 @@
+package com.railway.backend.ai;
+
+import com.railway.backend.config.WorkerThreads;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class BatchingComplaintClassifierTest {
+    private static final String BATCH_URL = "http://classifier.test/classify/batch";
+    private static final List<String> TEXTS = List.of("dept:Water", "dept:Medical", "unreadable");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+    private final ExecutorService callers = Executors.newFixedThreadPool(TEXTS.size());
+    private BatchingComplaintClassifier batching;
+
+    @AfterEach
+    void tearDown() {
+        if (batching != null) {
+            batching.stop();
+        }
+        callers.shutdownNow();
+    }
+
+    @Test
+    void fansEachResultOfABatchBackToTheCallerThatAskedForIt() throws Exception {
+        // Answers in whatever order the texts were batched, so every caller must get the entry at its own position.
+        server.expect(once(), requestTo(BATCH_URL)).andRespond(request -> {
+            Map<?, ?> body = jsonMapper.readValue(((MockClientHttpRequest) request).getBodyAsString(), Map.class);
+            List<Object> results = new ArrayList<>();
+            for (Object text : (List<?>) body.get("texts")) {
+                String value = (String) text;
+                // A batch can be partly unreadable; only that entry is affected.
+                results.add(value.startsWith("dept:")
+                        ? Map.of("department", value.substring(5), "model_version", "v1")
+                        : "not an object");
+            }
+            return MockRestResponseCreators.withSuccess(jsonMapper.writeValueAsString(Map.of("results", results)),
+                    MediaType.APPLICATION_JSON).createResponse(request);
+        });
+        batching = batching();
+
+        List<Optional<ClassificationResult>> results = classifyConcurrently();
+
+        assertEquals("Water", results.get(0).orElseThrow().department());
+        assertEquals("Medical", results.get(1).orElseThrow().department());
+        assertTrue(results.get(2).orElseThrow().isUnusable());
+        server.verify();
+    }
+
+    @Test
+    void aFailedBatchLeavesEveryCallerWithoutAResult() throws Exception {
+        server.expect(once(), requestTo(BATCH_URL)).andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        batching = batching();
+
+        List<Optional<ClassificationResult>> results = classifyConcurrently();
+
+        assertEquals(List.of(Optional.empty(), Optional.empty(), Optional.empty()), results);
+        server.verify();
+    }
+
+    @Test
+    void aBatchWithTheWrongNumberOfResultsLeavesEveryCallerWithoutAResult() throws Exception {
+        server.expect(once(), requestTo(BATCH_URL)).andRespond(MockRestResponseCreators.withSuccess(
+                "{\"results\":[{\"department\":\"Water\"}]}", MediaType.APPLICATION_JSON));
+        batching = batching();
+
+        List<Optional<ClassificationResult>> results = classifyConcurrently();
+
+        assertEquals(List.of(Optional.empty(), Optional.empty(), Optional.empty()), results);
+        server.verify();
+    }
+
+    private List<Optional<ClassificationResult>> classifyConcurrently() throws Exception {
+        List<CompletableFuture<Optional<ClassificationResult>>> pending = new ArrayList<>();
+        for (String text : TEXTS) {
+            pending.add(CompletableFuture.supplyAsync(() -> batching.classify(text), callers));
+        }
+        List<Optional<ClassificationResult>> results = new ArrayList<>();
+        for (CompletableFuture<Optional<ClassificationResult>> result : pending) {
+            results.add(result.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+
+    // A batch is sent as soon as all three callers are in, well before the window closes.
+    private BatchingComplaintClassifier batching() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ComplaintClassifier classifier = new ComplaintClassifier(restTemplate, CircuitBreaker.ofDefaults("batch"),
+                Bulkhead.ofDefaults("batch"), new DepartmentKeywordMatcher(), meterRegistry);
+        ReflectionTestUtils.setField(classifier, "classifierUrl", "http://classifier.test/classify");
+        BatchingComplaintClassifier created = new BatchingComplaintClassifier(classifier, meterRegistry,
+                new WorkerThreads(new StandardEnvironment()));
+        ReflectionTestUtils.setField(created, "batchEnabled", true);
+        ReflectionTestUtils.setField(created, "maxBatchSize", TEXTS.size());
+        ReflectionTestUtils.setField(created, "windowMs", 5_000L);
+        ReflectionTestUtils.setField(created, "queueCapacity", 100);
+        ReflectionTestUtils.setField(created, "senders", 1);
+        ReflectionTestUtils.setField(created, "waitTimeoutMs", 10_000L);
+        created.start();
+        return created;
+    }
+}
@@ -0,0 +1,66 @@
+package com.railway.backend.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassificationCacheTest {
+    private ClassificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClassificationCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "cacheEnabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 60L);
+        cache.start();
+    }
+
+    @Test
+    void servesAModelAnswerForTheSameTextUpToCaseAndPunctuation() {
+        cache.put("No water in coach B2!", model("Water", "v1"));
+
+        ClassificationResult cached = cache.get("no water, in COACH b2").orElseThrow();
+
+        assertEquals("Water", cached.department());
+        assertEquals("high", cached.priority());
+        assertEquals("v1", cached.modelVersion());
+        assertTrue(cache.get("No water in coach B3").isEmpty());
+    }
+
+    @Test
+    void neverCachesFallbackOrUnusableResults() {
+        cache.put("No water in coach B2", ClassificationResult.keywordFallback("Water"));
+        cache.put("Fan not working", ClassificationResult.unusable());
+
+        assertTrue(cache.get("No water in coach B2").isEmpty());
+        assertTrue(cache.get("Fan not working").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void aNewModelVersionClearsTheCache() {
+        cache.put("No water in coach B2", model("Water", "v1"));
+        cache.put("Passenger fainted", model("Medical", "v1"));
+        cache.observeModelVersion("v1");
+        assertTrue(cache.get("Passenger fainted").isPresent());
+
+        // The first answer from the redeployed model drops everything the old one said.
+        cache.put("Fan not working", model("Electrical", "v2"));
+
+        assertTrue(cache.get("No water in coach B2").isEmpty());
+        assertTrue(cache.get("Passenger fainted").isEmpty());
+        assertEquals("v2", cache.get("Fan not working").orElseThrow().modelVersion());
+    }
+
+    private static ClassificationResult model(String department, String version) {
+        return new ClassificationResult(department, "high", 95, 0.9, version,
+                Map.of("department", department, "model_version", version));
+    }
+}
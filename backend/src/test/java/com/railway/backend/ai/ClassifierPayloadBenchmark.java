@@ -0,0 +1,63 @@
+package com.railway.backend.ai;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Parsing classifier responses the way ComplaintClassifier does: JSON into a Map, then into a ClassificationResult.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassifierPayloadBenchmark {
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {
+    };
+    private static final String SINGLE = """
+            {"department":"Water","category":9,"priority":"medium","confidence":0.9132,\
+            "model_version":"distilbert-railway-2026.01","probabilities":[0.01,0.02,0.03,0.01,0.02,0.01,0.0,0.0,0.0,0.9132]}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ComplaintClassifier classifier;
+    private String batch;
+
+    @Setup
+    public void setUp() {
+        classifier = new ComplaintClassifier(null, null, null, null, null);
+        List<String> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(SINGLE);
+        }
+        batch = "{\"results\":[" + String.join(",", results) + "]}";
+    }
+
+    @Benchmark
+    public ClassificationResult singlePayload() throws Exception {
+        return classifier.toResult(objectMapper.readValue(SINGLE, MAP));
+    }
+
+    @Benchmark
+    public List<ClassificationResult> batchPayload() throws Exception {
+        Map<String, Object> payload = objectMapper.readValue(batch, MAP);
+        List<ClassificationResult> results = new ArrayList<>();
+        for (Object item : (List<?>) payload.get("results")) {
+            results.add(classifier.toResult(objectMapper.convertValue(item, MAP)));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,73 @@
+package com.railway.backend.ai;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.ExpectedCount.once;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.anything;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ComplaintClassifierResilienceTest {
+    private final CircuitBreaker breaker = CircuitBreaker.ofDefaults("classifier");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ComplaintClassifier classifier = new ComplaintClassifier(new RestTemplate(), breaker,
+            Bulkhead.ofDefaults("classifier"), new DepartmentKeywordMatcher(), meterRegistry);
+
+    @Test
+    void openBreakerFallsBackToKeywordInference() {
+        breaker.transitionToForcedOpenState();
+
+        Optional<ClassificationResult> result = classifier.classify("No water in coach B2");
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isFallback());
+        assertEquals("Water", result.get().department());
+        assertEquals(1, meterRegistry.get("complaint.classifier.latency").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void openBreakerFallsBackForEveryBatchItem() {
+        breaker.transitionToForcedOpenState();
+
+        List<Optional<ClassificationResult>> results = classifier.classifyBatch(
+                List.of("Passenger fainted, need a doctor", "Train is late"));
+
+        assertEquals(List.of("Medical", "General"),
+                results.stream().map(r -> r.orElseThrow().department()).toList());
+        assertTrue(results.stream().allMatch(r -> r.orElseThrow().isFallback()));
+    }
+
+    @Test
+    void serverErrorIsTransientButAnUnreadableAnswerIsNot() {
+        RestTemplate restTemplate = new RestTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+        ComplaintClassifier live = new ComplaintClassifier(restTemplate, CircuitBreaker.ofDefaults("live"),
+                Bulkhead.ofDefaults("live"), new DepartmentKeywordMatcher(), meterRegistry);
+        ReflectionTestUtils.setField(live, "classifierUrl", "http://classifier.test/classify");
+        server.expect(once(), anything())
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+        server.expect(once(), anything())
+                .andRespond(withSuccess("<html>not json</html>", MediaType.TEXT_HTML));
+
+        Optional<ClassificationResult> coldStart = live.classify("No water in coach B2");
+        Optional<ClassificationResult> garbage = live.classify("No water in coach B2");
+
+        assertFalse(coldStart.isPresent());
+        assertTrue(garbage.orElseThrow().isUnusable());
+        server.verify();
+    }
+}
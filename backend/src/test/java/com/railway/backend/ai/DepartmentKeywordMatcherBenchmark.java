@@ -0,0 +1,47 @@
+package com.railway.backend.ai;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DepartmentKeywordMatcherBenchmark {
+    @Param({
+            "Train is running late and nobody is answering the helpline",
+            "Coach B2 has no water since the last station, please send someone to refill the tank",
+            "My phone was stolen near the door of coach S4, need RPF help immediately"
+    })
+    public String text;
+
+    private DepartmentKeywordMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        matcher = new DepartmentKeywordMatcher();
+    }
+
+    @Benchmark
+    public String legacyContainsScan() {
+        return LegacyDepartmentInference.inferDepartmentFromText(text);
+    }
+
+    @Benchmark
+    public String ahoCorasick() {
+        return matcher.inferDepartment(text);
+    }
+}
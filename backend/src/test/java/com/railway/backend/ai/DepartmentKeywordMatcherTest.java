@@ -0,0 +1,70 @@
+package com.railway.backend.ai;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DepartmentKeywordMatcherTest {
+    private static Locale defaultLocale;
+
+    private final DepartmentKeywordMatcher matcher = new DepartmentKeywordMatcher();
+
+    // The legacy copy folds case with the default locale; the matcher always folds like Locale.ROOT, so the two
+    // agree everywhere except locales with special casing rules such as Turkish dotless i.
+    @BeforeAll
+    static void useRootLocale() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.ROOT);
+    }
+
+    @AfterAll
+    static void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    void matchesLegacyInferenceOnSampleComplaints() {
+        List<String> samples = List.of(
+                "No water in coach B2",
+                "Toilet is DIRTY and smells",
+                "toilet water leaking near door",
+                "Someone tried to STEAL my bag, need RPF",
+                "Passenger fainted, need a doctor",
+                "Food vendor overcharging for meal",
+                "Charging socket not working",
+                "Berth 23 seat torn",
+                "Refund for cancelled PNR not received",
+                "Window glass broken",
+                "Train is late",
+                "",
+                "   ",
+                "TİCKET issue",
+                "Kelvin sign K in text");
+        for (String sample : samples) {
+            assertEquals(LegacyDepartmentInference.inferDepartmentFromText(sample), matcher.inferDepartment(sample), sample);
+        }
+        assertEquals("General", matcher.inferDepartment(null));
+    }
+
+    @Test
+    void matchesLegacyInferenceOnRandomKeywordSoup() {
+        String[] fragments = {"sec", "urity", "ro", "b", "wat", "er", "toi", "let", " ", "AC", "ac", "fan", "pnr",
+                "heart", " attack", "leak", "x", "So", "S", "lig", "ht", "İ", "ı", "K", "no ", "tap", "meal"};
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int parts = 1 + random.nextInt(12);
+            for (int p = 0; p < parts; p++) {
+                text.append(fragments[random.nextInt(fragments.length)]);
+            }
+            String sample = text.toString();
+            assertEquals(LegacyDepartmentInference.inferDepartmentFromText(sample), matcher.inferDepartment(sample), sample);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.railway.backend.ai;
+
+// Frozen copy of the sequential String.contains inference that DepartmentKeywordMatcher replaced.
+public final class LegacyDepartmentInference {
+    private LegacyDepartmentInference() {
+    }
+
+    public static String inferDepartmentFromText(String text) {
+        if (text == null || text.isBlank()) {
+            return "General";
+        }
+        String normalized = text.toLowerCase();
+
+        if (containsAny(normalized, "security", "theft", "steal", "snatch", "rob", "fight", "harass", "unsafe", "police", "rpf", "sos")) {
+            return "Security";
+        }
+        if (containsAny(normalized, "medical", "doctor", "ambulance", "heart attack", "injury", "blood", "faint", "poison")) {
+            return "Medical";
+        }
+        if (containsAny(normalized, "water", "no water", "drinking", "tap", "toilet water")) {
+            return "Water";
+        }
+        if (containsAny(normalized, "clean", "dirty", "toilet", "restroom", "sanitation", "garbage", "smell")) {
+            return "Cleanliness";
+        }
+        if (containsAny(normalized, "food", "catering", "meal", "vendor")) {
+            return "Catering";
+        }
+        if (containsAny(normalized, "light", "fan", "charging", "socket", "electric", "power")) {
+            return "Electrical";
+        }
+        if (containsAny(normalized, "coach", "berth", "seat", "window", "door", "ac")) {
+            return "Coach";
+        }
+        if (containsAny(normalized, "ticket", "refund", "pnr", "reservation", "booking")) {
+            return "Ticketing";
+        }
+        if (containsAny(normalized, "repair", "maintenance", "broken", "damage", "leak")) {
+            return "Maintenance";
+        }
+        return "General";
+    }
+
+    private static boolean containsAny(String text, String... keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
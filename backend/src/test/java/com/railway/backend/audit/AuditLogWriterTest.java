@@ -0,0 +1,146 @@
+package com.railway.backend.audit;
+
+import com.railway.backend.config.WorkerThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogWriterTest {
+    @TempDir
+    Path dir;
+
+    private AuditLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void writesBatchesInTheBackgroundAndScansNewestFirst() throws Exception {
+        writer = writer(64, "batch");
+        for (int i = 1; i <= 10; i++) {
+            assertTrue(writer.record(1_000L * i, "GET", "/complaints/" + i, i % 2 == 0 ? "ravi" : null,
+                    "10.0.0.1", i == 7 ? 404 : 200, 150));
+        }
+        awaitWritten(10);
+
+        List<AuditEntry> recent = writer.recent(3, entry -> true, null);
+        assertEquals(List.of("/complaints/10", "/complaints/9", "/complaints/8"),
+                recent.stream().map(AuditEntry::uri).toList());
+        assertEquals(List.of(7L * 1_000), writer.recent(10, entry -> entry.status() == 404, null).stream()
+                .map(AuditEntry::timestamp).toList());
+        assertEquals(2, writer.recent(10, entry -> "ravi".equals(entry.principal()), 7_000L).size());
+    }
+
+    @Test
+    void dropsInsteadOfBlockingWhenTheWriterFallsBehind() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(i, "GET", "/", null, null, 200, 1));
+        }
+        assertFalse(ring.publish(4, "GET", "/", null, null, 200, 1));
+        assertEquals(1, ring.dropped());
+
+        assertEquals(2, ring.drain(2, slot -> { }));
+        assertTrue(ring.publish(5, "GET", "/", null, null, 200, 1));
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    void rotatesFilesAndKeepsOnlyTheNewest() throws Exception {
+        writer = writer(64, "interval");
+        // A zero size limit starts a new file for every batch.
+        ReflectionTestUtils.setField(writer, "maxFileMb", 0L);
+        for (int i = 1; i <= 4; i++) {
+            writer.record(i, "POST", "/complaints", "ravi", "10.0.0.1", 200, 10);
+            awaitWritten(i);
+            Thread.sleep(5);
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(2, writer.recent(10, entry -> true, null).size());
+    }
+
+    @Test
+    void keepsTheBatchWhenAWriteFailsAndRetriesItInANewFile() throws Exception {
+        writer = writer(64, "never");
+        writer.record(1, "GET", "/complaints/1", null, "10.0.0.1", 200, 10);
+        awaitWritten(1);
+        // The file goes away underneath the writer, so its next write fails.
+        ((FileChannel) ReflectionTestUtils.getField(writer, "channel")).close();
+
+        writer.record(2, "GET", "/complaints/2", null, "10.0.0.1", 200, 10);
+        awaitWritten(2);
+
+        assertEquals(List.of("/complaints/2", "/complaints/1"),
+                writer.recent(10, entry -> true, null).stream().map(AuditEntry::uri).toList());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    void doesNotRotateAFileThatNothingWasWrittenTo() throws Exception {
+        writer = writer(64, "interval");
+        writer.record(1, "GET", "/complaints/1", null, "10.0.0.1", 200, 10);
+        awaitWritten(1);
+        // Every writer pass is past the rotation age from here on.
+        ReflectionTestUtils.setField(writer, "rotateIntervalMinutes", 0L);
+        Thread.sleep(200);
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+        writer.record(2, "GET", "/complaints/2", null, "10.0.0.1", 200, 10);
+        awaitWritten(2);
+        Thread.sleep(200);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    private AuditLogWriter writer(int bufferSize, String fsync) throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AuditLogWriter created = new AuditLogWriter(new WorkerThreads(new StandardEnvironment()),
+                JsonMapper.builder().build(), meterRegistry);
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "directory", dir.toString());
+        ReflectionTestUtils.setField(created, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(created, "batchSize", 512);
+        ReflectionTestUtils.setField(created, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(created, "maxFileMb", 64L);
+        ReflectionTestUtils.setField(created, "rotateIntervalMinutes", 60L);
+        ReflectionTestUtils.setField(created, "maxFiles", 2);
+        ReflectionTestUtils.setField(created, "fsync", fsync);
+        ReflectionTestUtils.setField(created, "fsyncIntervalMs", 10L);
+        created.start();
+        return created;
+    }
+
+    private void awaitWritten(double count) throws InterruptedException {
+        SimpleMeterRegistry registry = (SimpleMeterRegistry) ReflectionTestUtils.getField(writer, "meterRegistry");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.counter("audit.written").count() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, registry.counter("audit.written").count());
+    }
+}
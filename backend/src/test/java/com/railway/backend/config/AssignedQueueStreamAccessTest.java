@@ -0,0 +1,39 @@
+package com.railway.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssignedQueueStreamAccessTest {
+    private final AuthorizationManager<RequestAuthorizationContext> access = SecurityConfig.assignedQueueStream();
+
+    @Test
+    void staffFollowOnlyTheirOwnQueue() {
+        assertTrue(allowed("ravi@station.in", "STATION_STAFF", "ravi@station.in"));
+        assertFalse(allowed("ravi@station.in", "STATION_STAFF", "meena@station.in"));
+        assertFalse(allowed("asha@mail.com", "USER", "asha@mail.com"));
+    }
+
+    @Test
+    void supervisorsFollowAnyQueue() {
+        assertTrue(allowed("master@station.in", "STATION_MASTER", "meena@station.in"));
+        assertTrue(allowed("root@railway.in", "SUPER_ADMIN", "meena@station.in"));
+    }
+
+    private boolean allowed(String caller, String role, String staffName) {
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(caller, null,
+                AuthorityUtils.createAuthorityList("ROLE_" + role));
+        RequestAuthorizationContext context = new RequestAuthorizationContext(new MockHttpServletRequest(),
+                Map.of("staffName", staffName));
+        return access.authorize(() -> authentication, context).isGranted();
+    }
+}
@@ -0,0 +1,55 @@
+package com.railway.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedExecutorTest {
+    @Test
+    void runsUpToTheConcurrencyQueuesTheBacklogAndRejectsTheRest() throws Exception {
+        BoundedExecutor executor = new WorkerThreads(new StandardEnvironment()).bounded("bounded-test-", 1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        try {
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+                done.countDown();
+            });
+            executor.execute(done::countDown);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, executor.active());
+            assertEquals(1, executor.queued());
+            assertEquals(0, executor.remainingCapacity());
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+
+            release.countDown();
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (executor.remainingCapacity() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(2, executor.remainingCapacity());
+            assertEquals(0, executor.queued());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
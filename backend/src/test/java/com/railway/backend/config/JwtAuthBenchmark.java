@@ -0,0 +1,66 @@
+package com.railway.backend.config;
+
+import com.railway.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request token work in JwtAuthFilter: the original three parses, a single parse, and a verified-token cache hit.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "supersecretkeyforjwt");
+        user = User.withUsername("passenger@example.com").password("x").roles("USER").build();
+        token = jwtUtil.generateToken(user.getUsername(), "USER");
+
+        tokenCache = new VerifiedTokenCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenCache, "cacheEnabled", true);
+        ReflectionTestUtils.setField(tokenCache, "maxSize", 10_000L);
+        ReflectionTestUtils.setField(tokenCache, "ttlMinutes", 5L);
+        tokenCache.start();
+        Claims claims = jwtUtil.extractAllClaims(token);
+        tokenCache.put(token, user, claims.getExpiration().toInstant(), tokenCache.generation(user.getUsername()));
+    }
+
+    @Benchmark
+    public boolean extractThenValidate() {
+        String username = jwtUtil.extractUsername(token);
+        return username != null && jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public boolean parseOnceAndValidate() {
+        return jwtUtil.validateToken(jwtUtil.extractAllClaims(token), user);
+    }
+
+    @Benchmark
+    public UserDetails verifiedTokenCacheHit() {
+        return tokenCache.get(token);
+    }
+}
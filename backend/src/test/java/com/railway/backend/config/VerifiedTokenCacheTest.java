@@ -0,0 +1,62 @@
+package com.railway.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedTokenCacheTest {
+    private final UserDetails ravi = User.withUsername("ravi@station.in").password("x").roles("STATION_STAFF").build();
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "cacheEnabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 5L);
+        cache.start();
+    }
+
+    @Test
+    void rejectsACachedTokenOnceTheUserIsInvalidated() {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        cache.put("token-1", ravi, expiresAt, cache.generation(ravi.getUsername()));
+        assertEquals(ravi, cache.get("token-1"));
+
+        // A role or password change, or a logout.
+        cache.invalidateUser(ravi.getUsername());
+
+        assertNull(cache.get("token-1"));
+    }
+
+    @Test
+    void doesNotCacheAPrincipalLoadedBeforeAnInvalidation() {
+        long generation = cache.generation(ravi.getUsername());
+        // The role changes while the filter is still loading the old principal.
+        cache.invalidateUser(ravi.getUsername());
+        cache.put("token-1", ravi, Instant.now().plusSeconds(600), generation);
+
+        assertNull(cache.get("token-1"));
+        cache.put("token-1", ravi, Instant.now().plusSeconds(600), cache.generation(ravi.getUsername()));
+        assertEquals(ravi, cache.get("token-1"));
+    }
+
+    @Test
+    void doesNotServeATokenPastItsExpiry() throws Exception {
+        // Well inside the cache's own TTL, so only the token's expiry can turn it away.
+        cache.put("token-1", ravi, Instant.now().plusMillis(50), cache.generation(ravi.getUsername()));
+        assertEquals(ravi, cache.get("token-1"));
+
+        Thread.sleep(100);
+
+        assertNull(cache.get("token-1"));
+    }
+}
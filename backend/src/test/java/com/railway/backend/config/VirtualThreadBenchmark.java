@@ -0,0 +1,96 @@
+package com.railway.backend.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A burst of requests that each block on a slow classifier call, served by Tomcat's default 200-thread platform
+// pool versus one virtual thread per request. Needs Java 21 for the virtual case:
+// JAVA_HOME=<jdk21> mvn -Pbenchmark test-compile exec:exec -Djmh.include=VirtualThreadBenchmark -Djmh.args="-prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark {
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"1000"})
+    public int concurrentRequests;
+
+    @Param({"50"})
+    public long classifierLatencyMs;
+
+    private Executor executor;
+    private ExecutorService platformPool;
+    private final AtomicLong sink = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        if ("virtual".equals(threads)) {
+            if (Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21+, running on " + Runtime.version());
+            }
+            executor = new VirtualThreadTaskExecutor("bench-request-");
+        } else {
+            platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+            executor = platformPool;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    // One operation = every request in the burst has been answered.
+    @Benchmark
+    public long slowClassifierBurst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            executor.execute(() -> {
+                try {
+                    sink.addAndGet(handleRequest());
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return sink.get();
+    }
+
+    private long handleRequest() {
+        // Request/response buffers plus a blocking classifier round trip
+        byte[] body = new byte[2048];
+        try {
+            Thread.sleep(classifierLatencyMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return body.length;
+    }
+}
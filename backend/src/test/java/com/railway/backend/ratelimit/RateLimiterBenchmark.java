@@ -0,0 +1,71 @@
+package com.railway.backend.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of RateLimiter.check with the default route table: a hot single client, many distinct clients
+// (cache lookups spread across the map), and the same under contention from several threads.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter limiter;
+    private String[] principals;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(new RateLimitProperties(true, 100_000, List.of(
+                new RateLimitProperties.Route("login", "/auth/login", List.of("POST"), 10, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.IP),
+                new RateLimitProperties.Route("otp", "/otp/**", List.of("POST"), 5, Duration.ofMinutes(10),
+                        RateLimitProperties.KeyType.IP),
+                new RateLimitProperties.Route("complaint-submit", "/complaints", List.of("POST"), 20,
+                        Duration.ofMinutes(1), RateLimitProperties.KeyType.PRINCIPAL),
+                // Effectively unlimited so the measurement is the admit path, not the reject path.
+                new RateLimitProperties.Route("api", "/**", List.of(), Long.MAX_VALUE / 2, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.PRINCIPAL)), List.of()), new SimpleMeterRegistry());
+        limiter.start();
+        principals = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            principals[i] = "passenger" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public long singleClient() {
+        return limiter.check("GET", "/complaints/station/agra", principals[0], "10.0.0.1");
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return limiter.check("GET", "/complaints/station/agra",
+                principals[ThreadLocalRandom.current().nextInt(CLIENTS)], "10.0.0.1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long manyClientsContended() {
+        return limiter.check("GET", "/complaints/station/agra",
+                principals[ThreadLocalRandom.current().nextInt(CLIENTS)], "10.0.0.1");
+    }
+}
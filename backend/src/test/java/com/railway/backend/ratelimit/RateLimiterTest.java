@@ -0,0 +1,143 @@
+package com.railway.backend.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    @Test
+    void admitsABurstThenRefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket();
+        long interval = TimeUnit.SECONDS.toNanos(6);
+        long tolerance = interval * 9;
+        long now = TimeUnit.MINUTES.toNanos(5);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, bucket.tryAcquire(now, interval, tolerance));
+        }
+        assertEquals(interval, bucket.tryAcquire(now, interval, tolerance));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(5), interval, tolerance));
+        assertEquals(0, bucket.tryAcquire(now + interval, interval, tolerance));
+        assertEquals(interval, bucket.tryAcquire(now + interval, interval, tolerance));
+    }
+
+    @Test
+    void firstMatchingRouteAppliesPerPrincipalOrAddress() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 1000, List.of(
+                new RateLimitProperties.Route("login", "/auth/login", List.of("post"), 2, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.IP),
+                new RateLimitProperties.Route("api", "/complaints/**", List.of(), 1, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.PRINCIPAL)), List.of()), registry);
+        limiter.start();
+
+        assertEquals(0, limiter.check("POST", "/auth/login", "asha", "10.0.0.1"));
+        assertEquals(0, limiter.check("POST", "/auth/login", "ravi", "10.0.0.1"));
+        assertTrue(limiter.check("POST", "/auth/login", null, "10.0.0.1") > 0);
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "10.0.0.2"));
+        assertEquals(0, limiter.check("GET", "/auth/login", null, "10.0.0.1"));
+
+        assertEquals(0, limiter.check("GET", "/complaints/station/agra", "asha", "10.0.0.1"));
+        assertTrue(limiter.check("PATCH", "/complaints/7/status", "asha", "10.0.0.9") > 0);
+        assertEquals(0, limiter.check("GET", "/complaints", "ravi", "10.0.0.1"));
+        assertEquals(0, limiter.check("GET", "/complaintsx", "asha", "10.0.0.1"));
+
+        assertEquals(1.0, registry.counter("http.ratelimit.rejected", "route", "login").count());
+    }
+
+    @Test
+    void clientsBehindATrustedProxyGetTheirOwnBuckets() {
+        RateLimitProperties properties = new RateLimitProperties(true, 1000, List.of(
+                new RateLimitProperties.Route("login", "/auth/login", List.of("POST"), 1, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.IP)), List.of("10.0.0.0/8"));
+        RateLimiter limiter = new RateLimiter(properties, new SimpleMeterRegistry());
+        limiter.start();
+        ClientAddressResolver resolver = new ClientAddressResolver(properties);
+
+        String asha = resolver.resolve(forwarded("10.1.2.3", "203.0.113.7"));
+        String ravi = resolver.resolve(forwarded("10.1.2.3", "198.51.100.20, 10.4.4.4"));
+        // A client cannot pick its bucket by prepending to the header; the proxy-appended hop wins.
+        String spoofed = resolver.resolve(forwarded("10.1.2.3", "198.51.100.20, 203.0.113.99"));
+        // Direct connections are not trusted to report their own address.
+        String direct = resolver.resolve(forwarded("192.0.2.5", "203.0.113.7"));
+
+        assertEquals("203.0.113.7", asha);
+        assertEquals("198.51.100.20", ravi);
+        assertEquals("203.0.113.99", spoofed);
+        assertEquals("192.0.2.5", direct);
+        assertEquals(0, limiter.check("POST", "/auth/login", null, asha));
+        assertEquals(0, limiter.check("POST", "/auth/login", null, ravi));
+        assertTrue(limiter.check("POST", "/auth/login", null, asha) > 0);
+    }
+
+    @Test
+    void countsEachTrackedClientOnceUnderConcurrentFirstRequests() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 1000, List.of(
+                new RateLimitProperties.Route("login", "/auth/login", List.of(), 100, Duration.ofMinutes(1),
+                        RateLimitProperties.KeyType.IP)), List.of()), registry);
+        limiter.start();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int client = 0; client < 200; client++) {
+                String address = "10.0.0." + client;
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<Long>> checks = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    checks.add(pool.submit(() -> {
+                        go.await();
+                        return limiter.check("POST", "/auth/login", null, address);
+                    }));
+                }
+                go.countDown();
+                for (Future<Long> check : checks) {
+                    check.get(5, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(200.0, registry.get("http.ratelimit.keys").gauge().value());
+    }
+
+    @Test
+    void evictsIdleClientsBeforeOverflowingAndSplitsTheOverflowByNetwork() throws Exception {
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 2, List.of(
+                new RateLimitProperties.Route("login", "/auth/login", List.of(), 1, Duration.ofMillis(200),
+                        RateLimitProperties.KeyType.IP)), List.of()), new SimpleMeterRegistry());
+        limiter.start();
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "203.0.113.1"));
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "203.0.113.2"));
+        Thread.sleep(300);
+
+        // Both tracked clients have refilled, so a new client gets a bucket of its own instead of an overflow one.
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "198.51.100.7"));
+        assertTrue(limiter.check("POST", "/auth/login", null, "198.51.100.7") > 0);
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "192.0.2.1"));
+
+        // Now every tracked client is still being limited: the same network shares a bucket, another does not.
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "203.0.113.50"));
+        assertTrue(limiter.check("POST", "/auth/login", null, "203.0.113.51") > 0);
+        assertEquals(0, limiter.check("POST", "/auth/login", null, "100.64.9.9"));
+    }
+
+    private static MockHttpServletRequest forwarded(String peer, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr(peer);
+        request.addHeader(ClientAddressResolver.FORWARDED_FOR, forwardedFor);
+        return request;
+    }
+}
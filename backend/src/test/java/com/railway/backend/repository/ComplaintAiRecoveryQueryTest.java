@@ -0,0 +1,42 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.entity.Complaint;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ComplaintAiRecoveryQueryTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @Test
+    void sweepSkipsComplaintsThatAreBackingOff() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 9, 0);
+        Long fresh = save("PENDING").getId();
+        Long backingOff = save("PENDING").getId();
+        Long due = save("PENDING").getId();
+        save("FAILED");
+        complaintRepository.scheduleAiRetry(backingOff, 1, now.plusMinutes(1));
+        complaintRepository.scheduleAiRetry(due, 3, now.minusSeconds(1));
+
+        assertEquals(List.of(fresh, due), complaintRepository.findIdsByAiStatus("PENDING", now, PageRequest.of(0, 10)));
+        assertEquals(List.of(fresh, backingOff, due),
+                complaintRepository.findIdsByAiStatus("PENDING", now.plusMinutes(1), PageRequest.of(0, 10)));
+    }
+
+    private Complaint save(String aiStatus) {
+        return complaintRepository.save(Complaint.builder()
+                .passengerName("Asha")
+                .complaintText("No water in coach B2")
+                .status("PENDING")
+                .aiStatus(aiStatus)
+                .build());
+    }
+}
@@ -0,0 +1,74 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.entity.Complaint;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ComplaintBulkUpdateTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> ids = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        String[] statuses = {"PENDING", "ESCALATED", "PENDING", "RESOLVED"};
+        for (int i = 0; i < statuses.length; i++) {
+            ids.add(complaintRepository.save(Complaint.builder()
+                    .passengerName("Passenger " + i)
+                    .complaintText("Complaint " + i)
+                    .station("Agra")
+                    .remarks(i == 0 ? "Handed over by night shift" : null)
+                    .status(statuses[i])
+                    .build()).getId());
+        }
+        entityManager.flush();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void assignsInOneStatementAndOnlyStartsPendingComplaints() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 6, 0);
+
+        assertEquals(3, complaintRepository.bulkAssign(ids.subList(0, 3), "ravi", null, now));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        List<Complaint> complaints = complaintRepository.findAllById(ids);
+        complaints.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertEquals(List.of("IN_PROGRESS", "ESCALATED", "IN_PROGRESS", "RESOLVED"),
+                complaints.stream().map(Complaint::getStatus).toList());
+        assertEquals("ravi", complaints.get(2).getAssignedTo());
+        assertEquals(null, complaints.get(3).getAssignedTo());
+        assertEquals("Handed over by night shift", complaints.get(0).getRemarks());
+        assertEquals(now, complaints.get(1).getUpdatedAt());
+    }
+
+    @Test
+    void updatesStatusInOneStatement() {
+        assertEquals(4, complaintRepository.bulkUpdateStatus(ids, "RESOLVED", "Station Master", "STATION_MASTER",
+                LocalDateTime.now()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        assertEquals(List.of("Station Master"), complaintRepository.findAllById(ids).stream()
+                .map(Complaint::getResolvedBy).distinct().toList());
+    }
+}
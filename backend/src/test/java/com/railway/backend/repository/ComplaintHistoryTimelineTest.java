@@ -0,0 +1,133 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintHistoryEntry;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.entity.ComplaintHistory;
+import com.railway.backend.entity.User;
+import com.railway.backend.service.ComplaintService;
+import com.railway.backend.service.UserLookupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ComplaintHistoryTimelineTest {
+    @Autowired
+    private ComplaintHistoryRepository complaintHistoryRepository;
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> complaintIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            User user = User.builder()
+                    .username("staff" + i)
+                    .password("x")
+                    .role("STATION_STAFF")
+                    .fullName(i == 3 ? "  " : "Staff  Member " + i)
+                    .build();
+            entityManager.persist(user);
+            users.add(user);
+        }
+        String[] statuses = {"PENDING", "IN_PROGRESS", "ESCALATED", "IN_PROGRESS", "RESOLVED"};
+        for (int c = 0; c < 3; c++) {
+            Complaint complaint = Complaint.builder()
+                    .passengerName("Passenger " + c)
+                    .complaintText("Complaint " + c)
+                    .station("Agra")
+                    .createdByUsername(c == 0 ? "rider" : null)
+                    .status("PENDING")
+                    .build();
+            entityManager.persist(complaint);
+            complaintIds.add(complaint.getId());
+            for (int s = 1; s < statuses.length; s++) {
+                entityManager.persist(ComplaintHistory.builder()
+                        .complaint(complaint)
+                        .oldStatus(statuses[s - 1])
+                        .newStatus(statuses[s])
+                        .updatedBy(users.get(s - 1))
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void timelineIsOneStatementRegardlessOfActors() {
+        List<ComplaintHistoryEntry> timeline = complaintHistoryRepository.findTimeline(complaintIds.get(0));
+
+        assertEquals(List.of("IN_PROGRESS", "ESCALATED", "IN_PROGRESS", "RESOLVED"),
+                timeline.stream().map(ComplaintHistoryEntry::getNewStatus).toList());
+        assertEquals(List.of("Staff  Member 0", "Staff  Member 1", "Staff  Member 2", "staff3"),
+                timeline.stream().map(ComplaintHistoryEntry::getUpdatedBy).toList());
+        assertEquals("STATION_STAFF", timeline.get(0).getUpdatedByRole());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchTimelinesAreOneStatement() {
+        List<ComplaintHistoryEntry> timelines = complaintHistoryRepository.findTimelines(complaintIds);
+
+        assertEquals(12, timelines.size());
+        assertEquals(complaintIds.get(0), timelines.get(0).getComplaintId());
+        assertEquals(complaintIds.get(2), timelines.get(11).getComplaintId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void entityPathLoadsEachActorLazily() {
+        // The shape the projection replaces: one statement for the rows plus one per distinct actor.
+        complaintHistoryRepository.findByComplaintId(complaintIds.get(0))
+                .forEach(history -> history.getUpdatedBy().getUsername());
+
+        assertEquals(5, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void passengersOnlyReadTheirOwnTimelines() {
+        entityManager.persist(User.builder().username("rider").password("x").role("USER").build());
+        entityManager.flush();
+        ComplaintService service = new ComplaintService(complaintRepository, complaintHistoryRepository, null,
+                new UserLookupService(userRepository, new SimpleMeterRegistry()), null, null, null, null, null, null,
+                null, null, null, null);
+        ReflectionTestUtils.setField(service, "maxHistoryBatch", 100);
+        Authentication rider = new UsernamePasswordAuthenticationToken("rider", null);
+        Authentication staff = new UsernamePasswordAuthenticationToken("staff0", null);
+
+        assertEquals(4, service.getHistory(complaintIds.get(0), rider).size());
+        assertThrows(ResponseStatusException.class, () -> service.getHistory(complaintIds.get(1), rider));
+        assertEquals(List.of(4, 0, 0), service.getHistories(complaintIds, rider).values().stream()
+                .map(List::size).toList());
+        assertEquals(List.of(4, 4, 4), service.getHistories(complaintIds, staff).values().stream()
+                .map(List::size).toList());
+    }
+}
@@ -0,0 +1,86 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintSummary;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.ComplaintCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ComplaintKeysetPaginationTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @BeforeEach
+    void setUp() {
+        int[] urgencies = {35, 95, 70, 70, 35, 95, 70};
+        for (int i = 0; i < urgencies.length; i++) {
+            complaintRepository.save(Complaint.builder()
+                    .passengerName("Passenger " + i)
+                    .complaintText("Complaint " + i)
+                    .department(i % 2 == 0 ? "Water" : "Coach")
+                    .station(i < 3 ? " New Delhi" : "Agra")
+                    .nextStation(i == 5 ? "new delhi " : null)
+                    .status("PENDING")
+                    .urgencyScore(urgencies[i])
+                    .build());
+        }
+    }
+
+    @Test
+    void walksAllPagesInUrgencyThenIdOrder() {
+        List<Long> expected = complaintRepository.findAll().stream()
+                .sorted(Comparator.comparing(Complaint::getUrgencyScore).thenComparing(Complaint::getId).reversed())
+                .map(Complaint::getId)
+                .toList();
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            List<ComplaintSummary> page = complaintRepository.findSummaries(ComplaintSpecifications.all(),
+                    ComplaintCursor.keys(cursor), 3);
+            page.forEach(row -> seen.add(row.getId()));
+            ComplaintSummary last = page.get(page.size() - 1);
+            cursor = page.size() == 3 ? ComplaintCursor.encode(last.getUrgencyScore(), last.getId()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void appliesScopeFilterAcrossPages() {
+        List<ComplaintSummary> first = complaintRepository.findSummaries(ComplaintSpecifications.department("Water"),
+                ComplaintCursor.keys(null), 2);
+        ComplaintSummary last = first.get(1);
+        List<ComplaintSummary> second = complaintRepository.findSummaries(ComplaintSpecifications.department("Water"),
+                ComplaintCursor.keys(ComplaintCursor.encode(last.getUrgencyScore(), last.getId())), 2);
+
+        assertEquals(List.of(70, 70), first.stream().map(ComplaintSummary::getUrgencyScore).toList());
+        assertEquals(List.of(35, 35), second.stream().map(ComplaintSummary::getUrgencyScore).toList());
+    }
+
+    @Test
+    void pagesStationContextAcrossAllStationColumns() {
+        List<Long> seen = new ArrayList<>();
+        ComplaintCursor.Keys after = ComplaintCursor.keys(null);
+        List<Long> page = complaintRepository.findStationContextPageIds("new delhi", after.urgencyScore(), after.id(), 2);
+        seen.addAll(page);
+        Complaint last = complaintRepository.findById(page.get(1)).orElseThrow();
+        after = ComplaintCursor.keys(ComplaintCursor.encode(last.getUrgencyScore(), last.getId()));
+        seen.addAll(complaintRepository.findStationContextPageIds("new delhi", after.urgencyScore(), after.id(), 2));
+
+        assertEquals(List.of(95, 95, 70, 35), seen.stream()
+                .map(id -> complaintRepository.findById(id).orElseThrow().getUrgencyScore())
+                .toList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.service.ComplaintSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplaintSearchQueryPlanTest extends EmbeddedPostgresPlanTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @BeforeEach
+    void seed() {
+        ComplaintSearchService.POSTGRES_SCHEMA.forEach(ddl -> entityManager.createNativeQuery(ddl).executeUpdate());
+        entityManager.createNativeQuery("""
+                INSERT INTO complaints (id, passenger_name, complaint_text, status, urgency_score, department,
+                                        station, station_key)
+                SELECT g, 'P' || g,
+                       CASE WHEN g % 1000 = 0 THEN 'Toilet blocked and dirty, water overflowing'
+                            ELSE 'Seat ' || g || ' reservation issue number ' || (g % 97) END,
+                       'PENDING', 35,
+                       CASE WHEN g % 2000 = 0 THEN 'Cleanliness' ELSE 'Water' END,
+                       'Station ' || (g % 40), 'station ' || (g % 40)
+                FROM generate_series(1, 40000) AS g
+                """).executeUpdate();
+        entityManager.createNativeQuery("ANALYZE complaints").executeUpdate();
+    }
+
+    @Test
+    void searchIsServedByTheGinIndexAndHonoursFilters() throws NoSuchMethodException {
+        String sql = repositoryQuery("fullTextSearchIds", String.class, String.class, String.class, int.class, int.class);
+        String plan = explain(sql, query -> query
+                .setParameter("query", "blocked toilets")
+                .setParameter("stationKey", null)
+                .setParameter("department", null)
+                .setParameter("limit", 20)
+                .setParameter("offset", 0));
+        assertTrue(plan.contains("idx_complaints_search_vector"), plan);
+        assertFalse(plan.contains("Seq Scan on complaints"), plan);
+
+        assertEquals(40, complaintRepository.fullTextSearchCount("blocked toilets", null, null));
+        assertEquals(20, complaintRepository.fullTextSearchCount("blocked toilets", null, "cleanliness"));
+        assertEquals(List.of(40000L, 38000L), complaintRepository.fullTextSearchIds("toilet", "station 0", "Cleanliness", 2, 0));
+        assertEquals(List.of(37000L), complaintRepository.fullTextSearchIds("toilet", null, "Water", 1, 1));
+    }
+}
@@ -0,0 +1,116 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintStats;
+import com.railway.backend.dto.ComplaintSummary;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.ComplaintCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ComplaintSummaryQueryTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+
+    @BeforeEach
+    void setUp() {
+        int[] urgencies = {35, 95, 70, 70, 35, 95, 70};
+        for (int i = 0; i < urgencies.length; i++) {
+            complaintRepository.save(Complaint.builder()
+                    .passengerName("Passenger " + i)
+                    .complaintText(i == 0 ? "Fan not working in coach B2 since Kanpur" : "Complaint " + i)
+                    .remarks(i == 0 ? "Electrician boarding at Agra" : null)
+                    .aiMetadata("{\"raw\":\"classifier payload\"}")
+                    .department(i % 2 == 0 ? "Water" : "Coach")
+                    .station(i < 3 ? "New Delhi" : "Agra")
+                    .nextStation(i == 5 ? "new delhi" : null)
+                    .status(i == 2 ? "RESOLVED" : "PENDING")
+                    .assignedTo(i == 0 || i == 2 ? "rakesh" : null)
+                    .urgencyScore(urgencies[i])
+                    .build());
+        }
+    }
+
+    @Test
+    void summaryPagesFollowTheEntityKeysetOrder() {
+        List<Long> expected = complaintRepository.findAll().stream()
+                .sorted(Comparator.comparing(Complaint::getUrgencyScore).thenComparing(Complaint::getId).reversed())
+                .map(Complaint::getId)
+                .toList();
+        List<Long> seen = new ArrayList<>();
+        ComplaintCursor.Keys after = ComplaintCursor.keys(null);
+        while (true) {
+            List<ComplaintSummary> page = complaintRepository.findSummaries(ComplaintSpecifications.all(), after, 3);
+            page.forEach(row -> seen.add(row.getId()));
+            if (page.size() < 3) {
+                break;
+            }
+            ComplaintSummary last = page.get(page.size() - 1);
+            after = ComplaintCursor.keys(ComplaintCursor.encode(last.getUrgencyScore(), last.getId()));
+        }
+
+        assertEquals(expected, seen);
+        assertEquals(List.of(70, 70, 35, 35), complaintRepository
+                .findSummaries(ComplaintSpecifications.department("Water"), ComplaintCursor.keys(null), 10).stream()
+                .map(ComplaintSummary::getUrgencyScore).toList());
+    }
+
+    @Test
+    void listRowsKeepTheDisplayedText() {
+        ComplaintSummary first = complaintRepository.findSummaries(ComplaintSpecifications.all(), ComplaintCursor.keys(null), 10)
+                .stream().filter(row -> row.getPassengerName().equals("Passenger 0")).findFirst().orElseThrow();
+
+        assertEquals("Fan not working in coach B2 since Kanpur", first.getComplaintText());
+        assertEquals("Electrician boarding at Agra", first.getRemarks());
+    }
+
+    @Test
+    void stationIdsMatchTheStationContextSpecification() {
+        ComplaintCursor.Keys after = ComplaintCursor.keys(null);
+        List<Long> specIds = complaintRepository.findSummaries(ComplaintSpecifications.stationContext("New Delhi"), after, 10)
+                .stream().map(ComplaintSummary::getId).toList();
+        List<Long> ids = complaintRepository.findStationContextPageIds("new delhi", after.urgencyScore(), after.id(), 10);
+
+        assertEquals(specIds, ids);
+        assertEquals(4, complaintRepository.findSummariesByIds(ids).size());
+    }
+
+    @Test
+    void filteredStationViewKeepsTheUnionMembership() {
+        ComplaintCursor.Keys after = ComplaintCursor.keys(null);
+        List<Long> union = complaintRepository.findStationContextPageIds("new delhi", after.urgencyScore(), after.id(), 10);
+        List<Long> pending = complaintRepository.findSummaries(ComplaintSpecifications.stationContext("New Delhi")
+                        .and(ComplaintSpecifications.matching(ComplaintFilter.of("pending", null, null, null, null))), after, 10)
+                .stream().map(ComplaintSummary::getId).toList();
+
+        assertEquals(union.stream().filter(id -> !complaintRepository.findById(id).orElseThrow().getStatus().equals("RESOLVED"))
+                .toList(), pending);
+    }
+
+    @Test
+    void statsCountTheFilteredScope() {
+        ComplaintStats water = complaintRepository.countSummaries(
+                ComplaintSpecifications.matching(ComplaintFilter.of(null, "water", null, null, null)),
+                LocalDate.now().atStartOfDay());
+
+        assertEquals(4, water.getTotal());
+        assertEquals(4, water.getCreatedToday());
+        assertEquals(Map.of("PENDING", 3L, "RESOLVED", 1L), water.getByStatus());
+        assertEquals(Map.of("rakesh", Map.of("PENDING", 1L, "RESOLVED", 1L)), water.getByAssignee());
+
+        ComplaintStats urgent = complaintRepository.countSummaries(
+                ComplaintSpecifications.matching(ComplaintFilter.of("PENDING,IN_PROGRESS", null, null, 70, null)),
+                LocalDate.now().atStartOfDay());
+        assertEquals(4, urgent.getTotal());
+    }
+}
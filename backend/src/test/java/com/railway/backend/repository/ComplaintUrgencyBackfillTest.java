@@ -0,0 +1,70 @@
+package com.railway.backend.repository;
+
+import com.railway.backend.dto.ComplaintSummary;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.service.ComplaintBackfillService;
+import com.railway.backend.util.ComplaintCursor;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// DDL commits on its own, so this test manages its transactions and cleans up after itself.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(ComplaintBackfillService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ComplaintUrgencyBackfillTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private ComplaintBackfillService complaintBackfillService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        complaintRepository.deleteAll();
+        complaintRepository.requireUrgencyScore();
+    }
+
+    @Test
+    void rowsWrittenBeforeTheDefaultRejoinListPages() {
+        Complaint scored = complaintRepository.save(Complaint.builder()
+                .passengerName("Scored").complaintText("Fan not working").status("PENDING").urgencyScore(35).build());
+        // A row from before urgency_score had a default.
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery("ALTER TABLE complaints ALTER COLUMN urgency_score DROP NOT NULL").executeUpdate();
+            entityManager.createNativeQuery("""
+                    INSERT INTO complaints (id, passenger_name, complaint_text, status)
+                    VALUES (9001, 'Legacy', 'Old complaint', 'PENDING')
+                    """).executeUpdate();
+        });
+        assertEquals(List.of(scored.getId()), ids());
+
+        ReflectionTestUtils.invokeMethod(complaintBackfillService, "requireUrgency");
+
+        assertEquals(List.of(scored.getId(), 9001L), ids());
+        assertEquals(0, complaintRepository.findById(9001L).orElseThrow().getUrgencyScore());
+        assertThrows(Exception.class, () -> transactionTemplate.executeWithoutResult(status -> entityManager
+                .createNativeQuery("UPDATE complaints SET urgency_score = NULL WHERE id = 9001").executeUpdate()));
+    }
+
+    private List<Long> ids() {
+        return complaintRepository.findSummaries(ComplaintSpecifications.all(), ComplaintCursor.keys(null), 10).stream()
+                .map(ComplaintSummary::getId)
+                .toList();
+    }
+}
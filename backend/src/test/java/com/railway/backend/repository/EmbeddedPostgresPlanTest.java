@@ -0,0 +1,64 @@
+package com.railway.backend.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+// Runs repository queries against a real Postgres so their plans can be asserted.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+abstract class EmbeddedPostgresPlanTest {
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+        EmbeddedPostgres server = postgres();
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    // One server per test JVM: the Spring context is cached across subclasses, so it must outlive each class.
+    private static synchronized EmbeddedPostgres postgres() throws IOException {
+        if (postgres == null) {
+            EmbeddedPostgres server = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+            postgres = server;
+        }
+        return postgres;
+    }
+
+    protected static String repositoryQuery(String method, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return ComplaintRepository.class.getMethod(method, parameterTypes).getAnnotation(Query.class).value();
+    }
+
+    protected String explain(String sql, UnaryOperator<jakarta.persistence.Query> bind) {
+        @SuppressWarnings("unchecked")
+        List<Object> rows = bind.apply(entityManager.createNativeQuery("EXPLAIN " + sql)).getResultList();
+        return rows.stream().map(Object::toString).collect(Collectors.joining("\n"));
+    }
+}
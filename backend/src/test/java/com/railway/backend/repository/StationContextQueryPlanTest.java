@@ -0,0 +1,40 @@
+package com.railway.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StationContextQueryPlanTest extends EmbeddedPostgresPlanTest {
+
+    @BeforeEach
+    void seed() {
+        entityManager.createNativeQuery("""
+                INSERT INTO complaints (id, passenger_name, complaint_text, status, urgency_score,
+                                        station, station_key, previous_station, previous_station_key,
+                                        next_station, next_station_key)
+                SELECT g, 'P' || g, 'complaint ' || g, 'PENDING', (g % 3) * 30 + 35,
+                       'Station ' || (g % 400), 'station ' || (g % 400),
+                       'Station ' || ((g + 1) % 400), 'station ' || ((g + 1) % 400),
+                       'Station ' || ((g + 2) % 400), 'station ' || ((g + 2) % 400)
+                FROM generate_series(1, 40000) AS g
+                """).executeUpdate();
+        entityManager.createNativeQuery("ANALYZE complaints").executeUpdate();
+    }
+
+    @Test
+    void stationContextQueryIsServedByStationKeyIndexes() throws NoSuchMethodException {
+        String sql = repositoryQuery("findStationContextPageIds", String.class, int.class, long.class, int.class);
+        String plan = explain(sql, query -> query
+                .setParameter("stationKey", "station 42")
+                .setParameter("afterUrgency", Integer.MAX_VALUE)
+                .setParameter("afterId", Long.MAX_VALUE)
+                .setParameter("limit", 101));
+
+        assertTrue(plan.contains("idx_complaints_station_key"), plan);
+        assertTrue(plan.contains("idx_complaints_prev_station_key"), plan);
+        assertTrue(plan.contains("idx_complaints_next_station_key"), plan);
+        assertFalse(plan.contains("Seq Scan on complaints"), plan);
+    }
+}
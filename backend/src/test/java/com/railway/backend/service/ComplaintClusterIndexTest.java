@@ -0,0 +1,60 @@
+package com.railway.backend.service;
+
+import com.railway.backend.dto.TopIssue;
+import com.railway.backend.entity.Complaint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComplaintClusterIndexTest {
+    private ComplaintClusterIndex index;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        index = new ComplaintClusterIndex(null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.45);
+        ReflectionTestUtils.setField(index, "representativeLength", 300);
+        index.start();
+    }
+
+    @Test
+    void groupsNearDuplicatesAndRanksLargestClustersFirst() {
+        add("AC not working in coach A1");
+        add("The AC is not working in A1 coach, very hot");
+        add("ac not working properly in coach B2!");
+        add("Toilet is very dirty and smelly");
+        add("toilets dirty and smelling in S4");
+        add("My phone was stolen near the door");
+
+        List<TopIssue> top = index.topIssues(2);
+
+        assertEquals(2, top.size());
+        assertEquals("AC not working in coach A1", top.get(0).getText());
+        assertEquals(3, top.get(0).getCount());
+        assertEquals("Toilet is very dirty and smelly", top.get(1).getText());
+        assertEquals(2, top.get(1).getCount());
+    }
+
+    @Test
+    void removingTheLastMemberDropsTheCluster() {
+        long phone = add("My phone was stolen near the door");
+        add("Food served was stale");
+        add("stale food served in pantry");
+
+        index.removed(phone);
+
+        assertEquals(List.of(new TopIssue("Food served was stale", 2)), index.topIssues(5));
+    }
+
+    private long add(String text) {
+        Complaint complaint = Complaint.builder().id(++nextId).complaintText(text).build();
+        index.added(complaint);
+        return complaint.getId();
+    }
+}
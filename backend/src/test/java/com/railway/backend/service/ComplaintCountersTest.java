@@ -0,0 +1,175 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Writes commit immediately so the counters' after-commit hooks run as they do in production.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ComplaintCountersTest {
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ComplaintCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        save("Water", "PENDING", "New Delhi");
+        save("Water", "RESOLVED", "Agra");
+        save(null, "PENDING", "Agra");
+        counters = new ComplaintCounters(complaintRepository, meterRegistry, transactionManager);
+        counters.start();
+        counters.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        complaintRepository.deleteAll();
+    }
+
+    @Test
+    void seedsFromTheTableAndTracksWritesWithoutQuerying() {
+        assertEquals(Map.of("Water", 2L, "Coach", 1L), counters.countsByDepartment());
+
+        counters.added(save("Water", "PENDING", "Agra"));
+        Complaint coach = complaintRepository.findAll().stream()
+                .filter(c -> "Coach".equals(c.getCategory())).findFirst().orElseThrow();
+        ComplaintCounters.Key before = ComplaintCounters.Key.of(coach);
+        coach.setStatus("RESOLVED");
+        counters.moved(before, ComplaintCounters.Key.of(complaintRepository.save(coach)));
+
+        assertEquals(Map.of("Water", 3L, "Coach", 1L), counters.countsByDepartment());
+        assertEquals(Map.of("Water", 1L), counters.countsByDepartment("pending", " AGRA"));
+        assertEquals(Map.of("Water", 1L, "Coach", 1L), counters.countsByDepartment("RESOLVED", null));
+    }
+
+    @Test
+    void reconciliationCorrectsWritesThatBypassedTheCounters() {
+        complaintRepository.delete(complaintRepository.findAll().get(0));
+        save("Medical", "PENDING", "Agra");
+
+        counters.reconcile();
+
+        assertEquals(Map.of("Water", 1L, "Coach", 1L, "Medical", 1L), counters.countsByDepartment());
+        assertEquals(2.0, meterRegistry.get("complaint.analytics.drift").counter().count());
+    }
+
+    @Test
+    void writesCommittedWhileTheQueryRunsAreCountedOnce() {
+        AtomicReference<ComplaintCounters> racing = new AtomicReference<>();
+        AtomicBoolean first = new AtomicBoolean(true);
+        racing.set(new ComplaintCounters(beforeCounting(() -> {
+            if (first.getAndSet(false)) {
+                // Another request commits after the snapshot was opened but before the table is counted.
+                CompletableFuture.runAsync(() -> addInTransaction(racing.get(), "Water", "PENDING", "Agra")).join();
+            }
+        }), meterRegistry, transactionManager));
+        racing.get().start();
+
+        racing.get().reconcile();
+
+        assertTrue(racing.get().isSeeded());
+        assertEquals(Map.of("Water", 3L, "Coach", 1L), racing.get().countsByDepartment());
+        assertEquals(Map.of("Water", 1L, "Coach", 1L), racing.get().queryCountsByDepartment("PENDING", "agra"));
+        racing.get().reconcile();
+        assertEquals(Map.of("Water", 3L, "Coach", 1L), racing.get().countsByDepartment());
+    }
+
+    @Test
+    void aWriteWhoseCounterUpdateLagsItsCommitIsCountedOnce() throws Exception {
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> {
+                    // Registered first, so it stalls between the commit and the counters' own after-commit hook.
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            committed.countDown();
+                            await(release);
+                        }
+                    });
+                    counters.added(save("Water", "PENDING", "Agra"));
+                }));
+        assertTrue(committed.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(counters::reconcile);
+        Thread.sleep(200);
+        // The row is committed but not yet counted, so the snapshot waits for the counters to catch up.
+        assertFalse(reconcile.isDone());
+        release.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        reconcile.get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of("Water", 3L, "Coach", 1L), counters.countsByDepartment());
+        assertEquals(0.0, meterRegistry.get("complaint.analytics.drift").counter().count());
+    }
+
+    // The real repository, except that the reconciliation query first runs the given committed write.
+    private ComplaintRepository beforeCounting(Runnable write) {
+        return (ComplaintRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ComplaintRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("countByClassificationStatusAndStation")) {
+                        write.run();
+                    }
+                    try {
+                        return method.invoke(complaintRepository, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private void addInTransaction(ComplaintCounters target, String department, String status, String station) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(tx -> target.added(save(department, status, station)));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Complaint save(String department, String status, String station) {
+        return complaintRepository.save(Complaint.builder()
+                .passengerName("Passenger")
+                .complaintText("Complaint")
+                .department(department)
+                .category(department == null ? "Coach" : department)
+                .station(station)
+                .status(status)
+                .urgencyScore(35)
+                .build());
+    }
+}
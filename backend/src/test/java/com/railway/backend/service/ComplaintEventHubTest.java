@@ -0,0 +1,119 @@
+package com.railway.backend.service;
+
+import com.railway.backend.config.WorkerThreads;
+import com.railway.backend.dto.ComplaintResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplaintEventHubTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch deliveryBlocked = new CountDownLatch(1);
+    private final Queue<SseEmitter> emitters = new ConcurrentLinkedQueue<>();
+    private ComplaintEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new ComplaintEventHub(meterRegistry, new WorkerThreads(new StandardEnvironment()), JsonMapper.builder().build()) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                SseEmitter emitter = emitters.poll();
+                return emitter != null ? emitter : super.newEmitter(timeoutMillis);
+            }
+        };
+        ReflectionTestUtils.setField(hub, "bufferSize", 4);
+        ReflectionTestUtils.setField(hub, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(hub, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(hub, "deliveryThreads", 1);
+        ReflectionTestUtils.setField(hub, "writeTimeoutMs", 200L);
+        hub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deliveryBlocked.countDown();
+        hub.stop();
+    }
+
+    @Test
+    void evictsSubscribersThatFallBehindWithoutBlockingPublishers() {
+        // Stall the only delivery thread, as a client that stopped reading would.
+        ((Executor) ReflectionTestUtils.getField(hub, "delivery")).execute(() -> {
+            try {
+                deliveryBlocked.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        hub.subscribe(ComplaintEventHub.stationTopic(" Agra "));
+        hub.subscribe(ComplaintEventHub.assigneeTopic("Ravi"));
+
+        Set<String> agra = Set.of(ComplaintEventHub.stationTopic("AGRA"));
+        // One slot already holds the subscription comment.
+        for (long id = 1; id <= 3; id++) {
+            hub.publish(ComplaintEventHub.CREATED, complaint(id), agra);
+        }
+        assertEquals(2, hub.subscriberCount());
+
+        hub.publish(ComplaintEventHub.CREATED, complaint(4L), agra);
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("complaint.stream.evicted").count());
+        assertEquals(4.0, meterRegistry.counter("complaint.stream.events").count());
+    }
+
+    @Test
+    void stalledClientDoesNotHoldUpHealthySubscribers() throws InterruptedException {
+        // A client that stopped reading: its first write never returns. The only delivery thread reaches it first.
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    deliveryBlocked.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        CountDownLatch received = new CountDownLatch(4);
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.countDown();
+            }
+        });
+        hub.subscribe(ComplaintEventHub.stationTopic("Agra"));
+        hub.subscribe(ComplaintEventHub.stationTopic("Agra"));
+
+        Set<String> agra = Set.of(ComplaintEventHub.stationTopic("Agra"));
+        for (long id = 1; id <= 3; id++) {
+            hub.publish(ComplaintEventHub.CREATED, complaint(id), agra);
+        }
+
+        assertTrue(received.await(5, TimeUnit.SECONDS), "healthy subscriber missed events");
+        assertEquals(1, hub.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("complaint.stream.evicted").count());
+    }
+
+    private static ComplaintResponse complaint(Long id) {
+        ComplaintResponse response = new ComplaintResponse();
+        response.setId(id);
+        response.setStatus("PENDING");
+        return response;
+    }
+}
@@ -0,0 +1,34 @@
+package com.railway.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComplaintExportServiceTest {
+
+    @Test
+    void spreadsheetFormulasAreNeutralised() {
+        assertEquals("\"'=HYPERLINK(\"\"http://x\"\")\"", csv("=HYPERLINK(\"http://x\")"));
+        assertEquals("'+91 98765", csv("+91 98765"));
+        assertEquals("'-1", csv("-1"));
+        assertEquals("'@SUM(A1)", csv("@SUM(A1)"));
+        assertEquals("'\tcmd", csv("\tcmd"));
+        assertEquals("\"'\rcmd\"", csv("\rcmd"));
+    }
+
+    @Test
+    void plainTextAndNonStringValuesAreUnchanged() {
+        assertEquals("\"Dirty coach, no water\"", csv("Dirty coach, no water"));
+        assertEquals("", csv(""));
+        assertEquals("-5", csv(-5));
+        assertEquals("2024-01-02T03:04", csv(LocalDateTime.of(2024, 1, 2, 3, 4)));
+    }
+
+    private static String csv(Object value) {
+        StringBuilder line = new StringBuilder();
+        ComplaintExportService.appendCsvValue(line, value);
+        return line.toString();
+    }
+}
@@ -0,0 +1,112 @@
+package com.railway.backend.service;
+
+import com.railway.backend.ai.DepartmentKeywordMatcher;
+import com.railway.backend.dto.ComplaintImportReport;
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.repository.ComplaintRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Batches commit for real, so a failed batch is rolled back and retried the way it is in production.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ComplaintImportServiceTest {
+    private static final String HEADER = "passengerName,passengerPhone,complaintText,trainNumber,incidentAt\n";
+
+    @Autowired
+    private ComplaintRepository complaintRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    private ComplaintImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ComplaintCounters counters = new ComplaintCounters(complaintRepository, meterRegistry, transactionManager);
+        ComplaintClusterIndex clusterIndex = new ComplaintClusterIndex(complaintRepository, meterRegistry);
+        ComplaintSearchService searchService = new ComplaintSearchService(complaintRepository, dataSource);
+        ComplaintVersions versions = new ComplaintVersions();
+        ReflectionTestUtils.setField(versions, "maxScopes", 1000L);
+        versions.start();
+        // AI enrichment is off, so imported rows are not queued for classification.
+        ComplaintEnrichmentService enrichment = new ComplaintEnrichmentService(complaintRepository, null, null, null,
+                meterRegistry, null, counters, searchService, versions, transactionTemplate);
+        ComplaintService complaintService = new ComplaintService(complaintRepository, null, null, null, null,
+                enrichment, new DepartmentKeywordMatcher(), counters, clusterIndex, null, searchService, null, versions,
+                transactionTemplate);
+        importService = new ComplaintImportService(complaintRepository, complaintService, counters, clusterIndex,
+                searchService, versions, transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), JsonMapper.builder().build());
+        ReflectionTestUtils.setField(importService, "batchSize", 10);
+        ReflectionTestUtils.setField(importService, "maxErrors", 10);
+        ReflectionTestUtils.setField(importService, "maxFieldLength", 65536);
+    }
+
+    @AfterEach
+    void tearDown() {
+        complaintRepository.deleteAll();
+    }
+
+    @Test
+    void aRowTheDatabaseRejectsFailsAloneAndTheRestOfItsBatchIsImported() throws Exception {
+        // Valid as a request, but longer than the train_number column.
+        String tooLong = "1".repeat(300);
+        ComplaintImportReport report = importCsv(HEADER
+                + "Asha,9876543210,No water in coach B2,12951,2024-05-01T10:00\n"
+                + "Ravi,9876543211,Fan not working," + tooLong + ",2024-05-01T11:00\n"
+                + "Meena,9876543212,Dirty toilet in S4,12002,2024-05-01 12:00\n");
+
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getErrors().size());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Rejected by the database"));
+        assertEquals(List.of("Asha", "Meena"),
+                complaintRepository.findAll().stream().map(Complaint::getPassengerName).sorted().toList());
+    }
+
+    @Test
+    void aBrokenQuoteEndsTheImportAndReportsItsLine() throws Exception {
+        ComplaintImportReport report = importCsv(HEADER
+                + "Asha,9876543210,No water in coach B2,12951,2024-05-01T10:00\n"
+                + "Ravi,9876543211,\"Fan not working,12952,2024-05-01T11:00\n"
+                + "Meena,9876543212,Dirty toilet in S4,12002,2024-05-01T12:00\n");
+
+        assertEquals(2, report.getRows());
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().contains("line 3"));
+        assertEquals(List.of("Asha"),
+                complaintRepository.findAll().stream().map(Complaint::getPassengerName).toList());
+    }
+
+    private ComplaintImportReport importCsv(String csv) throws Exception {
+        return importService.importComplaints(ComplaintExportService.Format.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "helpline");
+    }
+}
@@ -0,0 +1,49 @@
+package com.railway.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComplaintSearchIndexTest {
+    private ComplaintSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ComplaintSearchIndex();
+        index.add(1L, "Toilet is dirty and the wash basin is blocked", "agra", "Cleanliness");
+        index.add(2L, "No water in toilet, toilet very dirty, toilet smells", "agra", "Water");
+        index.add(3L, "AC not working in coach B2", "new delhi", "Electrical");
+        index.add(4L, "Dirty linen given on berth 32", "new delhi", "Cleanliness");
+        index.add(5L, "Food was cold", "agra", "Catering");
+    }
+
+    @Test
+    void ranksByBm25AndPagesThroughMatches() {
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(4L, 1L), 3), index.search("dirty", null, null, 0, 2));
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(2L), 3), index.search("dirty", null, null, 2, 2));
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(3L), 1), index.search("B2", null, null, 0, 10));
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(), 0), index.search("the", null, null, 0, 10));
+    }
+
+    @Test
+    void requiresEveryQueryTermLikeWebsearchToTsquery() {
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(2L, 1L), 2), index.search("dirty toilets", null, null, 0, 10));
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(2L), 1), index.search("toilet water", null, null, 0, 10));
+        assertEquals(new ComplaintSearchIndex.Hits(List.of(), 0), index.search("dirty refund", null, null, 0, 10));
+    }
+
+    @Test
+    void appliesStationAndDepartmentFiltersAndTracksChanges() {
+        assertEquals(List.of(1L), index.search("dirty", "agra", "cleanliness", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("dirty", "new delhi", null, 0, 10).ids());
+
+        index.departmentChanged(2L, "Cleanliness");
+        index.remove(1L);
+
+        assertEquals(List.of(2L), index.search("dirty", "agra", "Cleanliness", 0, 10).ids());
+        assertEquals(4, index.size());
+    }
+}
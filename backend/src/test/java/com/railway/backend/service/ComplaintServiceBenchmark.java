@@ -0,0 +1,96 @@
+package com.railway.backend.service;
+
+import com.railway.backend.ai.DepartmentKeywordMatcher;
+import com.railway.backend.dto.ComplaintResponse;
+import com.railway.backend.entity.Complaint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Per-row work on the complaint list and intake paths. Department inference on its own is covered by
+// DepartmentKeywordMatcherBenchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComplaintServiceBenchmark {
+    private static final String TEXT = "Coach B2 has no water since the last station, please send someone to refill the tank";
+
+    public String name = "  New   Delhi \t Junction  ";
+    public String phone = " +91 98765 43210 ";
+
+    private ComplaintService service;
+    private Complaint classified;
+    private Complaint unclassified;
+
+    @Setup
+    public void setUp() {
+        service = new ComplaintService(null, null, null, null, null, null, new DepartmentKeywordMatcher(), null, null, null, null, null, null, null);
+        classified = complaint("Water");
+        // Legacy rows without a department are classified again on every read
+        unclassified = complaint(null);
+    }
+
+    @Benchmark
+    public ComplaintResponse toResponse() {
+        return service.toResponse(classified);
+    }
+
+    @Benchmark
+    public ComplaintResponse toResponseInferringDepartment() {
+        return service.toResponse(unclassified);
+    }
+
+    @Benchmark
+    public String normalizeName() {
+        return ComplaintService.normalizeName(name);
+    }
+
+    @Benchmark
+    public String normalizeNameInlineRegex() {
+        String normalized = name.trim().replaceAll("\\s+", " ");
+        return normalized.isBlank() ? null : normalized;
+    }
+
+    @Benchmark
+    public String normalizePhone() {
+        return ComplaintService.normalizePhone(phone);
+    }
+
+    @Benchmark
+    public String normalizePhoneInlineRegex() {
+        String normalized = phone.trim().replaceAll("\\s+", "");
+        return normalized.isBlank() ? null : normalized;
+    }
+
+    private static Complaint complaint(String department) {
+        return Complaint.builder()
+                .id(42L)
+                .passengerName("Asha Verma")
+                .passengerPhone("+919876543210")
+                .complaintText(TEXT)
+                .category(department == null ? "GENERAL" : department)
+                .department(department)
+                .urgencyScore(70)
+                .status("PENDING")
+                .station("New Delhi")
+                .previousStation("Kanpur Central")
+                .nextStation("Agra Cantt")
+                .trainNumber("12302")
+                .createdAt(LocalDateTime.of(2026, 1, 15, 9, 30))
+                .updatedAt(LocalDateTime.of(2026, 1, 15, 9, 45))
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.Complaint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplaintVersionsTest {
+    private ComplaintVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new ComplaintVersions();
+        ReflectionTestUtils.setField(versions, "maxScopes", 1000L);
+        versions.start();
+    }
+
+    @Test
+    void writeBumpsEveryScopeTheComplaintShowsUpIn() {
+        Complaint complaint = Complaint.builder()
+                .station("New Delhi").nextStation("Agra Cantt")
+                .department("Catering").assignedTo("Ravi").createdByUsername("Asha")
+                .build();
+        long stationBefore = versions.stamp(ComplaintVersions.station("NEW DELHI"));
+        long otherBefore = versions.stamp(ComplaintVersions.station("Mumbai Central"));
+
+        versions.touch(complaint);
+
+        assertTrue(versions.stamp(ComplaintVersions.station("NEW DELHI")) > stationBefore);
+        assertTrue(versions.stamp(ComplaintVersions.station("agra cantt")) > stationBefore);
+        assertTrue(versions.stamp(ComplaintVersions.department("Catering")) > 0);
+        assertTrue(versions.stamp(ComplaintVersions.assignee("Ravi")) > 0);
+        assertTrue(versions.stamp(ComplaintVersions.creator("asha")) > 0);
+        assertTrue(versions.stamp(ComplaintVersions.ALL) > 0);
+        assertEquals(otherBefore, versions.stamp(ComplaintVersions.station("Mumbai Central")));
+        assertEquals(0, versions.stamp(ComplaintVersions.LEGACY));
+    }
+
+    @Test
+    void complaintsWithoutAnOwnerStampTheLegacyScope() {
+        versions.touch(Complaint.builder().passengerName("Asha").build());
+
+        assertTrue(versions.stamp(ComplaintVersions.LEGACY) > 0);
+        assertEquals(Set.of(ComplaintVersions.ALL, ComplaintVersions.LEGACY),
+                ComplaintVersions.scopesOf(Complaint.builder().build()));
+    }
+
+    @Test
+    void bumpIsDeferredUntilTheTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versions.touch(Set.of(ComplaintVersions.ALL));
+            assertEquals(0, versions.stamp(ComplaintVersions.ALL));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(1, versions.stamp(ComplaintVersions.ALL));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void etagChangesWithTheStampAndTheVariant() {
+        long stamp = versions.stamp(ComplaintVersions.ALL);
+        String etag = versions.etag(stamp, "all", "asha", null, 50);
+
+        assertEquals(etag, versions.etag(stamp, "all", "asha", null, 50));
+        assertNotEquals(etag, versions.etag(stamp, "all", "ravi", null, 50));
+        assertNotEquals(etag, versions.etag(stamp, "all", "asha", "cursor", 50));
+
+        versions.touch(Set.of(ComplaintVersions.ALL));
+        assertNotEquals(etag, versions.etag(versions.stamp(ComplaintVersions.ALL), "all", "asha", null, 50));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+}
@@ -0,0 +1,52 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.Complaint;
+import com.railway.backend.util.TextFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DuplicateComplaintIndexTest {
+    private static final long NOW = 1_800_000_000_000L;
+
+    private DuplicateComplaintIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DuplicateComplaintIndex(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "windowMinutes", 30L);
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.6);
+        ReflectionTestUtils.setField(index, "maxScopes", 100L);
+        ReflectionTestUtils.setField(index, "maxPerScope", 2);
+        index.start();
+    }
+
+    @Test
+    void linksNearDuplicatesFromTheSameTrainWithinTheWindow() {
+        String train = DuplicateComplaintIndex.scopeOf(Complaint.builder().trainNumber("12951 ").build());
+        index.register(train, 1L, TextFingerprint.signature("AC not working in coach A1"), NOW);
+
+        int[] duplicate = TextFingerprint.signature("The AC is not working in A1 coach, very hot");
+        assertEquals(Optional.of(1L), index.findParent(train, duplicate, NOW + 60_000));
+        assertEquals(Optional.empty(), index.findParent("train:12952", duplicate, NOW + 60_000));
+        assertEquals(Optional.empty(), index.findParent(train, TextFingerprint.signature("Food served was stale"), NOW));
+        assertEquals(Optional.empty(), index.findParent(train, duplicate, NOW + Duration.ofMinutes(31).toMillis()));
+    }
+
+    @Test
+    void keepsOnlyTheNewestParentsPerScope() {
+        index.register("station:agra", 1L, TextFingerprint.signature("No water in the toilet"), NOW);
+        index.register("station:agra", 2L, TextFingerprint.signature("Fan not working"), NOW + 1);
+        index.register("station:agra", 3L, TextFingerprint.signature("Phone stolen near door"), NOW + 2);
+
+        assertEquals(Optional.empty(), index.findParent("station:agra", TextFingerprint.signature("no water in toilet"), NOW + 3));
+        assertEquals(Optional.of(2L), index.findParent("station:agra", TextFingerprint.signature("fan not working"), NOW + 3));
+    }
+}
@@ -0,0 +1,103 @@
+package com.railway.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+    private IdempotencyStore store;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(new SimpleMeterRegistry(), JsonMapper.builder().build());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "ttlMinutes", 5L);
+        ReflectionTestUtils.setField(store, "maxEntries", 100L);
+        ReflectionTestUtils.setField(store, "waitSeconds", 5L);
+        store.start();
+    }
+
+    @Test
+    void replaysTheFirstResponseForTheSameCallerAndKey() {
+        IdempotencyStore.Outcome<Integer> first = store.execute("k1", "asha", "create", 7, executions::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> retry = store.execute("k1", "asha", "create", 7, executions::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> otherCaller = store.execute("k1", "ravi", "create", 7, executions::incrementAndGet);
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.value(), retry.value());
+        assertEquals(2, otherCaller.value());
+        assertEquals(2, executions.get());
+
+        ResponseStatusException reused = assertThrows(ResponseStatusException.class,
+                () -> store.execute("k1", "asha", "create", 8, executions::incrementAndGet));
+        assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, reused.getStatusCode());
+    }
+
+    @Test
+    void rejectsADifferentPayloadEvenWhenItsHashCodeCollides() {
+        // "Aa" and "BB" share a String.hashCode, as two different request bodies can.
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        store.execute("k4", "asha", "assign:9", Arrays.asList("Aa", null), executions::incrementAndGet);
+
+        ResponseStatusException reused = assertThrows(ResponseStatusException.class,
+                () -> store.execute("k4", "asha", "assign:9", Arrays.asList("BB", null), executions::incrementAndGet));
+        assertEquals(HttpStatus.UNPROCESSABLE_CONTENT, reused.getStatusCode());
+        assertTrue(store.execute("k4", "asha", "assign:9", Arrays.asList("Aa", null), executions::incrementAndGet).replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void concurrentRetryWaitsForTheInFlightAttempt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("k2", "asha", "status:4", 1, () -> {
+                    started.countDown();
+                    await(release);
+                    return executions.incrementAndGet();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> retry = CompletableFuture.supplyAsync(() ->
+                store.execute("k2", "asha", "status:4", 1, executions::incrementAndGet));
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).value());
+        assertEquals(1, retry.get(5, TimeUnit.SECONDS).value());
+        assertTrue(retry.get().replayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failedAttemptIsForgottenSoItCanBeRetried() {
+        assertThrows(IllegalStateException.class, () -> store.execute("k3", "asha", "create", 1, () -> {
+            throw new IllegalStateException("classifier down");
+        }));
+
+        assertEquals(1, store.execute("k3", "asha", "create", 1, executions::incrementAndGet).value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
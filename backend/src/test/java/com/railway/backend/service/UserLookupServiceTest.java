@@ -0,0 +1,90 @@
+package com.railway.backend.service;
+
+import com.railway.backend.entity.User;
+import com.railway.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserLookupServiceTest {
+    private final AtomicReference<User> stored = new AtomicReference<>(user("STATION_STAFF"));
+    private final AtomicInteger queries = new AtomicInteger();
+    private final CountDownLatch loading = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean stallNextQuery;
+
+    @Test
+    void aLookupInFlightDuringAnUpdateDoesNotCacheTheStaleUser() throws Exception {
+        UserLookupService lookup = lookup();
+        stallNextQuery = true;
+        CompletableFuture<Optional<User>> inFlight = CompletableFuture.supplyAsync(() -> lookup.findByUsername("ravi"));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // A promotion commits and invalidates while the lookup above still holds the old row.
+        stored.set(user("STATION_MASTER"));
+        lookup.invalidate("ravi");
+        release.countDown();
+        assertEquals("STATION_STAFF", inFlight.get(5, TimeUnit.SECONDS).orElseThrow().getRole());
+
+        assertEquals("STATION_MASTER", lookup.findByUsername("ravi").orElseThrow().getRole());
+        assertEquals("STATION_MASTER", lookup.findByUsername("ravi").orElseThrow().getRole());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void servesRepeatLookupsFromTheCacheUntilInvalidated() {
+        UserLookupService lookup = lookup();
+
+        assertEquals("STATION_STAFF", lookup.findByUsername("ravi").orElseThrow().getRole());
+        assertEquals("STATION_STAFF", lookup.findByUsername("ravi").orElseThrow().getRole());
+        assertEquals(1, queries.get());
+
+        stored.set(user("STATION_MASTER"));
+        lookup.invalidate("ravi");
+
+        assertEquals("STATION_MASTER", lookup.findByUsername("ravi").orElseThrow().getRole());
+        assertEquals(2, queries.get());
+    }
+
+    private UserLookupService lookup() {
+        UserLookupService lookup = new UserLookupService(repository(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(lookup, "cacheEnabled", true);
+        ReflectionTestUtils.setField(lookup, "maxSize", 100L);
+        ReflectionTestUtils.setField(lookup, "ttlSeconds", 60L);
+        lookup.start();
+        return lookup;
+    }
+
+    // Answers findByUsername from `stored`, optionally holding the first answer until the test releases it.
+    private UserRepository repository() {
+        return (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findByUsername")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    queries.incrementAndGet();
+                    User row = stored.get();
+                    if (stallNextQuery) {
+                        stallNextQuery = false;
+                        loading.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+                    return Optional.of(row);
+                });
+    }
+
+    private static User user(String role) {
+        return User.builder().id(1L).username("ravi").password("x").role(role).build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.railway.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+    @Test
+    void readsQuotedFieldsAcrossLinesAndTracksRecordStart() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "passengerName,complaintText\r\n"
+                        + "Asha,\"Fan not working, coach B2\"\r\n"
+                        + "Ravi,\"Said \"\"wait\"\"\nthen left\"\n"
+                        + "Meena,"), 1024);
+
+        assertEquals(List.of("passengerName", "complaintText"), reader.next());
+        assertEquals(List.of("Asha", "Fan not working, coach B2"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("Ravi", "Said \"wait\"\nthen left"), reader.next());
+        assertEquals(3, reader.recordLine());
+        assertEquals(List.of("Meena", ""), reader.next());
+        assertEquals(5, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedAndOversizedFields() {
+        CsvRecordReader unterminated = new CsvRecordReader(new StringReader("a,\"open\nnever closed"), 1024);
+        assertThrows(IllegalArgumentException.class, unterminated::next);
+
+        CsvRecordReader oversized = new CsvRecordReader(new StringReader("x".repeat(20) + "\n"), 10);
+        assertThrows(IllegalArgumentException.class, oversized::next);
+    }
+}
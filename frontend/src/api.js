@@ -12,4 +12,55 @@ API.interceptors.request.use((config) => {
     return config;
 });
 
+// Complaint lists are keyset-paginated; fetch one page and hand back the cursor for the next one.
+export const getPage = async (url, { params = {}, cursor = null, pageSize = 50 } = {}) => {
+    const query = Object.fromEntries(
+        Object.entries(params).filter(([, value]) => value !== undefined && value !== null && value !== "")
+    );
+    const res = await API.get(url, { params: { ...query, limit: pageSize, ...(cursor ? { cursor } : {}) } });
+    return { data: res.data, nextCursor: res.headers["x-next-cursor"] || null };
+};
+
+// Live complaint deltas over SSE. EventSource cannot send the bearer token, so the stream is read with fetch;
+// it reconnects after the server closes it. Returns a function that stops the subscription.
+export const subscribeComplaintEvents = (path, onEvent) => {
+    const controller = new AbortController();
+    const connect = async () => {
+        try {
+            const token = localStorage.getItem("token");
+            const res = await fetch(`${API.defaults.baseURL}${path}`, {
+                headers: { Accept: "text/event-stream", ...(token ? { Authorization: `Bearer ${token}` } : {}) },
+                signal: controller.signal,
+            });
+            if (res.status === 401 || res.status === 403) return;
+            if (res.ok && res.body) {
+                const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+                let buffer = "";
+                for (;;) {
+                    const { value, done } = await reader.read();
+                    if (done) break;
+                    buffer += value;
+                    let end;
+                    while ((end = buffer.indexOf("\n\n")) >= 0) {
+                        const block = buffer.slice(0, end);
+                        buffer = buffer.slice(end + 2);
+                        let type = "message";
+                        const data = [];
+                        block.split("\n").forEach(line => {
+                            if (line.startsWith("event:")) type = line.slice(6).trim();
+                            else if (line.startsWith("data:")) data.push(line.slice(5).trimStart());
+                        });
+                        if (data.length) onEvent(type, JSON.parse(data.join("\n")));
+                    }
+                }
+            }
+        } catch {
+            // fall through to reconnect unless stopped
+        }
+        if (!controller.signal.aborted) setTimeout(connect, 5000);
+    };
+    connect();
+    return () => controller.abort();
+};
+
 export default API;
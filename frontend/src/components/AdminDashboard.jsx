@@ -1,10 +1,13 @@
-import React, { useEffect, useState, useContext, useRef } from "react";
+import React, { useCallback, useEffect, useState, useContext, useRef } from "react";
 import { useNavigate } from "react-router-dom";
 import API from "../api";
+import usePagedList from "../usePagedList";
+import LoadMore from "./LoadMore";
 import { AuthContext } from "../context/AuthContext";
 
 const SECTIONS = ["Dashboard", "Complaints", "SOS Alerts", "Officers", "Analytics"];
 const ICONS = { Dashboard: "🏠", Complaints: "📋", "SOS Alerts": "🚨", Officers: "👮", Analytics: "📊" };
+const SOS_FILTER = { status: "PENDING,IN_PROGRESS", minUrgency: 60 };
 
 const StatusBadge = ({ status }) => {
     const map = { RESOLVED: "bg-green-100 text-green-700", IN_PROGRESS: "bg-yellow-100 text-yellow-700", PENDING: "bg-red-100 text-red-700" };
@@ -16,8 +19,9 @@ const AdminDashboard = () => {
     const { logout, user } = useContext(AuthContext);
     const [analytics, setAnalytics] = useState({});
     const [topIssues, setTopIssues] = useState([]);
-    const [complaints, setComplaints] = useState([]);
-    const [loading, setLoading] = useState(true);
+    const [globalStats, setGlobalStats] = useState(null);
+    const [rpfStats, setRpfStats] = useState(null);
+    const [sosStats, setSosStats] = useState(null);
     const [activeSection, setActiveSection] = useState("Dashboard");
     const [filterStatus, setFilterStatus] = useState("");
     const [filterDept, setFilterDept] = useState("");
@@ -25,6 +29,7 @@ const AdminDashboard = () => {
     const [newOfficer, setNewOfficer] = useState({ name: "", badge: "", email: "" });
     const [officerMsg, setOfficerMsg] = useState("");
     const [trainNumber, setTrainNumber] = useState("");
+    const [activeTrain, setActiveTrain] = useState("");
     const [trainMsg, setTrainMsg] = useState("");
     const [rpfNotice, setRpfNotice] = useState("");
     const prevRpfIdsRef = useRef(new Set());
@@ -35,19 +40,49 @@ const AdminDashboard = () => {
         API.get("/departments/analytics/by-department").then(res => setAnalytics(res.data)).catch(() => { });
         API.get("/departments/analytics/top-issues").then(res => setTopIssues(res.data)).catch(() => { });
         API.get("/users?role=RPF_ADMIN").then(res => setOfficers(res.data)).catch(() => { });
-        API.get("/complaints")
-            .then(res => { setComplaints(res.data); setLoading(false); })
-            .catch(() => setLoading(false));
     }, []);
 
     useEffect(() => {
         const saved = (user?.trainNumber || localStorage.getItem("trainNumber") || "").trim();
         setTrainNumber(saved);
+        setActiveTrain(saved);
     }, [user]);
 
+    // The RPF queue (Security/Emergency, plus Medical at MEDIUM priority or above) is filtered by the server
+    // for the officer's train; an officer without a train number sees nothing, as before.
+    const normalizedTrain = (activeTrain || "").trim();
+    const rpfUrl = normalizedTrain ? "/complaints" : null;
+    const rpfScope = { queue: "rpf", trainNumber: normalizedTrain };
+    const sosScope = { ...rpfScope, ...SOS_FILTER };
+    const {
+        items: rpfComplaints, setItems: setRpfComplaints, loading, loadingMore, hasMore, loadMore,
+    } = usePagedList(rpfUrl, { ...rpfScope, status: filterStatus, department: filterDept });
+    const sos = usePagedList(rpfUrl, sosScope);
+
+    const rpfScopeKey = JSON.stringify(rpfScope);
+    const refreshStats = useCallback(() => {
+        const scope = JSON.parse(rpfScopeKey);
+        API.get("/complaints/stats").then(res => setGlobalStats(res.data)).catch(() => { });
+        if (!scope.trainNumber) {
+            setRpfStats(null);
+            setSosStats(null);
+            return;
+        }
+        API.get("/complaints/stats", { params: scope }).then(res => setRpfStats(res.data)).catch(() => { });
+        API.get("/complaints/stats", { params: { ...scope, ...SOS_FILTER } })
+            .then(res => setSosStats(res.data))
+            .catch(() => { });
+    }, [rpfScopeKey]);
+
+    useEffect(() => { refreshStats(); }, [refreshStats]);
+
     const handleStatusUpdate = (id, newStatus) => {
         API.patch(`/complaints/${id}/status`, { newStatus })
-            .then(() => setComplaints(c => c.map(comp => comp.id === id ? { ...comp, status: newStatus } : comp)))
+            .then(() => {
+                setRpfComplaints(c => c.map(comp => comp.id === id ? { ...comp, status: newStatus } : comp));
+                sos.setItems(c => c.map(comp => comp.id === id ? { ...comp, status: newStatus } : comp));
+                refreshStats();
+            })
             .catch(() => { });
     };
 
@@ -57,40 +92,9 @@ const AdminDashboard = () => {
         return "LOW";
     };
 
-    const matchesSecurityDept = (complaint) => {
-        const dept = (complaint.department || complaint.category || "").toLowerCase();
-        return dept.includes("security") || dept.includes("emergency");
-    };
-
-    const isMedicalForRpf = (complaint) => {
-        const dept = (complaint.department || complaint.category || "").toLowerCase();
-        if (!dept.includes("medical")) return false;
-        return getPriority(complaint.urgencyScore || 0) !== "LOW";
-    };
-
-    const normalizeTrain = (value) => (value || "").trim().toLowerCase();
-    const trainMatch = (complaint) => {
-        if (!trainNumber) return false;
-        return normalizeTrain(complaint.trainNumber) === normalizeTrain(trainNumber);
-    };
-
-    const rpfComplaints = complaints.filter(c => (matchesSecurityDept(c) || isMedicalForRpf(c)) && trainMatch(c));
-
-    const filteredComplaints = rpfComplaints.filter(c => {
-        const matchStatus = filterStatus ? c.status === filterStatus : true;
-        const matchDept = filterDept ? (c.department || c.category || "").toLowerCase().includes(filterDept.toLowerCase()) : true;
-        return matchStatus && matchDept;
-    });
-
-    const isRpfAlert = (complaint) => {
-        if (!(matchesSecurityDept(complaint) || isMedicalForRpf(complaint))) return false;
-        const priority = getPriority(complaint.urgencyScore || 0);
-        return priority !== "LOW";
-    };
-
-    const sosComplaints = rpfComplaints.filter(
-        (c) => c.status !== "RESOLVED" && isRpfAlert(c)
-    );
+    // RPF alerts are open queue complaints at MEDIUM priority or above.
+    const sosComplaints = sos.items.filter(c => c.status !== "RESOLVED");
+    const sosCount = sosStats?.total ?? sosComplaints.length;
 
     useEffect(() => {
         const currentIds = new Set(sosComplaints.map(c => c.id));
@@ -119,6 +123,7 @@ const AdminDashboard = () => {
             const value = res.data?.trainNumber || payload.trainNumber || "";
             localStorage.setItem("trainNumber", value);
             setTrainNumber(value);
+            setActiveTrain(value);
             setTrainMsg("Train number updated.");
         } catch {
             setTrainMsg("Failed to update train number.");
@@ -135,11 +140,13 @@ const AdminDashboard = () => {
         setTimeout(() => setOfficerMsg(""), 3000);
     };
 
-    const today = new Date().toISOString().split("T")[0];
-    const complaintsToday = rpfComplaints.filter(c => c.createdAt?.startsWith(today)).length;
-    const resolutionRate = rpfComplaints.length
-        ? Math.round((rpfComplaints.filter(c => c.status === "RESOLVED").length / rpfComplaints.length) * 100)
-        : 0;
+    const rpfTotal = rpfStats?.total || 0;
+    const rpfStatusCount = (status) => rpfStats?.byStatus?.[status] || 0;
+    const globalTotal = globalStats?.total || 0;
+    const globalStatusCount = (status) => globalStats?.byStatus?.[status] || 0;
+    const complaintsToday = rpfStats?.createdToday || 0;
+    const resolutionRate = rpfTotal ? Math.round((rpfStatusCount("RESOLVED") / rpfTotal) * 100) : 0;
+    const departmentOptions = Object.keys(analytics).sort((a, b) => a.localeCompare(b));
     const recentComplaints = [...rpfComplaints]
         .sort((a, b) => {
             const aTime = a?.createdAt ? new Date(a.createdAt).getTime() : 0;
@@ -152,9 +159,8 @@ const AdminDashboard = () => {
         const email = o.email || o.username || "";
         const displayName = (o.fullName && o.fullName.trim())
             || (email ? email.split("@")[0] : "Officer");
-        const activeCases = rpfComplaints.filter(
-            (c) => c.assignedTo === o.username && c.status !== "RESOLVED"
-        ).length;
+        const cases = rpfStats?.byAssignee?.[o.username] || {};
+        const activeCases = Object.values(cases).reduce((sum, n) => sum + n, 0) - (cases.RESOLVED || 0);
 
         return {
             id: o.id,
@@ -189,8 +195,8 @@ const AdminDashboard = () => {
                         >
                             <span className="text-lg">{ICONS[section]}</span>
                             {section}
-                            {section === "SOS Alerts" && sosComplaints.length > 0 && (
-                                <span className="ml-auto bg-red-500 text-white text-xs rounded-full w-5 h-5 flex items-center justify-center">{sosComplaints.length}</span>
+                            {section === "SOS Alerts" && sosCount > 0 && (
+                                <span className="ml-auto bg-red-500 text-white text-xs rounded-full w-5 h-5 flex items-center justify-center">{sosCount}</span>
                             )}
                         </button>
                     ))}
@@ -257,10 +263,10 @@ const AdminDashboard = () => {
                             )}
                             <div className="grid grid-cols-2 md:grid-cols-5 gap-4 mb-8">
                                 {[
-                                    { label: "Total Complaints", value: rpfComplaints.length, color: "border-blue-500", text: "text-blue-600" },
-                                    { label: "Pending", value: rpfComplaints.filter(c => c.status === "PENDING").length, color: "border-red-500", text: "text-red-600" },
-                                    { label: "Resolved", value: rpfComplaints.filter(c => c.status === "RESOLVED").length, color: "border-green-500", text: "text-green-600" },
-                                    { label: "Active SOS", value: sosComplaints.length, color: "border-orange-500", text: "text-orange-600" },
+                                    { label: "Total Complaints", value: rpfTotal, color: "border-blue-500", text: "text-blue-600" },
+                                    { label: "Pending", value: rpfStatusCount("PENDING"), color: "border-red-500", text: "text-red-600" },
+                                    { label: "Resolved", value: rpfStatusCount("RESOLVED"), color: "border-green-500", text: "text-green-600" },
+                                    { label: "Active SOS", value: sosCount, color: "border-orange-500", text: "text-orange-600" },
                                     { label: "Today", value: complaintsToday, color: "border-purple-500", text: "text-purple-600" },
                                 ].map(s => (
                                     <div key={s.label} className={`bg-white rounded-xl shadow p-5 border-l-4 ${s.color}`}>
@@ -316,7 +322,7 @@ const AdminDashboard = () => {
                             </div>
                             {sosComplaints.length > 0 && (
                                 <div className="mt-6 bg-red-50 border border-red-200 rounded-xl p-5">
-                                    <h3 className="font-bold text-red-700 mb-3">🚨 Active SOS Alerts ({sosComplaints.length})</h3>
+                                    <h3 className="font-bold text-red-700 mb-3">🚨 Active SOS Alerts ({sosCount})</h3>
                                     {sosComplaints.slice(0, 2).map(c => (
                                         <div key={c.id} className="bg-white border border-red-200 rounded-lg p-3 mb-2 flex justify-between items-center">
                                             <div>
@@ -343,10 +349,12 @@ const AdminDashboard = () => {
                                     <option value="IN_PROGRESS">In Progress</option>
                                     <option value="RESOLVED">Resolved</option>
                                 </select>
-                                <input type="text" placeholder="Filter by department..." value={filterDept}
-                                    onChange={e => setFilterDept(e.target.value)}
-                                    className="border border-gray-300 rounded-lg px-3 py-2 text-sm focus:outline-none focus:ring-2 focus:ring-orange-400" />
-                                <span className="text-sm text-gray-500 ml-auto">{filteredComplaints.length} results</span>
+                                <select value={filterDept} onChange={e => setFilterDept(e.target.value)}
+                                    className="border border-gray-300 rounded-lg px-3 py-2 text-sm focus:outline-none focus:ring-2 focus:ring-orange-400">
+                                    <option value="">All Departments</option>
+                                    {departmentOptions.map(d => <option key={d} value={d}>{d}</option>)}
+                                </select>
+                                <span className="text-sm text-gray-500 ml-auto">{rpfComplaints.length}{hasMore ? "+" : ""} results</span>
                             </div>
                             <div className="overflow-x-auto">
                                 <table className="min-w-full text-sm">
@@ -366,9 +374,9 @@ const AdminDashboard = () => {
                                     <tbody>
                                         {loading ? (
                                             <tr><td colSpan="9" className="py-8 text-center text-gray-400">Loading...</td></tr>
-                                        ) : filteredComplaints.length === 0 ? (
+                                        ) : rpfComplaints.length === 0 ? (
                                             <tr><td colSpan="9" className="py-8 text-center text-gray-400">No complaints found.</td></tr>
-                                        ) : filteredComplaints.map(c => (
+                                        ) : rpfComplaints.map(c => (
                                             <tr key={c.id} className="border-b hover:bg-orange-50">
                                                 <td className="py-3 px-4 text-orange-600 font-semibold">#{c.id}</td>
                                                 <td className="py-3 px-4">{c.passengerName}</td>
@@ -392,6 +400,7 @@ const AdminDashboard = () => {
                                         ))}
                                     </tbody>
                                 </table>
+                                <LoadMore hasMore={hasMore} loading={loadingMore} onClick={loadMore} />
                             </div>
                         </div>
                     )}
@@ -486,11 +495,11 @@ const AdminDashboard = () => {
                                     <div className="text-gray-500 mt-1">Resolution Rate</div>
                                 </div>
                                 <div className="bg-white rounded-xl shadow p-6 border-l-4 border-blue-500">
-                                    <div className="text-3xl font-bold text-blue-600">{complaints.filter(c => c.status === "IN_PROGRESS").length}</div>
+                                    <div className="text-3xl font-bold text-blue-600">{globalStatusCount("IN_PROGRESS")}</div>
                                     <div className="text-gray-500 mt-1">In Progress</div>
                                 </div>
                                 <div className="bg-white rounded-xl shadow p-6 border-l-4 border-red-500">
-                                    <div className="text-3xl font-bold text-red-600">{sosComplaints.length}</div>
+                                    <div className="text-3xl font-bold text-red-600">{sosCount}</div>
                                     <div className="text-gray-500 mt-1">SOS / Emergency</div>
                                 </div>
                             </div>
@@ -500,7 +509,7 @@ const AdminDashboard = () => {
                                     {Object.keys(analytics).length === 0 ? (
                                         <p className="text-gray-400 text-sm">No department data yet.</p>
                                     ) : Object.entries(analytics).map(([dept, count]) => {
-                                        const pct = complaints.length ? Math.round((count / complaints.length) * 100) : 0;
+                                        const pct = globalTotal ? Math.round((count / globalTotal) * 100) : 0;
                                         return (
                                             <div key={dept} className="mb-3">
                                                 <div className="flex justify-between text-sm mb-1">
@@ -523,7 +532,8 @@ const AdminDashboard = () => {
                                             {topIssues.map((issue, idx) => (
                                                 <li key={idx} className="flex items-center gap-3 text-sm">
                                                     <span className="w-6 h-6 bg-orange-100 text-orange-600 rounded-full flex items-center justify-center font-bold text-xs">{idx + 1}</span>
-                                                    <span className="text-gray-700 truncate">{issue}</span>
+                                                    <span className="text-gray-700 truncate flex-1">{issue.text}</span>
+                                                    <span className="text-xs text-gray-400">{issue.count}</span>
                                                 </li>
                                             ))}
                                         </ol>
@@ -534,9 +544,9 @@ const AdminDashboard = () => {
                                 <h3 className="font-bold text-gray-800 mb-4">Status Breakdown</h3>
                                 <div className="grid grid-cols-3 gap-4 text-center">
                                     {[
-                                        { label: "Pending", count: complaints.filter(c => c.status === "PENDING").length, color: "bg-red-500" },
-                                        { label: "In Progress", count: complaints.filter(c => c.status === "IN_PROGRESS").length, color: "bg-yellow-500" },
-                                        { label: "Resolved", count: complaints.filter(c => c.status === "RESOLVED").length, color: "bg-green-500" },
+                                        { label: "Pending", count: globalStatusCount("PENDING"), color: "bg-red-500" },
+                                        { label: "In Progress", count: globalStatusCount("IN_PROGRESS"), color: "bg-yellow-500" },
+                                        { label: "Resolved", count: globalStatusCount("RESOLVED"), color: "bg-green-500" },
                                     ].map(s => (
                                         <div key={s.label} className="p-4 rounded-xl bg-gray-50">
                                             <div className={`w-12 h-12 ${s.color} rounded-full mx-auto flex items-center justify-center text-white font-bold text-lg mb-2`}>{s.count}</div>
@@ -1,4 +1,4 @@
-import React, { useState, useContext, useEffect } from "react";
+import React, { useState, useContext, useEffect, useRef } from "react";
 import { useNavigate } from "react-router-dom";
 import API from "../api";
 import { AuthContext } from "../context/AuthContext";
@@ -18,6 +18,8 @@ const ComplaintForm = () => {
     const [error, setError] = useState("");
     const [success, setSuccess] = useState("");
     const [loading, setLoading] = useState(false);
+    // Reused when a submit is retried after a network failure, so the server does not create the complaint twice.
+    const idempotencyKey = useRef(null);
     const fallbackNameFromUsername = (value) => {
         const localPart = (value || "").split("@")[0];
         return localPart
@@ -52,6 +54,9 @@ const ComplaintForm = () => {
         setError("");
         setSuccess("");
         setLoading(true);
+        if (!idempotencyKey.current) {
+            idempotencyKey.current = crypto.randomUUID();
+        }
         try {
             await API.post("/complaints", {
                 passengerName,
@@ -62,7 +67,10 @@ const ComplaintForm = () => {
                 previousStation,
                 nextStation,
                 category: "GENERAL",
+            }, {
+                headers: { "Idempotency-Key": idempotencyKey.current },
             });
+            idempotencyKey.current = null;
             setSuccess("Complaint submitted successfully!");
             setPassengerName(isPassengerUser ? autoPassengerName : "");
             setPassengerPhone("");
@@ -75,6 +83,9 @@ const ComplaintForm = () => {
                 navigate("/complaints");
             }, 2000);
         } catch (err) {
+            if (err.response) {
+                idempotencyKey.current = null;
+            }
             setError(err.response?.data?.message || "Failed to submit complaint");
         } finally {
             setLoading(false);
@@ -1,14 +1,14 @@
-import React, { useEffect, useState, useContext } from "react";
+import React, { useContext } from "react";
 import { Link, useNavigate } from "react-router-dom";
-import API from "../api";
+import usePagedList from "../usePagedList";
+import LoadMore from "./LoadMore";
 import StatusBadge from "./StatusBadge";
 import { AuthContext } from "../context/AuthContext";
 import Navbar from "./Navbar";
 
 const Dashboard = () => {
     const navigate = useNavigate();
-    const [complaints, setComplaints] = useState([]);
-    const [loading, setLoading] = useState(true);
+    const { items: complaints, loading, loadingMore, hasMore, loadMore } = usePagedList("/complaints/my");
     const context = useContext(AuthContext);
     const logoutFn = context?.logout;
 
@@ -17,22 +17,6 @@ const Dashboard = () => {
         navigate("/login");
     };
 
-    const fetchComplaints = async () => {
-        try {
-            setLoading(true);
-            const res = await API.get("/complaints/my");
-            setComplaints(res.data);
-        } catch (err) {
-            console.error("Failed to fetch complaints", err);
-        } finally {
-            setLoading(false);
-        }
-    };
-
-    useEffect(() => {
-        fetchComplaints();
-    }, []);
-
     return (
         <div className="min-h-screen bg-gray-50">
             <Navbar onLogout={handleLogout} />
@@ -107,6 +91,7 @@ const Dashboard = () => {
                                 </tbody>
                             </table>
                         </div>
+                        <LoadMore hasMore={hasMore} loading={loadingMore} onClick={loadMore} />
                     </div>
                 )}
             </div>
@@ -0,0 +1,15 @@
+import React from "react";
+
+const LoadMore = ({ hasMore, loading, onClick }) => {
+    if (!hasMore) return null;
+    return (
+        <div className="text-center py-4">
+            <button onClick={onClick} disabled={loading}
+                className="px-4 py-2 rounded border border-gray-300 text-sm text-gray-700 hover:bg-gray-100 disabled:opacity-50">
+                {loading ? "Loading..." : "Load more"}
+            </button>
+        </div>
+    );
+};
+
+export default LoadMore;
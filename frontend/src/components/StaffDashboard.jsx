@@ -1,9 +1,13 @@
-﻿import React, { useEffect, useState, useContext } from "react";
+﻿import React, { useCallback, useEffect, useState, useContext } from "react";
 import { useNavigate } from "react-router-dom";
-import API from "../api";
+import API, { subscribeComplaintEvents } from "../api";
+import usePagedList from "../usePagedList";
+import LoadMore from "./LoadMore";
 import { AuthContext } from "../context/AuthContext";
 
 const SECTIONS = ["My Tasks", "History", "Profile"];
+const OPEN_TASKS = { status: "PENDING,IN_PROGRESS" };
+const DONE_TASKS = { status: "RESOLVED" };
 const ICONS = { "My Tasks": "📝", History: "📚", Profile: "👤" };
 
 const StatusBadge = ({ status }) => {
@@ -19,8 +23,7 @@ const StatusBadge = ({ status }) => {
 const StaffDashboard = () => {
     const navigate = useNavigate();
     const { user, logout } = useContext(AuthContext);
-    const [complaints, setComplaints] = useState([]);
-    const [loading, setLoading] = useState(true);
+    const [stats, setStats] = useState(null);
     const [activeSection, setActiveSection] = useState("My Tasks");
     const [remarkInput, setRemarkInput] = useState({});
     const [activeRemark, setActiveRemark] = useState(null);
@@ -32,13 +35,39 @@ const StaffDashboard = () => {
 
     const handleLogout = () => { logout(); navigate("/login"); };
 
-    useEffect(() => {
+    const assignedUrl = staffName ? `/complaints/assigned-to/${encodeURIComponent(staffName)}` : null;
+    const active = usePagedList(assignedUrl, OPEN_TASKS);
+    const completed = usePagedList(assignedUrl, DONE_TASKS);
+
+    const fetchStats = useCallback(() => {
         if (!staffName) return;
-        API.get(`/complaints/assigned-to/${encodeURIComponent(staffName)}`)
-            .then(res => { setComplaints(res.data); setLoading(false); })
-            .catch(() => setLoading(false));
+        API.get("/complaints/stats", { params: { assignedTo: staffName } })
+            .then(res => setStats(res.data))
+            .catch(() => { });
     }, [staffName]);
 
+    useEffect(() => { fetchStats(); }, [fetchStats]);
+
+    // Assignments and status changes on this queue arrive live instead of needing a reload.
+    const { setItems: setActiveItems } = active;
+    const { reload: reloadCompleted } = completed;
+    useEffect(() => {
+        if (!assignedUrl) return undefined;
+        return subscribeComplaintEvents(`${assignedUrl}/stream`, (type, complaint) => {
+            if (!complaint?.id) return;
+            const mine = complaint.assignedTo === staffName && complaint.status !== "RESOLVED";
+            setActiveItems(prev => {
+                const rest = prev.filter(c => c.id !== complaint.id);
+                if (!mine) return rest;
+                return prev.some(c => c.id === complaint.id)
+                    ? prev.map(c => c.id === complaint.id ? complaint : c)
+                    : [complaint, ...rest];
+            });
+            if (complaint.status === "RESOLVED") reloadCompleted();
+            fetchStats();
+        });
+    }, [assignedUrl, staffName, setActiveItems, reloadCompleted, fetchStats]);
+
     useEffect(() => {
         if (!stationName || stationName === "Your Station") return;
 
@@ -56,7 +85,13 @@ const StaffDashboard = () => {
     const handleStatusUpdate = (id, newStatus) => {
         API.patch(`/complaints/${id}/status`, { newStatus })
             .then((res) => {
-                setComplaints(c => c.map(comp => comp.id === id ? res.data : comp));
+                if (newStatus === "RESOLVED") {
+                    active.setItems(c => c.filter(comp => comp.id !== id));
+                    completed.reload();
+                } else {
+                    active.setItems(c => c.map(comp => comp.id === id ? res.data : comp));
+                }
+                fetchStats();
                 showSuccess("Status updated!");
             })
             .catch(() => { });
@@ -67,7 +102,7 @@ const StaffDashboard = () => {
         if (!remark?.trim()) return;
         API.patch(`/complaints/${id}/remarks`, { remarks: remark.trim() })
             .then(() => {
-                setComplaints(c => c.map(comp => comp.id === id ? { ...comp, remarks: remark.trim() } : comp));
+                active.setItems(c => c.map(comp => comp.id === id ? { ...comp, remarks: remark.trim() } : comp));
                 setActiveRemark(null);
                 setRemarkInput(prev => ({ ...prev, [id]: "" }));
                 showSuccess("Remark saved!");
@@ -80,8 +115,9 @@ const StaffDashboard = () => {
         setTimeout(() => setSuccessMsg(""), 3000);
     };
 
-    const activeTasks = complaints.filter(c => c.status !== "RESOLVED");
-    const completedTasks = complaints.filter(c => c.status === "RESOLVED");
+    const totalCount = stats?.total || 0;
+    const completedCount = stats?.byStatus?.RESOLVED || 0;
+    const activeCount = totalCount - completedCount;
 
     return (
         <div className="flex h-screen bg-gray-100 overflow-hidden">
@@ -105,8 +141,8 @@ const StaffDashboard = () => {
                         >
                             <span className="text-lg">{ICONS[section]}</span>
                             {section}
-                            {section === "My Tasks" && activeTasks.length > 0 && (
-                                <span className="ml-auto bg-red-500 text-white text-xs rounded-full w-5 h-5 flex items-center justify-center">{activeTasks.length}</span>
+                            {section === "My Tasks" && activeCount > 0 && (
+                                <span className="ml-auto bg-red-500 text-white text-xs rounded-full w-5 h-5 flex items-center justify-center">{activeCount}</span>
                             )}
                         </button>
                     ))}
@@ -140,9 +176,9 @@ const StaffDashboard = () => {
                             {/* Stats */}
                             <div className="grid grid-cols-3 gap-4 mb-8">
                                 {[
-                                    { label: "Assigned to Me", value: complaints.length, color: "border-indigo-500", text: "text-indigo-600" },
-                                    { label: "Active Tasks", value: activeTasks.length, color: "border-yellow-500", text: "text-yellow-600" },
-                                    { label: "Completed", value: completedTasks.length, color: "border-green-500", text: "text-green-600" },
+                                    { label: "Assigned to Me", value: totalCount, color: "border-indigo-500", text: "text-indigo-600" },
+                                    { label: "Active Tasks", value: activeCount, color: "border-yellow-500", text: "text-yellow-600" },
+                                    { label: "Completed", value: completedCount, color: "border-green-500", text: "text-green-600" },
                                 ].map(s => (
                                     <div key={s.label} className={`bg-white rounded-xl shadow p-6 border-l-4 ${s.color}`}>
                                         <div className={`text-3xl font-bold ${s.text}`}>{s.value}</div>
@@ -175,15 +211,15 @@ const StaffDashboard = () => {
                                 )}
                             </div>
 
-                            {loading ? (
+                            {active.loading ? (
                                 <div className="bg-white rounded-xl shadow p-12 text-center text-gray-400">Loading tasks...</div>
-                            ) : activeTasks.length === 0 ? (
+                            ) : active.items.length === 0 ? (
                                 <div className="bg-white rounded-xl shadow p-12 text-center">
                                     <p className="text-gray-500 text-lg">All tasks completed! Great work.</p>
                                 </div>
                             ) : (
                                 <div className="space-y-4">
-                                    {activeTasks.map(c => (
+                                    {active.items.map(c => (
                                         <div key={c.id} className="bg-white rounded-xl shadow p-6 border border-gray-100 hover:border-indigo-200 transition">
                                             <div className="flex justify-between items-start">
                                                 <div className="flex-1">
@@ -238,6 +274,7 @@ const StaffDashboard = () => {
                                             </div>
                                         </div>
                                     ))}
+                                    <LoadMore hasMore={active.hasMore} loading={active.loadingMore} onClick={active.loadMore} />
                                 </div>
                             )}
                         </div>
@@ -247,9 +284,9 @@ const StaffDashboard = () => {
                     {activeSection === "History" && (
                         <div className="bg-white rounded-xl shadow">
                             <div className="p-5 border-b">
-                                <h3 className="font-bold text-gray-800">Completed Tasks ({completedTasks.length})</h3>
+                                <h3 className="font-bold text-gray-800">Completed Tasks ({completedCount})</h3>
                             </div>
-                            {completedTasks.length === 0 ? (
+                            {completed.items.length === 0 ? (
                                 <div className="p-12 text-center text-gray-400">No completed tasks yet.</div>
                             ) : (
                                 <div className="overflow-x-auto">
@@ -266,7 +303,7 @@ const StaffDashboard = () => {
                                             </tr>
                                         </thead>
                                         <tbody>
-                                            {completedTasks.map(c => (
+                                            {completed.items.map(c => (
                                                 <tr key={c.id} className="border-b hover:bg-indigo-50">
                                                     <td className="py-3 px-4 text-indigo-600 font-semibold">#{c.id}</td>
                                                     <td className="py-3 px-4 max-w-xs truncate">{c.complaintText}</td>
@@ -280,6 +317,7 @@ const StaffDashboard = () => {
                                             ))}
                                         </tbody>
                                     </table>
+                                    <LoadMore hasMore={completed.hasMore} loading={completed.loadingMore} onClick={completed.loadMore} />
                                 </div>
                             )}
                         </div>
@@ -301,20 +339,20 @@ const StaffDashboard = () => {
                                     </div>
                                     <div className="flex justify-between bg-gray-50 rounded-lg p-3">
                                         <span className="text-gray-500 text-sm">Total Tasks</span>
-                                        <span className="font-semibold text-sm">{complaints.length}</span>
+                                        <span className="font-semibold text-sm">{totalCount}</span>
                                     </div>
                                     <div className="flex justify-between bg-gray-50 rounded-lg p-3">
                                         <span className="text-gray-500 text-sm">Completed</span>
-                                        <span className="font-semibold text-sm text-green-600">{completedTasks.length}</span>
+                                        <span className="font-semibold text-sm text-green-600">{completedCount}</span>
                                     </div>
                                     <div className="flex justify-between bg-gray-50 rounded-lg p-3">
                                         <span className="text-gray-500 text-sm">Pending</span>
-                                        <span className="font-semibold text-sm text-yellow-600">{activeTasks.length}</span>
+                                        <span className="font-semibold text-sm text-yellow-600">{activeCount}</span>
                                     </div>
                                     <div className="flex justify-between bg-gray-50 rounded-lg p-3">
                                         <span className="text-gray-500 text-sm">Completion Rate</span>
                                         <span className="font-semibold text-sm text-indigo-600">
-                                            {complaints.length ? Math.round((completedTasks.length / complaints.length) * 100) : 0}%
+                                            {totalCount ? Math.round((completedCount / totalCount) * 100) : 0}%
                                         </span>
                                     </div>
                                 </div>
@@ -1,10 +1,14 @@
-﻿import React, { useEffect, useState, useContext, useRef } from "react";
+﻿import React, { useCallback, useEffect, useState, useContext, useRef } from "react";
 import { useNavigate } from "react-router-dom";
-import API from "../api";
+import API, { subscribeComplaintEvents } from "../api";
+import usePagedList from "../usePagedList";
+import LoadMore from "./LoadMore";
 import { AuthContext } from "../context/AuthContext";
 
 const SECTIONS = ["Dashboard", "Complaints", "SOS Alerts", "Staff Management", "Reports"];
 const ICONS = { Dashboard: "🏠", Complaints: "📋", "SOS Alerts": "🚨", "Staff Management": "👷", Reports: "📢" };
+// Open complaints urgent enough to be SOS whatever their text says.
+const URGENT_OPEN = { status: "PENDING,IN_PROGRESS", minUrgency: 80 };
 
 const StatusBadge = ({ status }) => {
     const map = {
@@ -19,9 +23,8 @@ const StatusBadge = ({ status }) => {
 const StationMasterDashboard = () => {
     const navigate = useNavigate();
     const { user, logout } = useContext(AuthContext);
-    const [complaints, setComplaints] = useState([]);
     const [staff, setStaff] = useState([]);
-    const [loading, setLoading] = useState(true);
+    const [complaintStats, setComplaintStats] = useState(null);
     const [activeSection, setActiveSection] = useState("Dashboard");
     const [filterStatus, setFilterStatus] = useState("");
     const [escalatedIds, setEscalatedIds] = useState([]);
@@ -37,12 +40,48 @@ const StationMasterDashboard = () => {
 
     const stationName = user?.stationName || user?.station || "Your Station";
 
+    const hasStation = stationName && stationName !== "Your Station";
+
     const handleLogout = () => { logout(); navigate("/login"); };
 
+    const complaintsUrl = hasStation ? `/complaints/station/${encodeURIComponent(stationName)}` : "/complaints";
+    // Escalation is tracked in this session only; escalated complaints are IN_PROGRESS on the server.
+    const serverStatus = filterStatus === "ESCALATED" ? "IN_PROGRESS" : filterStatus;
+    const {
+        items: complaints, setItems: setComplaints, loading, loadingMore, hasMore, loadMore,
+    } = usePagedList(complaintsUrl, { status: serverStatus });
+    const urgent = usePagedList(complaintsUrl, URGENT_OPEN);
+
+    const refreshStats = useCallback(() => {
+        API.get("/complaints/stats", { params: hasStation ? { station: stationName } : {} })
+            .then(res => setComplaintStats(res.data))
+            .catch(() => { });
+    }, [hasStation, stationName]);
+
+    useEffect(() => { refreshStats(); }, [refreshStats]);
+
+    // New complaints and changes at this station arrive live; loaded rows are updated in place.
+    const { setItems: setUrgentItems } = urgent;
+    useEffect(() => {
+        if (!hasStation) return undefined;
+        const upsert = (complaint, isNew) => (prev) => prev.some(c => c.id === complaint.id)
+            ? prev.map(c => c.id === complaint.id ? complaint : c)
+            : isNew ? [complaint, ...prev] : prev;
+        return subscribeComplaintEvents(`/complaints/station/${encodeURIComponent(stationName)}/stream`, (type, complaint) => {
+            if (!complaint?.id) return;
+            setComplaints(upsert(complaint, type === "complaint-created"));
+            setUrgentItems(upsert(complaint, type === "complaint-created" && (complaint.urgencyScore || 0) >= 80));
+            refreshStats();
+        });
+    }, [hasStation, stationName, setComplaints, setUrgentItems, refreshStats]);
+
+    const replaceComplaint = (updated) => {
+        setComplaints(prev => prev.map(c => c.id === updated.id ? updated : c));
+        urgent.setItems(prev => prev.map(c => c.id === updated.id ? updated : c));
+        refreshStats();
+    };
+
     useEffect(() => {
-        const complaintsUrl = stationName && stationName !== "Your Station"
-            ? `/complaints/station/${encodeURIComponent(stationName)}`
-            : "/complaints";
         const staffUrl = stationName && stationName !== "Your Station"
             ? `/users?role=STATION_STAFF&station=${encodeURIComponent(stationName)}`
             : "/users?role=STATION_STAFF";
@@ -51,20 +90,18 @@ const StationMasterDashboard = () => {
             : null;
         const announcementReq = announcementUrl ? API.get(announcementUrl) : Promise.resolve({ data: [] });
 
-        Promise.all([API.get(complaintsUrl), API.get(staffUrl), announcementReq])
-            .then(([complaintsRes, staffRes, announcementRes]) => {
-                setComplaints(complaintsRes.data);
+        Promise.all([API.get(staffUrl), announcementReq])
+            .then(([staffRes, announcementRes]) => {
                 setStaff(staffRes.data);
                 setAnnouncementLog(announcementRes.data || []);
-                setLoading(false);
             })
-            .catch(() => setLoading(false));
+            .catch(() => { });
     }, [stationName]);
 
     const handleStatusUpdate = (id, newStatus) => {
         API.patch(`/complaints/${id}/status`, { newStatus })
             .then((res) => {
-                setComplaints(c => c.map(comp => comp.id === id ? res.data : comp));
+                replaceComplaint(res.data);
                 if (newStatus === "RESOLVED") {
                     setEscalatedIds(prev => prev.filter(x => x !== id));
                 }
@@ -82,7 +119,7 @@ const StationMasterDashboard = () => {
         if (!staffUsername) return;
         API.patch(`/complaints/${complaintId}/assign?staffName=${encodeURIComponent(staffUsername)}`)
             .then((res) => {
-                setComplaints(prev => prev.map(c => c.id === complaintId ? res.data : c));
+                replaceComplaint(res.data);
             })
             .catch(() => { });
     };
@@ -92,7 +129,7 @@ const StationMasterDashboard = () => {
         if (!remark) return;
         API.patch(`/complaints/${complaintId}/remarks`, { remarks: remark })
             .then((res) => {
-                setComplaints(prev => prev.map(c => c.id === complaintId ? res.data : c));
+                replaceComplaint(res.data);
                 setRemarkInput(prev => ({ ...prev, [complaintId]: "" }));
                 setActiveRemark(null);
             })
@@ -139,9 +176,12 @@ const StationMasterDashboard = () => {
         return highUrgency || highRiskKeyword;
     };
 
-    const sosComplaints = complaints.filter(
-        (c) => c.status !== "RESOLVED" && isHighEmergency(c)
-    );
+    // Urgent open complaints come from the server; keyword matches can only be spotted in the pages loaded so far.
+    const sosComplaints = [
+        ...urgent.items.filter(c => c.status !== "RESOLVED"),
+        ...complaints.filter(c => c.status !== "RESOLVED" && isHighEmergency(c)
+            && !urgent.items.some(u => u.id === c.id)),
+    ];
 
     useEffect(() => {
         const currentIds = new Set(sosComplaints.map(c => c.id));
@@ -163,17 +203,20 @@ const StationMasterDashboard = () => {
         return () => clearTimeout(timer);
     }, [sosNotice]);
 
-    const today = new Date().toISOString().split("T")[0];
-    const todayCount = complaints.filter(c => c.createdAt?.startsWith(today)).length;
-    const resolutionRate = complaints.length
-        ? Math.round((complaints.filter(c => c.status === "RESOLVED").length / complaints.length) * 100)
-        : 0;
-    const staffWithStats = staff.map((s) => ({
-        ...s,
-        displayName: (s.username || "").split("@")[0] || s.username,
-        activeCases: complaints.filter(c => c.assignedTo === s.username && c.status !== "RESOLVED").length,
-        totalCases: complaints.filter(c => c.assignedTo === s.username).length,
-    }));
+    const totalCount = complaintStats?.total || 0;
+    const statusCount = (status) => complaintStats?.byStatus?.[status] || 0;
+    const todayCount = complaintStats?.createdToday || 0;
+    const resolutionRate = totalCount ? Math.round((statusCount("RESOLVED") / totalCount) * 100) : 0;
+    const staffWithStats = staff.map((s) => {
+        const cases = complaintStats?.byAssignee?.[s.username] || {};
+        const totalCases = Object.values(cases).reduce((sum, n) => sum + n, 0);
+        return {
+            ...s,
+            displayName: (s.username || "").split("@")[0] || s.username,
+            activeCases: totalCases - (cases.RESOLVED || 0),
+            totalCases,
+        };
+    });
 
     return (
         <div className="flex h-screen bg-gray-100 overflow-hidden">
@@ -242,9 +285,9 @@ const StationMasterDashboard = () => {
                         <div>
                             <div className="grid grid-cols-2 md:grid-cols-5 gap-4 mb-8">
                                 {[
-                                    { label: "Total Complaints", value: complaints.length, color: "border-teal-500", text: "text-teal-600" },
-                                    { label: "Pending", value: complaints.filter(c => c.status === "PENDING").length, color: "border-red-500", text: "text-red-600" },
-                                    { label: "Resolved", value: complaints.filter(c => c.status === "RESOLVED").length, color: "border-green-500", text: "text-green-600" },
+                                    { label: "Total Complaints", value: totalCount, color: "border-teal-500", text: "text-teal-600" },
+                                    { label: "Pending", value: statusCount("PENDING"), color: "border-red-500", text: "text-red-600" },
+                                    { label: "Resolved", value: statusCount("RESOLVED"), color: "border-green-500", text: "text-green-600" },
                                     { label: "Escalated to RPF", value: escalatedIds.length, color: "border-purple-500", text: "text-purple-600" },
                                     { label: "Active SOS", value: sosComplaints.length, color: "border-orange-500", text: "text-orange-600" },
                                 ].map(s => (
@@ -357,7 +400,7 @@ const StationMasterDashboard = () => {
                                     <option value="RESOLVED">Resolved</option>
                                     <option value="ESCALATED">Escalated to RPF</option>
                                 </select>
-                                <span className="text-sm text-gray-500 ml-auto">{filteredComplaints.length} complaints — Station: {stationName}</span>
+                                <span className="text-sm text-gray-500 ml-auto">{filteredComplaints.length}{hasMore ? "+" : ""} complaints — Station: {stationName}</span>
                             </div>
                             <div className="overflow-x-auto">
                                 <table className="min-w-full text-sm">
@@ -439,6 +482,7 @@ const StationMasterDashboard = () => {
                                         })}
                                     </tbody>
                                 </table>
+                                <LoadMore hasMore={hasMore} loading={loadingMore} onClick={loadMore} />
                             </div>
                         </div>
                     )}
@@ -585,10 +629,10 @@ const StationMasterDashboard = () => {
                                 <h3 className="font-bold text-gray-800 mb-4">📊 Station Summary Report</h3>
                                 <div className="grid md:grid-cols-3 gap-4">
                                     {[
-                                        { label: "Total Complaints", value: complaints.length, icon: "📋" },
-                                        { label: "Resolved", value: complaints.filter(c => c.status === "RESOLVED").length, icon: "✅" },
+                                        { label: "Total Complaints", value: totalCount, icon: "📋" },
+                                        { label: "Resolved", value: statusCount("RESOLVED"), icon: "✅" },
                                         { label: "Escalated to RPF", value: escalatedIds.length, icon: "↑" },
-                                        { label: "Pending", value: complaints.filter(c => c.status === "PENDING").length, icon: "⏳" },
+                                        { label: "Pending", value: statusCount("PENDING"), icon: "⏳" },
                                         { label: "Station Staff", value: staffWithStats.length, icon: "👷" },
                                         { label: "Resolution Rate", value: `${resolutionRate}%`, icon: "📈" },
                                     ].map(s => (
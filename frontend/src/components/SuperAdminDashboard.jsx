@@ -1,6 +1,8 @@
-import React, { useContext, useEffect, useState } from "react";
+import React, { useCallback, useContext, useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import API from "../api";
+import usePagedList from "../usePagedList";
+import LoadMore from "./LoadMore";
 import { AuthContext } from "../context/AuthContext";
 
 const SECTIONS = ["Overview", "All Users", "Create User", "Complaints"];
@@ -22,8 +24,9 @@ const SuperAdminDashboard = () => {
 
     const [activeSection, setActiveSection] = useState("Overview");
     const [users, setUsers] = useState([]);
-    const [complaints, setComplaints] = useState([]);
     const [stats, setStats] = useState({});
+    const [complaintStats, setComplaintStats] = useState(null);
+    const [departmentCounts, setDepartmentCounts] = useState({});
     const [loading, setLoading] = useState(true);
 
     const [newUser, setNewUser] = useState({ email: "", password: "", role: "USER", stationName: "" });
@@ -42,20 +45,31 @@ const SuperAdminDashboard = () => {
         navigate("/login");
     };
 
+    const {
+        items: complaints, setItems: setComplaints, loading: complaintsLoading, loadingMore, hasMore, loadMore,
+    } = usePagedList("/complaints", {
+        status: complaintStatusFilter === "ALL" ? "" : complaintStatusFilter,
+        department: complaintDeptFilter,
+    });
+
+    const refreshComplaintStats = useCallback(() => {
+        API.get("/complaints/stats").then(r => setComplaintStats(r.data)).catch(() => { });
+        API.get("/departments/analytics/by-department").then(r => setDepartmentCounts(r.data || {})).catch(() => { });
+    }, []);
+
     useEffect(() => {
         Promise.all([
             API.get("/superadmin/users"),
             API.get("/superadmin/stats"),
-            API.get("/complaints"),
         ])
-            .then(([usersRes, statsRes, complaintsRes]) => {
+            .then(([usersRes, statsRes]) => {
                 setUsers(usersRes.data);
                 setStats(statsRes.data);
-                setComplaints(complaintsRes.data);
                 setLoading(false);
             })
             .catch(() => setLoading(false));
-    }, []);
+        refreshComplaintStats();
+    }, [refreshComplaintStats]);
 
     const refreshUsers = () => {
         API.get("/superadmin/users").then(r => setUsers(r.data)).catch(() => { });
@@ -110,6 +124,7 @@ const SuperAdminDashboard = () => {
         try {
             await API.delete(`/complaints/${id}`);
             setComplaints(prev => prev.filter(c => c.id !== id));
+            refreshComplaintStats();
         } catch (err) {
             window.alert(err.response?.data?.message || "Failed to delete complaint.");
         }
@@ -124,23 +139,11 @@ const SuperAdminDashboard = () => {
         return matchSearch && matchRole;
     });
 
-    const sortedComplaints = [...complaints].sort((a, b) => {
-        const deptA = (a.department || a.category || "zzz").toLowerCase();
-        const deptB = (b.department || b.category || "zzz").toLowerCase();
-        if (deptA !== deptB) return deptA.localeCompare(deptB);
-        return new Date(b.createdAt || 0).getTime() - new Date(a.createdAt || 0).getTime();
-    });
-    const complaintDepartments = Array.from(
-        new Set(complaints.map(c => c.department || c.category).filter(Boolean))
-    ).sort((a, b) => a.localeCompare(b));
-    const filteredComplaints = sortedComplaints.filter((c) => {
-        const statusOk = complaintStatusFilter === "ALL" ? true : c.status === complaintStatusFilter;
-        const deptOk = complaintDeptFilter ? (c.department || c.category || "") === complaintDeptFilter : true;
-        return statusOk && deptOk;
-    });
-
-    const resolutionRate = complaints.length
-        ? Math.round((complaints.filter(c => c.status === "RESOLVED").length / complaints.length) * 100)
+    // Status and department filters are applied by the server; the list holds only the pages loaded so far.
+    const complaintDepartments = Object.keys(departmentCounts).sort((a, b) => a.localeCompare(b));
+    const statusCount = (status) => complaintStats?.byStatus?.[status] || 0;
+    const resolutionRate = complaintStats?.total
+        ? Math.round((statusCount("RESOLVED") / complaintStats.total) * 100)
         : 0;
 
     return (
@@ -193,7 +196,7 @@ const SuperAdminDashboard = () => {
                                     { label: "Station Staff", value: stats.stationStaff ?? 0, color: "border-indigo-500", text: "text-indigo-600" },
                                     { label: "RPF Admins", value: stats.rpfAdmins ?? 0, color: "border-orange-500", text: "text-orange-600" },
                                     { label: "Passengers", value: stats.passengers ?? 0, color: "border-blue-500", text: "text-blue-600" },
-                                    { label: "Total Complaints", value: complaints.length, color: "border-red-500", text: "text-red-600" },
+                                    { label: "Total Complaints", value: complaintStats?.total ?? 0, color: "border-red-500", text: "text-red-600" },
                                 ].map((s) => (
                                     <div key={s.label} className={`bg-white rounded-xl shadow p-5 border-l-4 ${s.color}`}>
                                         <div className={`text-3xl font-bold ${s.text}`}>{loading ? "-" : s.value}</div>
@@ -339,19 +342,19 @@ const SuperAdminDashboard = () => {
                                         onClick={() => setComplaintStatusFilter(prev => (prev === "PENDING" ? "ALL" : "PENDING"))}
                                         className={`px-3 py-1 rounded-full font-semibold border ${complaintStatusFilter === "PENDING" ? "bg-red-100 text-red-700 border-red-200 shadow-sm" : "bg-white text-red-600 border-red-100"}`}
                                     >
-                                        Pending: {complaints.filter(c => c.status === "PENDING").length}
+                                        Pending: {statusCount("PENDING")}
                                     </button>
                                     <button
                                         onClick={() => setComplaintStatusFilter(prev => (prev === "IN_PROGRESS" ? "ALL" : "IN_PROGRESS"))}
                                         className={`px-3 py-1 rounded-full font-semibold border ${complaintStatusFilter === "IN_PROGRESS" ? "bg-yellow-100 text-yellow-700 border-yellow-200 shadow-sm" : "bg-white text-yellow-600 border-yellow-100"}`}
                                     >
-                                        In Progress: {complaints.filter(c => c.status === "IN_PROGRESS").length}
+                                        In Progress: {statusCount("IN_PROGRESS")}
                                     </button>
                                     <button
                                         onClick={() => setComplaintStatusFilter(prev => (prev === "RESOLVED" ? "ALL" : "RESOLVED"))}
                                         className={`px-3 py-1 rounded-full font-semibold border ${complaintStatusFilter === "RESOLVED" ? "bg-green-100 text-green-700 border-green-200 shadow-sm" : "bg-white text-green-600 border-green-100"}`}
                                     >
-                                        Resolved: {complaints.filter(c => c.status === "RESOLVED").length}
+                                        Resolved: {statusCount("RESOLVED")}
                                     </button>
                                 </div>
                             </div>
@@ -370,7 +373,7 @@ const SuperAdminDashboard = () => {
                                 >
                                     Clear Filters
                                 </button>
-                                <span className="text-xs text-gray-500 ml-auto">{filteredComplaints.length} results</span>
+                                <span className="text-xs text-gray-500 ml-auto">{complaints.length}{hasMore ? "+" : ""} results</span>
                             </div>
                             <div className="overflow-x-auto">
                                 <table className="min-w-full text-sm">
@@ -389,11 +392,11 @@ const SuperAdminDashboard = () => {
                                         </tr>
                                     </thead>
                                     <tbody>
-                                        {loading ? (
+                                        {complaintsLoading ? (
                                             <tr><td colSpan="10" className="py-8 text-center text-gray-400">Loading...</td></tr>
-                                        ) : filteredComplaints.length === 0 ? (
+                                        ) : complaints.length === 0 ? (
                                             <tr><td colSpan="10" className="py-8 text-center text-gray-400">No complaints found.</td></tr>
-                                        ) : filteredComplaints.map(c => (
+                                        ) : complaints.map(c => (
                                             <tr key={c.id} className="border-b hover:bg-purple-50">
                                                 <td className="py-3 px-4 text-purple-600 font-semibold">#{c.id}</td>
                                                 <td className="py-3 px-4">{c.passengerName}</td>
@@ -422,6 +425,7 @@ const SuperAdminDashboard = () => {
                                         ))}
                                     </tbody>
                                 </table>
+                                <LoadMore hasMore={hasMore} loading={loadingMore} onClick={loadMore} />
                             </div>
                         </div>
                     )}
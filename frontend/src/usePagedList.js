@@ -0,0 +1,54 @@
+import { useCallback, useEffect, useRef, useState } from "react";
+import { getPage } from "./api";
+
+// First page of a complaint list plus "load more"; starts over from the top whenever the url or filters change.
+const usePagedList = (url, params = {}, pageSize = 50) => {
+    const [items, setItems] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
+    const generation = useRef(0);
+    const paramsKey = JSON.stringify(params);
+
+    const reload = useCallback(() => {
+        const current = ++generation.current;
+        if (!url) {
+            setItems([]);
+            setNextCursor(null);
+            setLoading(false);
+            return Promise.resolve();
+        }
+        setLoading(true);
+        return getPage(url, { params: JSON.parse(paramsKey), pageSize })
+            .then(res => {
+                if (current !== generation.current) return;
+                setItems(res.data);
+                setNextCursor(res.nextCursor);
+            })
+            .catch(() => { })
+            .finally(() => { if (current === generation.current) setLoading(false); });
+    }, [url, paramsKey, pageSize]);
+
+    useEffect(() => { reload(); }, [reload]);
+
+    const loadMore = useCallback(() => {
+        if (!nextCursor || loadingMore) return;
+        const current = generation.current;
+        setLoadingMore(true);
+        getPage(url, { params: JSON.parse(paramsKey), cursor: nextCursor, pageSize })
+            .then(res => {
+                if (current !== generation.current) return;
+                setItems(prev => {
+                    const seen = new Set(prev.map(c => c.id));
+                    return [...prev, ...res.data.filter(c => !seen.has(c.id))];
+                });
+                setNextCursor(res.nextCursor);
+            })
+            .catch(() => { })
+            .finally(() => setLoadingMore(false));
+    }, [url, paramsKey, pageSize, nextCursor, loadingMore]);
+
+    return { items, setItems, loading, loadingMore, hasMore: Boolean(nextCursor), loadMore, reload };
+};
+
+export default usePagedList;